@@ -0,0 +1,105 @@
+package com.github.borisskert.benchmarks;
+
+import com.github.borisskert.ImmutableList;
+import com.github.borisskert.ImmutableMap;
+import com.github.borisskert.ImmutableSet;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Measures the collectors in sequential and parallel mode against {@code Collectors.toUnmodifiable*} and
+ * {@code collectingAndThen(toList(), Collections::unmodifiableList)}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CollectorBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class StreamMode {
+        @Param({"sequential", "parallel"})
+        public String mode;
+
+        Stream<String> stream(Fixtures fixtures) {
+            Stream<String> stream = fixtures.arrayList.stream();
+
+            if ("parallel".equals(mode)) {
+                return stream.parallel();
+            }
+
+            return stream;
+        }
+    }
+
+    /* *****************************************************************************************************************
+     * List
+     **************************************************************************************************************** */
+
+    @Benchmark
+    public List<String> immutableList(Fixtures fixtures, StreamMode mode) {
+        return mode.stream(fixtures).collect(ImmutableList.collect());
+    }
+
+    @Benchmark
+    public List<String> unmodifiableList(Fixtures fixtures, StreamMode mode) {
+        return mode.stream(fixtures).collect(Collectors.collectingAndThen(Collectors.toList(), Collections::unmodifiableList));
+    }
+
+    @Benchmark
+    public List<String> toUnmodifiableList(Fixtures fixtures, StreamMode mode) {
+        return mode.stream(fixtures).collect(Collectors.toUnmodifiableList());
+    }
+
+    /* *****************************************************************************************************************
+     * Set
+     **************************************************************************************************************** */
+
+    @Benchmark
+    public Set<String> immutableSet(Fixtures fixtures, StreamMode mode) {
+        return mode.stream(fixtures).collect(ImmutableSet.collect());
+    }
+
+    @Benchmark
+    public Set<String> unmodifiableSet(Fixtures fixtures, StreamMode mode) {
+        return mode.stream(fixtures).collect(Collectors.collectingAndThen(Collectors.toSet(), Collections::unmodifiableSet));
+    }
+
+    @Benchmark
+    public Set<String> toUnmodifiableSet(Fixtures fixtures, StreamMode mode) {
+        return mode.stream(fixtures).collect(Collectors.toUnmodifiableSet());
+    }
+
+    /* *****************************************************************************************************************
+     * Map
+     **************************************************************************************************************** */
+
+    @Benchmark
+    public Map<String, String> immutableMap(Fixtures fixtures, StreamMode mode) {
+        return mode.stream(fixtures).collect(ImmutableMap.collect(Function.identity(), Function.identity()));
+    }
+
+    @Benchmark
+    public Map<String, String> unmodifiableMap(Fixtures fixtures, StreamMode mode) {
+        return mode.stream(fixtures).collect(
+                Collectors.collectingAndThen(
+                        Collectors.toMap(Function.identity(), Function.identity()),
+                        Collections::unmodifiableMap
+                )
+        );
+    }
+
+    @Benchmark
+    public Map<String, String> toUnmodifiableMap(Fixtures fixtures, StreamMode mode) {
+        return mode.stream(fixtures).collect(Collectors.toUnmodifiableMap(Function.identity(), Function.identity()));
+    }
+}
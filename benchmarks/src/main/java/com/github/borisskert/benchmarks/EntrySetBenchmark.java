@@ -0,0 +1,40 @@
+package com.github.borisskert.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures obtaining the {@code entrySet()} of a map and iterating it.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EntrySetBenchmark {
+
+    @Benchmark
+    public void immutableMap(Instances instances, Blackhole blackhole) {
+        iterate(instances.immutableMap, blackhole);
+    }
+
+    @Benchmark
+    public void unmodifiableMap(Instances instances, Blackhole blackhole) {
+        iterate(instances.unmodifiableMap, blackhole);
+    }
+
+    @Benchmark
+    public void mapOf(Instances instances, Blackhole blackhole) {
+        iterate(instances.mapOf, blackhole);
+    }
+
+    private static void iterate(Map<String, String> map, Blackhole blackhole) {
+        for (Map.Entry<String, String> entry : map.entrySet()) {
+            blackhole.consume(entry.getKey());
+            blackhole.consume(entry.getValue());
+        }
+    }
+}
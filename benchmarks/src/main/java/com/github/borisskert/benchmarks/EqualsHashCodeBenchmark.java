@@ -0,0 +1,119 @@
+package com.github.borisskert.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@code equals} between two distinct but equal instances and {@code hashCode}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EqualsHashCodeBenchmark {
+
+    /* *****************************************************************************************************************
+     * equals
+     **************************************************************************************************************** */
+
+    @Benchmark
+    public boolean immutableListEquals(Instances instances) {
+        return instances.immutableList.equals(instances.otherImmutableList);
+    }
+
+    @Benchmark
+    public boolean unmodifiableListEquals(Instances instances) {
+        return instances.unmodifiableList.equals(instances.otherUnmodifiableList);
+    }
+
+    @Benchmark
+    public boolean listOfEquals(Instances instances) {
+        return instances.listOf.equals(instances.otherListOf);
+    }
+
+    @Benchmark
+    public boolean immutableSetEquals(Instances instances) {
+        return instances.immutableSet.equals(instances.otherImmutableSet);
+    }
+
+    @Benchmark
+    public boolean unmodifiableSetEquals(Instances instances) {
+        return instances.unmodifiableSet.equals(instances.otherUnmodifiableSet);
+    }
+
+    @Benchmark
+    public boolean setOfEquals(Instances instances) {
+        return instances.setOf.equals(instances.otherSetOf);
+    }
+
+    @Benchmark
+    public boolean immutableMapEquals(Instances instances) {
+        return instances.immutableMap.equals(instances.otherImmutableMap);
+    }
+
+    @Benchmark
+    public boolean immutableMapEqualsHashMap(Instances instances) {
+        return instances.immutableMap.equals(instances.hashMap);
+    }
+
+    @Benchmark
+    public boolean unmodifiableMapEquals(Instances instances) {
+        return instances.unmodifiableMap.equals(instances.otherUnmodifiableMap);
+    }
+
+    @Benchmark
+    public boolean mapOfEquals(Instances instances) {
+        return instances.mapOf.equals(instances.otherMapOf);
+    }
+
+    /* *****************************************************************************************************************
+     * hashCode
+     **************************************************************************************************************** */
+
+    @Benchmark
+    public int immutableListHashCode(Instances instances) {
+        return instances.immutableList.hashCode();
+    }
+
+    @Benchmark
+    public int unmodifiableListHashCode(Instances instances) {
+        return instances.unmodifiableList.hashCode();
+    }
+
+    @Benchmark
+    public int listOfHashCode(Instances instances) {
+        return instances.listOf.hashCode();
+    }
+
+    @Benchmark
+    public int immutableSetHashCode(Instances instances) {
+        return instances.immutableSet.hashCode();
+    }
+
+    @Benchmark
+    public int unmodifiableSetHashCode(Instances instances) {
+        return instances.unmodifiableSet.hashCode();
+    }
+
+    @Benchmark
+    public int setOfHashCode(Instances instances) {
+        return instances.setOf.hashCode();
+    }
+
+    @Benchmark
+    public int immutableMapHashCode(Instances instances) {
+        return instances.immutableMap.hashCode();
+    }
+
+    @Benchmark
+    public int unmodifiableMapHashCode(Instances instances) {
+        return instances.unmodifiableMap.hashCode();
+    }
+
+    @Benchmark
+    public int mapOfHashCode(Instances instances) {
+        return instances.mapOf.hashCode();
+    }
+}
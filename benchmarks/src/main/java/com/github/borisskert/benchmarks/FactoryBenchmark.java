@@ -0,0 +1,93 @@
+package com.github.borisskert.benchmarks;
+
+import com.github.borisskert.ImmutableList;
+import com.github.borisskert.ImmutableMap;
+import com.github.borisskert.ImmutableSet;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the factory methods against copying into a JDK collection wrapped by {@code Collections.unmodifiable*} and
+ * against the JDK 9+ {@code copyOf} factories.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FactoryBenchmark {
+
+    /* *****************************************************************************************************************
+     * List
+     **************************************************************************************************************** */
+
+    @Benchmark
+    public List<String> immutableListOfArray(Fixtures fixtures) {
+        return ImmutableList.of(fixtures.items);
+    }
+
+    @Benchmark
+    public List<String> immutableListOfCollection(Fixtures fixtures) {
+        return ImmutableList.of(fixtures.arrayList);
+    }
+
+    @Benchmark
+    public List<String> unmodifiableList(Fixtures fixtures) {
+        return Collections.unmodifiableList(new ArrayList<>(fixtures.arrayList));
+    }
+
+    @Benchmark
+    public List<String> listOf(Fixtures fixtures) {
+        return List.of(fixtures.items);
+    }
+
+    /* *****************************************************************************************************************
+     * Set
+     **************************************************************************************************************** */
+
+    @Benchmark
+    public Set<String> immutableSetOfArray(Fixtures fixtures) {
+        return ImmutableSet.of(fixtures.items);
+    }
+
+    @Benchmark
+    public Set<String> immutableSetOfCollection(Fixtures fixtures) {
+        return ImmutableSet.of(fixtures.arrayList);
+    }
+
+    @Benchmark
+    public Set<String> immutableSetOfIterator(Fixtures fixtures) {
+        return ImmutableSet.of(fixtures.arrayList.iterator());
+    }
+
+    @Benchmark
+    public Set<String> unmodifiableSet(Fixtures fixtures) {
+        return Collections.unmodifiableSet(new HashSet<>(fixtures.arrayList));
+    }
+
+    @Benchmark
+    public Set<String> setCopyOf(Fixtures fixtures) {
+        return Set.copyOf(fixtures.arrayList);
+    }
+
+    /* *****************************************************************************************************************
+     * Map
+     **************************************************************************************************************** */
+
+    @Benchmark
+    public Map<String, String> immutableMapOfMap(Fixtures fixtures) {
+        return ImmutableMap.of(fixtures.hashMap);
+    }
+
+    @Benchmark
+    public Map<String, String> unmodifiableMap(Fixtures fixtures) {
+        return Collections.unmodifiableMap(new HashMap<>(fixtures.hashMap));
+    }
+
+    @Benchmark
+    public Map<String, String> mapCopyOf(Fixtures fixtures) {
+        return Map.copyOf(fixtures.hashMap);
+    }
+}
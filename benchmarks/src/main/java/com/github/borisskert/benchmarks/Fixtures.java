@@ -0,0 +1,54 @@
+package com.github.borisskert.benchmarks;
+
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.*;
+
+/**
+ * Provides the source data shared by all benchmark suites: {@code size} distinct {@link String}s in an array, an
+ * {@link ArrayList}, a {@link HashSet} and a {@link HashMap} (mapping each item to itself).
+ */
+@State(Scope.Benchmark)
+public class Fixtures {
+
+    @Param({"10", "1000", "100000"})
+    public int size;
+
+    public String[] items;
+    public List<String> arrayList;
+    public Set<String> hashSet;
+    public Map<String, String> hashMap;
+
+    /**
+     * An item contained in the data, used for successful lookups
+     */
+    public String present;
+
+    /**
+     * An item not contained in the data, used for failing lookups
+     */
+    public String absent;
+
+    @Setup
+    public void setupFixtures() {
+        items = new String[size];
+
+        for (int index = 0; index < size; index++) {
+            items[index] = "item-" + index;
+        }
+
+        arrayList = new ArrayList<>(Arrays.asList(items));
+        hashSet = new HashSet<>(arrayList);
+
+        hashMap = new HashMap<>();
+        for (String item : items) {
+            hashMap.put(item, item);
+        }
+
+        present = new String(items[size / 2]);
+        absent = "absent-" + size;
+    }
+}
@@ -0,0 +1,194 @@
+package com.github.borisskert.benchmarks;
+
+import com.github.borisskert.ImmutableList;
+import com.github.borisskert.ImmutableMap;
+import com.github.borisskert.ImmutableSet;
+import org.openjdk.jol.info.GraphLayout;
+
+import java.io.PrintStream;
+import java.lang.reflect.Field;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Reports the retained heap of every factory path for a range of sizes as a tab separated table:
+ * <pre>
+ *     collection  factory  size  bytes  bytesPerElement
+ * </pre>
+ * The items themselves are excluded: {@code bytes} is the heap retained by the collection structure only (wrapper,
+ * backing collection, arrays, nodes), so two reports of different versions can be diffed line by line.
+ * <p>
+ * The first line names the backing {@link List} class of {@link ImmutableList}, which shows whether the Java 9+
+ * classes of the multi-release jar have been used.
+ * <p>
+ * The object graph is walked by JOL without an agent. Usage:
+ * <pre>
+ *     java -cp benchmarks/target/benchmarks.jar com.github.borisskert.benchmarks.FootprintReport [size...]
+ * </pre>
+ */
+public class FootprintReport {
+
+    private static final int[] DEFAULT_SIZES = {0, 1, 10, 100, 1_000, 10_000, 100_000};
+
+    /**
+     * A hash map node plus its table slot takes less than 64 bytes, so more hints at a broken measurement
+     */
+    private static final int MAX_PLAUSIBLE_BYTES_PER_ELEMENT = 128;
+
+    private final List<Variant> variants = new ArrayList<>();
+
+    private FootprintReport() {
+        list("ImmutableList.of(T, T...)", items -> ImmutableList.of(items[0], Arrays.copyOfRange(items, 1, items.length)));
+        list("ImmutableList.of(T[])", ImmutableList::of);
+        list("ImmutableList.of(Collection)", items -> ImmutableList.of(Arrays.asList(items)));
+        list("ImmutableList.of(Iterable)", items -> ImmutableList.of((Iterable<String>) Arrays.asList(items)));
+        list("ImmutableList.collect()", items -> Arrays.stream(items).collect(ImmutableList.collect()));
+        list("Collections.unmodifiableList", items -> Collections.unmodifiableList(new ArrayList<>(Arrays.asList(items))));
+        list("List.of", List::of);
+
+        set("ImmutableSet.of(T, T...)", items -> ImmutableSet.of(items[0], Arrays.copyOfRange(items, 1, items.length)));
+        set("ImmutableSet.of(T[])", ImmutableSet::of);
+        set("ImmutableSet.of(Collection)", items -> ImmutableSet.of(Arrays.asList(items)));
+        set("ImmutableSet.of(Iterator)", items -> ImmutableSet.of(Arrays.asList(items).iterator()));
+        set("ImmutableSet.of(Iterable)", items -> ImmutableSet.of((Iterable<String>) Arrays.asList(items)));
+        set("ImmutableSet.collect()", items -> Arrays.stream(items).collect(ImmutableSet.collect()));
+        set("Collections.unmodifiableSet", items -> Collections.unmodifiableSet(new HashSet<>(Arrays.asList(items))));
+        set("Set.of", Set::of);
+
+        map("ImmutableMap.of(Entry, Entry...)", FootprintReport::mapOfEntries);
+        map("ImmutableMap.of(Map)", items -> ImmutableMap.of(hashMap(items)));
+        map("ImmutableMap.collect()", items -> Arrays.stream(items).collect(ImmutableMap.collect(Function.identity(), Function.identity())));
+        map("Collections.unmodifiableMap", items -> Collections.unmodifiableMap(hashMap(items)));
+        map("Map.copyOf", items -> Map.copyOf(hashMap(items)));
+    }
+
+    public static void main(String[] args) {
+        int[] sizes = args.length > 0
+                ? Arrays.stream(args).mapToInt(Integer::parseInt).toArray()
+                : DEFAULT_SIZES;
+
+        new FootprintReport().print(sizes, System.out);
+    }
+
+    private void print(int[] sizes, PrintStream out) {
+        out.println("# ImmutableList backing list: " + backingListClass());
+        out.println("collection\tfactory\tsize\tbytes\tbytesPerElement");
+
+        for (Variant variant : variants) {
+            for (int size : sizes) {
+                if (size == 0 && variant.requiresItem) {
+                    continue;
+                }
+
+                String[] items = items(size);
+                long bytes = retainedBytes(variant.factory.apply(items), items);
+                checkPlausible(variant, size, bytes);
+
+                String perElement = size == 0 ? "" : String.format(Locale.ROOT, "%.2f", (double) bytes / size);
+
+                out.printf(Locale.ROOT, "%s\t%s\t%d\t%d\t%s%n", variant.collection, variant.name, size, bytes, perElement);
+            }
+        }
+    }
+
+    /* *****************************************************************************************************************
+     * Private methods
+     **************************************************************************************************************** */
+
+    private void list(String name, Function<String[], List<String>> factory) {
+        variants.add(new Variant("List", name, factory::apply, name.contains("T, T...")));
+    }
+
+    private void set(String name, Function<String[], Set<String>> factory) {
+        variants.add(new Variant("Set", name, factory::apply, name.contains("T, T...")));
+    }
+
+    private void map(String name, Function<String[], Map<String, String>> factory) {
+        variants.add(new Variant("Map", name, factory::apply, name.contains("Entry, Entry...")));
+    }
+
+    /**
+     * Measures the heap retained by the specified collection without the items themselves. Both walks only sum up
+     * sizes (instead of matching objects by address), so a GC moving objects between the walks does not matter.
+     */
+    private static long retainedBytes(Object collection, String[] items) {
+        Object[] roots = new Object[items.length + 1];
+        roots[0] = collection;
+        System.arraycopy(items, 0, roots, 1, items.length);
+
+        long withItems = GraphLayout.parseInstance(roots).totalSize();
+        long itemsOnly = GraphLayout.parseInstance((Object[]) items).totalSize();
+
+        return withItems - itemsOnly;
+    }
+
+    /**
+     * Fails on measurements no collection structure can have, like a negative size or hundreds of bytes per element
+     */
+    private static void checkPlausible(Variant variant, int size, long bytes) {
+        if (bytes <= 0 || size >= 100 && bytes / size > MAX_PLAUSIBLE_BYTES_PER_ELEMENT) {
+            throw new IllegalStateException(
+                    String.format("Implausible footprint of %s with %d items: %d bytes", variant.name, size, bytes)
+            );
+        }
+    }
+
+    /**
+     * Shows which backing {@link List} has been measured: {@code List.of} on Java 9+ only if the jar is read as a
+     * multi-release jar
+     */
+    private static String backingListClass() {
+        try {
+            Field protectedList = ImmutableList.class.getDeclaredField("protectedList");
+            protectedList.setAccessible(true);
+
+            return protectedList.get(ImmutableList.of("A", "B", "C")).getClass().getName();
+        } catch (ReflectiveOperationException e) {
+            return "unknown (" + e + ")";
+        }
+    }
+
+    private static String[] items(int size) {
+        String[] items = new String[size];
+
+        for (int index = 0; index < size; index++) {
+            items[index] = "item-" + index;
+        }
+
+        return items;
+    }
+
+    private static Map<String, String> hashMap(String[] items) {
+        return Arrays.stream(items).collect(Collectors.toMap(Function.identity(), Function.identity()));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, String> mapOfEntries(String[] items) {
+        Map.Entry<String, String>[] others = new Map.Entry[items.length - 1];
+
+        for (int index = 1; index < items.length; index++) {
+            others[index - 1] = ImmutableMap.entry(items[index], items[index]);
+        }
+
+        return ImmutableMap.of(ImmutableMap.entry(items[0], items[0]), others);
+    }
+
+    /* *****************************************************************************************************************
+     * Inner class(es)
+     **************************************************************************************************************** */
+
+    private static class Variant {
+        private final String collection;
+        private final String name;
+        private final Function<String[], Object> factory;
+        private final boolean requiresItem;
+
+        private Variant(String collection, String name, Function<String[], Object> factory, boolean requiresItem) {
+            this.collection = collection;
+            this.name = name;
+            this.factory = factory;
+            this.requiresItem = requiresItem;
+        }
+    }
+}
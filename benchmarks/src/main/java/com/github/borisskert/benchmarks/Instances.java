@@ -0,0 +1,64 @@
+package com.github.borisskert.benchmarks;
+
+import com.github.borisskert.ImmutableList;
+import com.github.borisskert.ImmutableMap;
+import com.github.borisskert.ImmutableSet;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.*;
+
+/**
+ * Provides prebuilt instances of the immutable collections and their JDK counterparts for the read-only suites. Every
+ * collection is built twice ({@code *} and {@code other*}) so that {@code equals} compares distinct but equal
+ * instances and cannot take an identity shortcut.
+ */
+@State(Scope.Benchmark)
+public class Instances extends Fixtures {
+
+    public List<String> immutableList;
+    public List<String> otherImmutableList;
+    public List<String> unmodifiableList;
+    public List<String> otherUnmodifiableList;
+    public List<String> listOf;
+    public List<String> otherListOf;
+
+    public Set<String> immutableSet;
+    public Set<String> otherImmutableSet;
+    public Set<String> unmodifiableSet;
+    public Set<String> otherUnmodifiableSet;
+    public Set<String> setOf;
+    public Set<String> otherSetOf;
+
+    public Map<String, String> immutableMap;
+    public Map<String, String> otherImmutableMap;
+    public Map<String, String> unmodifiableMap;
+    public Map<String, String> otherUnmodifiableMap;
+    public Map<String, String> mapOf;
+    public Map<String, String> otherMapOf;
+
+    @Setup
+    public void setupInstances() {
+        immutableList = ImmutableList.of(arrayList);
+        otherImmutableList = ImmutableList.of(arrayList);
+        unmodifiableList = Collections.unmodifiableList(new ArrayList<>(arrayList));
+        otherUnmodifiableList = Collections.unmodifiableList(new ArrayList<>(arrayList));
+        listOf = List.copyOf(arrayList);
+        otherListOf = List.copyOf(arrayList);
+
+        immutableSet = ImmutableSet.of(hashSet);
+        otherImmutableSet = ImmutableSet.of(hashSet);
+        unmodifiableSet = Collections.unmodifiableSet(new HashSet<>(hashSet));
+        otherUnmodifiableSet = Collections.unmodifiableSet(new HashSet<>(hashSet));
+        setOf = Set.copyOf(hashSet);
+        otherSetOf = Set.copyOf(hashSet);
+
+        immutableMap = ImmutableMap.of(hashMap);
+        otherImmutableMap = ImmutableMap.of(hashMap);
+        unmodifiableMap = Collections.unmodifiableMap(new HashMap<>(hashMap));
+        otherUnmodifiableMap = Collections.unmodifiableMap(new HashMap<>(hashMap));
+        mapOf = Map.copyOf(hashMap);
+        otherMapOf = Map.copyOf(hashMap);
+    }
+}
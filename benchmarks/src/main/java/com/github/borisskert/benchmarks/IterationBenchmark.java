@@ -0,0 +1,76 @@
+package com.github.borisskert.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a full iteration over all items (or all keys and values).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IterationBenchmark {
+
+    @Benchmark
+    public void immutableList(Instances instances, Blackhole blackhole) {
+        iterate(instances.immutableList, blackhole);
+    }
+
+    @Benchmark
+    public void unmodifiableList(Instances instances, Blackhole blackhole) {
+        iterate(instances.unmodifiableList, blackhole);
+    }
+
+    @Benchmark
+    public void listOf(Instances instances, Blackhole blackhole) {
+        iterate(instances.listOf, blackhole);
+    }
+
+    @Benchmark
+    public void immutableSet(Instances instances, Blackhole blackhole) {
+        iterate(instances.immutableSet, blackhole);
+    }
+
+    @Benchmark
+    public void unmodifiableSet(Instances instances, Blackhole blackhole) {
+        iterate(instances.unmodifiableSet, blackhole);
+    }
+
+    @Benchmark
+    public void setOf(Instances instances, Blackhole blackhole) {
+        iterate(instances.setOf, blackhole);
+    }
+
+    @Benchmark
+    public void immutableMap(Instances instances, Blackhole blackhole) {
+        iterate(instances.immutableMap, blackhole);
+    }
+
+    @Benchmark
+    public void unmodifiableMap(Instances instances, Blackhole blackhole) {
+        iterate(instances.unmodifiableMap, blackhole);
+    }
+
+    @Benchmark
+    public void mapOf(Instances instances, Blackhole blackhole) {
+        iterate(instances.mapOf, blackhole);
+    }
+
+    private static void iterate(Iterable<String> items, Blackhole blackhole) {
+        for (String item : items) {
+            blackhole.consume(item);
+        }
+    }
+
+    private static void iterate(Map<String, String> map, Blackhole blackhole) {
+        map.forEach((key, value) -> {
+            blackhole.consume(key);
+            blackhole.consume(value);
+        });
+    }
+}
@@ -0,0 +1,118 @@
+package com.github.borisskert.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@code get}, {@code contains} and {@code containsKey} for present and absent items.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LookupBenchmark {
+
+    /* *****************************************************************************************************************
+     * List
+     **************************************************************************************************************** */
+
+    @Benchmark
+    public String immutableListGet(Instances instances) {
+        return instances.immutableList.get(instances.size / 2);
+    }
+
+    @Benchmark
+    public String unmodifiableListGet(Instances instances) {
+        return instances.unmodifiableList.get(instances.size / 2);
+    }
+
+    @Benchmark
+    public String listOfGet(Instances instances) {
+        return instances.listOf.get(instances.size / 2);
+    }
+
+    @Benchmark
+    public boolean immutableListContains(Instances instances) {
+        return instances.immutableList.contains(instances.present);
+    }
+
+    @Benchmark
+    public boolean unmodifiableListContains(Instances instances) {
+        return instances.unmodifiableList.contains(instances.present);
+    }
+
+    @Benchmark
+    public boolean listOfContains(Instances instances) {
+        return instances.listOf.contains(instances.present);
+    }
+
+    /* *****************************************************************************************************************
+     * Set
+     **************************************************************************************************************** */
+
+    @Benchmark
+    public boolean immutableSetContains(Instances instances) {
+        return instances.immutableSet.contains(instances.present);
+    }
+
+    @Benchmark
+    public boolean immutableSetContainsAbsent(Instances instances) {
+        return instances.immutableSet.contains(instances.absent);
+    }
+
+    @Benchmark
+    public boolean unmodifiableSetContains(Instances instances) {
+        return instances.unmodifiableSet.contains(instances.present);
+    }
+
+    @Benchmark
+    public boolean unmodifiableSetContainsAbsent(Instances instances) {
+        return instances.unmodifiableSet.contains(instances.absent);
+    }
+
+    @Benchmark
+    public boolean setOfContains(Instances instances) {
+        return instances.setOf.contains(instances.present);
+    }
+
+    @Benchmark
+    public boolean setOfContainsAbsent(Instances instances) {
+        return instances.setOf.contains(instances.absent);
+    }
+
+    /* *****************************************************************************************************************
+     * Map
+     **************************************************************************************************************** */
+
+    @Benchmark
+    public String immutableMapGet(Instances instances) {
+        return instances.immutableMap.get(instances.present);
+    }
+
+    @Benchmark
+    public boolean immutableMapContainsKeyAbsent(Instances instances) {
+        return instances.immutableMap.containsKey(instances.absent);
+    }
+
+    @Benchmark
+    public String unmodifiableMapGet(Instances instances) {
+        return instances.unmodifiableMap.get(instances.present);
+    }
+
+    @Benchmark
+    public boolean unmodifiableMapContainsKeyAbsent(Instances instances) {
+        return instances.unmodifiableMap.containsKey(instances.absent);
+    }
+
+    @Benchmark
+    public String mapOfGet(Instances instances) {
+        return instances.mapOf.get(instances.present);
+    }
+
+    @Benchmark
+    public boolean mapOfContainsKeyAbsent(Instances instances) {
+        return instances.mapOf.containsKey(instances.absent);
+    }
+}
@@ -0,0 +1,27 @@
+package com.github.borisskert.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * Recorded for every construction of an immutable collection at or above the size threshold
+ */
+@Name("com.github.borisskert.Construction")
+@Label("Immutable Collection Construction")
+@Category({"Java Application", "Immutable Collections"})
+@Description("Construction of a large immutable collection")
+@StackTrace
+class ConstructionEvent extends Event {
+
+    @Label("Collection Type")
+    String type;
+
+    @Label("Size")
+    int size;
+
+    @Label("Copied Elements")
+    int copiedElements;
+
+    @Label("Construction Duration")
+    @Timespan(Timespan.NANOSECONDS)
+    long constructionDuration;
+}
@@ -0,0 +1,120 @@
+package com.github.borisskert.jfr;
+
+import com.github.borisskert.ImmutableCollectionMetrics;
+
+/**
+ * Emits Java Flight Recorder events for constructions and O(n) operations of immutable collections whose size reaches
+ * a threshold. The events ({@code com.github.borisskert.Construction} and {@code com.github.borisskert.Operation})
+ * carry the collection type, the size and the duration.
+ * Attention: Registers itself as one more {@link ImmutableCollectionMetrics.Listener}, other registered listeners stay
+ * registered.
+ */
+public class ImmutableCollectionEvents implements ImmutableCollectionMetrics.Listener {
+
+    /* *****************************************************************************************************************
+     * Constants
+     **************************************************************************************************************** */
+
+    /**
+     * The system property to configure the default threshold
+     */
+    public static final String THRESHOLD_PROPERTY = "com.github.borisskert.jfr.threshold";
+
+    private static final int DEFAULT_THRESHOLD = 10_000;
+
+    /* *****************************************************************************************************************
+     * Static fields
+     **************************************************************************************************************** */
+
+    private static ImmutableCollectionEvents installed;
+
+    /* *****************************************************************************************************************
+     * Readonly fields
+     **************************************************************************************************************** */
+
+    private final int threshold;
+
+    /* *****************************************************************************************************************
+     * Constructor(s)
+     **************************************************************************************************************** */
+
+    private ImmutableCollectionEvents(int threshold) {
+        this.threshold = threshold;
+    }
+
+    /* *****************************************************************************************************************
+     * Implementation of ImmutableCollectionMetrics.Listener
+     **************************************************************************************************************** */
+
+    @Override
+    public void onConstruction(Class<?> type, int size, int copiedElements, long durationNanos) {
+        if (size < threshold) {
+            return;
+        }
+
+        ConstructionEvent event = new ConstructionEvent();
+
+        if (event.shouldCommit()) {
+            event.type = type.getSimpleName();
+            event.size = size;
+            event.copiedElements = copiedElements;
+            event.constructionDuration = durationNanos;
+            event.commit();
+        }
+    }
+
+    @Override
+    public void onCombine(Class<?> type, int leftSize, int rightSize) {
+    }
+
+    @Override
+    public void onOperation(Class<?> type, ImmutableCollectionMetrics.Operation operation, int size, long durationNanos) {
+        if (size < threshold) {
+            return;
+        }
+
+        OperationEvent event = new OperationEvent();
+
+        if (event.shouldCommit()) {
+            event.type = type.getSimpleName();
+            event.operation = operation.name();
+            event.size = size;
+            event.operationDuration = durationNanos;
+            event.commit();
+        }
+    }
+
+    /* *****************************************************************************************************************
+     * Factory methods
+     **************************************************************************************************************** */
+
+    /**
+     * Registers the events with the threshold of the system property {@value #THRESHOLD_PROPERTY} (defaults to
+     * {@code 10000} elements)
+     */
+    public static void install() {
+        install(Integer.getInteger(THRESHOLD_PROPERTY, DEFAULT_THRESHOLD));
+    }
+
+    /**
+     * Registers the events with the specified threshold, replaces previously installed events
+     *
+     * @param threshold the minimum size of a collection to emit events for
+     */
+    public static synchronized void install(int threshold) {
+        uninstall();
+
+        installed = new ImmutableCollectionEvents(threshold);
+        ImmutableCollectionMetrics.register(installed);
+    }
+
+    /**
+     * Unregisters the installed events (if any), other listeners stay registered
+     */
+    public static synchronized void uninstall() {
+        if (installed != null) {
+            ImmutableCollectionMetrics.unregister(installed);
+            installed = null;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.github.borisskert.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * Recorded for every O(n) operation ({@code equals}, {@code hashCode}, {@code containsAll}, building a lookup index)
+ * on an immutable collection at or above the size threshold
+ */
+@Name("com.github.borisskert.Operation")
+@Label("Immutable Collection Operation")
+@Category({"Java Application", "Immutable Collections"})
+@Description("O(n) operation on a large immutable collection")
+@StackTrace
+class OperationEvent extends Event {
+
+    @Label("Collection Type")
+    String type;
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Size")
+    int size;
+
+    @Label("Operation Duration")
+    @Timespan(Timespan.NANOSECONDS)
+    long operationDuration;
+}
@@ -0,0 +1,75 @@
+package com.github.borisskert.jfr;
+
+import com.github.borisskert.ImmutableCollectionMetrics;
+import com.github.borisskert.ImmutableList;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+
+class ImmutableCollectionEventsTest {
+
+    @TempDir
+    Path directory;
+
+    private ImmutableCollectionMetrics.Counters counters;
+
+    @BeforeEach
+    public void setup() throws Exception {
+        counters = new ImmutableCollectionMetrics.Counters();
+        ImmutableCollectionMetrics.register(counters);
+    }
+
+    @AfterEach
+    public void teardown() throws Exception {
+        ImmutableCollectionEvents.uninstall();
+        ImmutableCollectionMetrics.unregister();
+    }
+
+    @Test
+    public void shouldRecordEventsAlongsideOtherListeners() throws Exception {
+        Path file = directory.resolve("recording.jfr");
+
+        try (Recording recording = new Recording()) {
+            recording.enable("com.github.borisskert.Construction");
+            recording.start();
+
+            ImmutableCollectionEvents.install(3);
+            ImmutableList.of("A", "B", "C");
+            ImmutableList.of("A", "B");
+
+            recording.stop();
+            recording.dump(file);
+        }
+
+        List<Integer> sizes = RecordingFile.readAllEvents(file)
+                .stream()
+                .filter(event -> event.getEventType().getName().equals("com.github.borisskert.Construction"))
+                .map(event -> event.getInt("size"))
+                .collect(Collectors.toList());
+
+        assertThat(sizes, contains(3));
+        assertThat(counters.constructions(ImmutableList.class), is(equalTo(2L)));
+    }
+
+    @Test
+    public void shouldKeepOtherListenersOnUninstall() throws Exception {
+        ImmutableCollectionEvents.install(3);
+        ImmutableCollectionEvents.uninstall();
+
+        ImmutableList.of("A", "B", "C");
+
+        assertThat(counters.constructions(ImmutableList.class), is(equalTo(1L)));
+    }
+}
@@ -0,0 +1,346 @@
+package com.github.borisskert;
+
+import java.util.*;
+import java.util.function.BiConsumer;
+
+/**
+ * Backing {@link Map} of an insertion-ordered {@link ImmutableMap}, in the style of the compact dict of Python: the
+ * keys, values and hashes are stored in dense arrays in insertion order, and an open addressing index maps the hash
+ * of a key to its position in the dense arrays. The index consists of {@code byte}s, {@code short}s or {@code int}s,
+ * whatever is wide enough for the number of entries, so it takes only a few bytes per entry. Iterating walks the dense
+ * arrays.
+ * Attention: Never modified after construction, so it is safe for concurrent readers.
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ */
+final class CompactMap<K, V> extends AbstractMap<K, V> {
+
+    /* *****************************************************************************************************************
+     * Constants
+     **************************************************************************************************************** */
+
+    private static final int MAX_BYTE_ENTRIES = 0xFF;
+    private static final int MAX_SHORT_ENTRIES = 0xFFFF;
+
+    /* *****************************************************************************************************************
+     * Readonly fields
+     **************************************************************************************************************** */
+
+    private final Object[] keys;
+    private final Object[] values;
+    private final int[] hashes;
+    private final int size;
+
+    /**
+     * Exactly one of the index arrays is used, its slots hold the position of an entry plus one ({@code 0} is empty)
+     */
+    private final byte[] byteIndex;
+    private final short[] shortIndex;
+    private final int[] intIndex;
+    private final int mask;
+
+    /* *****************************************************************************************************************
+     * Constructor(s)
+     **************************************************************************************************************** */
+
+    /**
+     * Compacts the specified candidates in place, a duplicate key keeps the position of its first occurrence
+     *
+     * @param keys             the candidate keys, the array is taken over
+     * @param values           the candidate values, the array is taken over
+     * @param count            the number of candidates
+     * @param rejectDuplicates {@code true} to throw on duplicate keys, {@code false} to let the last value win
+     */
+    private CompactMap(Object[] keys, Object[] values, int count, boolean rejectDuplicates) {
+        int tableLength = tableLengthFor(count);
+
+        this.byteIndex = count <= MAX_BYTE_ENTRIES ? new byte[tableLength] : null;
+        this.shortIndex = count > MAX_BYTE_ENTRIES && count <= MAX_SHORT_ENTRIES ? new short[tableLength] : null;
+        this.intIndex = count > MAX_SHORT_ENTRIES ? new int[tableLength] : null;
+        this.mask = tableLength - 1;
+
+        int[] hashes = new int[count];
+        int size = 0;
+
+        for (int candidate = 0; candidate < count; candidate++) {
+            Object key = keys[candidate];
+            Object value = values[candidate];
+            int hash = hash(key);
+            int slot = slotOf(key, hash, keys, hashes);
+            int entry = entryAt(slot);
+
+            if (entry < 0) {
+                keys[size] = key;
+                values[size] = value;
+                hashes[size] = hash;
+                setEntryAt(slot, size);
+                size++;
+            } else if (rejectDuplicates) {
+                throw new UnsupportedOperationException(
+                        String.format(
+                                "Duplicate key %s (attempted merging values %s and %s)", key, values[entry], value
+                        )
+                );
+            } else {
+                values[entry] = value;
+            }
+        }
+
+        this.keys = size < keys.length ? Arrays.copyOf(keys, size) : keys;
+        this.values = size < values.length ? Arrays.copyOf(values, size) : values;
+        this.hashes = size < count ? Arrays.copyOf(hashes, size) : hashes;
+        this.size = size;
+    }
+
+    /* *****************************************************************************************************************
+     * Implementation of Map<K,V>
+     **************************************************************************************************************** */
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return entryOf(key) >= 0;
+    }
+
+    @Override
+    public boolean containsValue(Object value) {
+        for (int entry = 0; entry < size; entry++) {
+            if (Objects.equals(value, values[entry])) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    @Override
+    public V get(Object key) {
+        int entry = entryOf(key);
+        return entry >= 0 ? valueAt(entry) : null;
+    }
+
+    @Override
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        Objects.requireNonNull(action, "Parameter 'action' must not be null");
+
+        for (int entry = 0; entry < size; entry++) {
+            action.accept(keyAt(entry), valueAt(entry));
+        }
+    }
+
+    @Override
+    public Set<K> keySet() {
+        return new AbstractSet<K>() {
+            @Override
+            public Iterator<K> iterator() {
+                return new EntryIterator<K>() {
+                    @Override
+                    K at(int entry) {
+                        return keyAt(entry);
+                    }
+                };
+            }
+
+            @Override
+            public boolean contains(Object key) {
+                return containsKey(key);
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    @Override
+    public Collection<V> values() {
+        return new AbstractCollection<V>() {
+            @Override
+            public Iterator<V> iterator() {
+                return new EntryIterator<V>() {
+                    @Override
+                    V at(int entry) {
+                        return valueAt(entry);
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        return new AbstractSet<Entry<K, V>>() {
+            @Override
+            public Iterator<Entry<K, V>> iterator() {
+                return new EntryIterator<Entry<K, V>>() {
+                    @Override
+                    Entry<K, V> at(int entry) {
+                        return new SimpleImmutableEntry<>(keyAt(entry), valueAt(entry));
+                    }
+                };
+            }
+
+            @Override
+            public boolean contains(Object o) {
+                if (!(o instanceof Entry)) {
+                    return false;
+                }
+
+                Entry<?, ?> candidate = (Entry<?, ?>) o;
+                int entry = entryOf(candidate.getKey());
+
+                return entry >= 0 && Objects.equals(candidate.getValue(), values[entry]);
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    /* *****************************************************************************************************************
+     * Private methods
+     **************************************************************************************************************** */
+
+    @SuppressWarnings("unchecked")
+    private K keyAt(int entry) {
+        return (K) keys[entry];
+    }
+
+    @SuppressWarnings("unchecked")
+    private V valueAt(int entry) {
+        return (V) values[entry];
+    }
+
+    /**
+     * @return the position of the specified key in the dense arrays or {@code -1} if not contained
+     */
+    private int entryOf(Object key) {
+        return entryAt(slotOf(key, hash(key), keys, hashes));
+    }
+
+    /**
+     * Probes like the compact dict of Python: the higher bits of the hash are mixed into the next slot, so keys with
+     * consecutive hash codes (like {@link Integer}s) do not form long clusters
+     *
+     * @return the slot of the index which references the specified key or the empty slot where the search stopped
+     */
+    private int slotOf(Object key, int hash, Object[] keys, int[] hashes) {
+        int slot = hash & mask;
+        int perturbation = hash;
+
+        for (int entry = entryAt(slot); entry >= 0; entry = entryAt(slot)) {
+            if (hashes[entry] == hash && Objects.equals(key, keys[entry])) {
+                return slot;
+            }
+
+            perturbation >>>= 5;
+            slot = (slot * 5 + perturbation + 1) & mask;
+        }
+
+        return slot;
+    }
+
+    /**
+     * @return the position of the entry referenced by the specified slot of the index or {@code -1} if it is empty
+     */
+    private int entryAt(int slot) {
+        if (byteIndex != null) {
+            return (byteIndex[slot] & 0xFF) - 1;
+        }
+
+        if (shortIndex != null) {
+            return (shortIndex[slot] & 0xFFFF) - 1;
+        }
+
+        return intIndex[slot] - 1;
+    }
+
+    private void setEntryAt(int slot, int entry) {
+        if (byteIndex != null) {
+            byteIndex[slot] = (byte) (entry + 1);
+        } else if (shortIndex != null) {
+            shortIndex[slot] = (short) (entry + 1);
+        } else {
+            intIndex[slot] = entry + 1;
+        }
+    }
+
+    private static int hash(Object key) {
+        if (key == null) {
+            return 0;
+        }
+
+        int hashCode = key.hashCode();
+        return hashCode ^ (hashCode >>> 16);
+    }
+
+    /**
+     * @return a power of two index length with a load factor of at most 2/3, like the compact dict of Python
+     */
+    private static int tableLengthFor(int count) {
+        int minimumLength = Math.max(2, count + (count >> 1) + 1);
+        return Integer.highestOneBit(minimumLength - 1) << 1;
+    }
+
+    /* *****************************************************************************************************************
+     * Factory methods
+     **************************************************************************************************************** */
+
+    /**
+     * @param keys   the keys in insertion order, the array is taken over
+     * @param values the values in insertion order, the array is taken over
+     * @param count  the number of entries in the arrays
+     * @return a new {@link CompactMap}, the last value of a duplicate key wins (at the position of its first occurrence)
+     */
+    static <K, V> CompactMap<K, V> of(Object[] keys, Object[] values, int count) {
+        return new CompactMap<>(keys, values, count, false);
+    }
+
+    /**
+     * @param keys   the keys in insertion order, the array is taken over
+     * @param values the values in insertion order, the array is taken over
+     * @param count  the number of entries in the arrays
+     * @return a new {@link CompactMap}
+     * @throws UnsupportedOperationException on duplicate keys
+     */
+    static <K, V> CompactMap<K, V> ofUnique(Object[] keys, Object[] values, int count) {
+        return new CompactMap<>(keys, values, count, true);
+    }
+
+    /* *****************************************************************************************************************
+     * Inner class(es)
+     **************************************************************************************************************** */
+
+    private abstract class EntryIterator<T> implements Iterator<T> {
+        private int entry;
+
+        abstract T at(int entry);
+
+        @Override
+        public boolean hasNext() {
+            return entry < size;
+        }
+
+        @Override
+        public T next() {
+            if (entry >= size) {
+                throw new NoSuchElementException();
+            }
+
+            return at(entry++);
+        }
+    }
+}
@@ -0,0 +1,483 @@
+package com.github.borisskert;
+
+import java.util.*;
+import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collector;
+
+/**
+ * Stores a one-to-many mapping in compressed sparse row form: a {@link KeyIndex}, one {@code int[]} of
+ * offsets and one flat array of values. The values of the key with index {@code i} are stored in
+ * {@code values[offsets[i]]} (inclusive) to {@code values[offsets[i + 1]]} (exclusive).
+ * Keys and values keep the order of their first occurrence. Rows of distinct values also get one open addressing
+ * (linear probing) table over all values, which maps the row index and the value to the position of the value, so a
+ * value is found in its row in O(1).
+ * Attention: Never modified after construction, so it is safe for concurrent readers.
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ */
+final class CompressedSparseRows<K, V> {
+
+    /* *****************************************************************************************************************
+     * Constants
+     **************************************************************************************************************** */
+
+    @SuppressWarnings("rawtypes")
+    static final CompressedSparseRows EMPTY = new CompressedSparseRows<>(
+            new KeyIndex<>(0), new int[1], new Object[0], null
+    );
+
+    /* *****************************************************************************************************************
+     * Readonly fields
+     **************************************************************************************************************** */
+
+    private final KeyIndex<K> keys;
+    private final int[] offsets;
+    private final Object[] values;
+
+    /**
+     * The slots hold the position of a value plus one ({@code 0} is empty), {@code null} unless the rows are distinct
+     */
+    private final int[] valueTable;
+
+    /* *****************************************************************************************************************
+     * Constructor(s)
+     **************************************************************************************************************** */
+
+    private CompressedSparseRows(KeyIndex<K> keys, int[] offsets, Object[] values, int[] valueTable) {
+        this.keys = keys;
+        this.offsets = offsets;
+        this.values = values;
+        this.valueTable = valueTable;
+    }
+
+    /* *****************************************************************************************************************
+     * Package-private methods
+     **************************************************************************************************************** */
+
+    int keyCount() {
+        return keys.size();
+    }
+
+    int valueCount() {
+        return values.length;
+    }
+
+    /**
+     * @return the index of the specified key or {@code -1} if not contained
+     */
+    int indexOf(Object key) {
+        return keys.indexOf(key);
+    }
+
+    K keyAt(int index) {
+        return keys.keyAt(index);
+    }
+
+    int valueCountAt(int index) {
+        return offsets[index + 1] - offsets[index];
+    }
+
+    /**
+     * @return a view of the values of the key with the specified index
+     */
+    List<V> valuesAt(int index) {
+        return new Slice<>(values, offsets[index], offsets[index + 1]);
+    }
+
+    /**
+     * @return a {@link Set} view of the values of the key with the specified index, the rows must be distinct
+     */
+    Set<V> distinctValuesAt(int index) {
+        return new RowSet(index);
+    }
+
+    /**
+     * @return the values of the key with the specified index as a {@link Set} if the rows are distinct, otherwise as
+     * a {@link List}
+     */
+    Collection<V> rowAt(int index) {
+        return valueTable != null ? distinctValuesAt(index) : valuesAt(index);
+    }
+
+    /**
+     * @return a view of all values, grouped by key
+     */
+    List<V> values() {
+        return new Slice<>(values, 0, values.length);
+    }
+
+    /**
+     * @return a view of all keys
+     */
+    Set<K> keySet() {
+        return keys.keySet();
+    }
+
+    /* *****************************************************************************************************************
+     * Overrides of Object
+     **************************************************************************************************************** */
+
+    /**
+     * Compares the rows key by key, a distinct row compares its values in O(1) each
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null) return false;
+        if (getClass() != o.getClass()) return false;
+
+        CompressedSparseRows<?, ?> that = (CompressedSparseRows<?, ?>) o;
+        if (keyCount() != that.keyCount() || valueCount() != that.valueCount())
+            return false;
+
+        for (int index = 0; index < keyCount(); index++) {
+            int thatIndex = that.indexOf(keyAt(index));
+
+            if (thatIndex < 0 || !rowAt(index).equals(that.rowAt(thatIndex)))
+                return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Same hash code as a {@link Map} of each key to the {@link Set} or {@link List} of its values
+     */
+    @Override
+    public int hashCode() {
+        int hashCode = 0;
+
+        for (int index = 0; index < keyCount(); index++) {
+            hashCode += keyAt(index).hashCode() ^ rowAt(index).hashCode();
+        }
+
+        return hashCode;
+    }
+
+    /**
+     * Same representation as a {@link Map} of each key to the {@link Set} or {@link List} of its values
+     */
+    @Override
+    public String toString() {
+        StringJoiner joiner = new StringJoiner(", ", "{", "}");
+
+        for (int index = 0; index < keyCount(); index++) {
+            joiner.add(keyAt(index) + "=" + valuesAt(index));
+        }
+
+        return joiner.toString();
+    }
+
+    /* *****************************************************************************************************************
+     * Private methods
+     **************************************************************************************************************** */
+
+    /**
+     * @return the position of the specified value in the row with the specified index or {@code -1} if not contained
+     */
+    private int positionOf(int index, Object value) {
+        if (value == null) {
+            return -1;
+        }
+
+        if (valueTable == null) {
+            int position = valuesAt(index).indexOf(value);
+            return position < 0 ? -1 : offsets[index] + position;
+        }
+
+        int from = offsets[index];
+        int to = offsets[index + 1];
+        int mask = valueTable.length - 1;
+
+        for (int slot = slotOf(index, value, mask); valueTable[slot] != 0; slot = (slot + 1) & mask) {
+            int position = valueTable[slot] - 1;
+
+            if (position >= from && position < to && value.equals(values[position])) {
+                return position;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * Mixes the row index into the hash of the value, so equal values of different rows occupy different slots
+     */
+    private static int slotOf(int index, Object value, int mask) {
+        int h = (value.hashCode() + index * 0x9E3779B9) * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    /**
+     * @return a power of two table length with a load factor of at most 0.5
+     */
+    private static int tableLengthFor(int size) {
+        return Integer.highestOneBit(Math.max(size, 1) * 2 - 1) << 1;
+    }
+
+    /* *****************************************************************************************************************
+     * Factory methods
+     **************************************************************************************************************** */
+
+    /**
+     * Provides a {@link Collector} which collects the key-value pairs of the {@link java.util.stream.Stream} elements
+     * into a {@link Builder}
+     *
+     * @param keyMapper   the mapper {@link Function} to get the key for each element
+     * @param valueMapper the mapper {@link Function} to get the value for each element
+     * @param owner       the collection class reported to the {@link ImmutableCollectionMetrics}
+     * @param finisher    builds the collection of the collected {@link Builder}
+     */
+    static <T, K, V, R> Collector<T, ?, R> collect(
+            Function<? super T, ? extends K> keyMapper,
+            Function<? super T, ? extends V> valueMapper,
+            Class<?> owner,
+            Function<Builder<K, V>, R> finisher
+    ) {
+        return new RowsCollector<>(keyMapper, valueMapper, owner, finisher);
+    }
+
+    /* *****************************************************************************************************************
+     * Inner class(es)
+     **************************************************************************************************************** */
+
+    /**
+     * Collects key-value pairs in two passes without any per-key collection: the first pass (accumulation) assigns an
+     * index to each key and counts its values, the second pass ({@link #build(boolean)}) scatters the values into
+     * their rows.
+     */
+    static final class Builder<K, V> {
+        private final KeyIndex<K> keys = new KeyIndex<>();
+        private int[] valueCounts = new int[8];
+
+        private Object[] values = new Object[8];
+        private int[] keyIndices = new int[8];
+        private int valueCount;
+
+        void add(K key, V value) {
+            Objects.requireNonNull(key, "Keys must not be null");
+            Objects.requireNonNull(value, "Values must not be null");
+
+            int keyIndex = keys.add(key);
+
+            if (keyIndex == valueCounts.length) {
+                valueCounts = Arrays.copyOf(valueCounts, keyIndex * 2);
+            }
+
+            if (valueCount == values.length) {
+                values = Arrays.copyOf(values, valueCount * 2);
+                keyIndices = Arrays.copyOf(keyIndices, valueCount * 2);
+            }
+
+            values[valueCount] = value;
+            keyIndices[valueCount] = keyIndex;
+            valueCount++;
+            valueCounts[keyIndex]++;
+        }
+
+        @SuppressWarnings("unchecked")
+        Builder<K, V> merge(Builder<K, V> other) {
+            for (int index = 0; index < other.valueCount; index++) {
+                add(other.keys.keyAt(other.keyIndices[index]), (V) other.values[index]);
+            }
+
+            return this;
+        }
+
+        /**
+         * Adds the values of each key of the specified {@link Map}
+         *
+         * @return this instance
+         */
+        Builder<K, V> addAll(Map<K, ? extends Collection<? extends V>> map) {
+            for (Map.Entry<K, ? extends Collection<? extends V>> entry : map.entrySet()) {
+                for (V value : entry.getValue()) {
+                    add(entry.getKey(), value);
+                }
+            }
+
+            return this;
+        }
+
+        int valueCount() {
+            return valueCount;
+        }
+
+        /**
+         * @param distinctValues {@code true} to drop duplicate values of the same key (keeping the first one)
+         */
+        CompressedSparseRows<K, V> build(boolean distinctValues) {
+            int keyCount = keys.size();
+            int[] offsets = new int[keyCount + 1];
+
+            for (int keyIndex = 0; keyIndex < keyCount; keyIndex++) {
+                offsets[keyIndex + 1] = offsets[keyIndex] + valueCounts[keyIndex];
+            }
+
+            Object[] rows = new Object[valueCount];
+            int[] cursors = Arrays.copyOf(offsets, keyCount);
+
+            for (int index = 0; index < valueCount; index++) {
+                rows[cursors[keyIndices[index]]++] = values[index];
+            }
+
+            if (!distinctValues) {
+                return new CompressedSparseRows<>(keys.trim(), offsets, rows, null);
+            }
+
+            int[] valueTable = new int[tableLengthFor(valueCount)];
+            rows = removeDuplicates(rows, offsets, valueTable);
+
+            return new CompressedSparseRows<>(keys.trim(), offsets, rows, valueTable);
+        }
+
+        /**
+         * Compacts each row in place, adjusts the offsets and fills the value table with the remaining positions
+         */
+        private static Object[] removeDuplicates(Object[] rows, int[] offsets, int[] valueTable) {
+            int mask = valueTable.length - 1;
+            int target = 0;
+
+            for (int keyIndex = 0; keyIndex < offsets.length - 1; keyIndex++) {
+                int from = offsets[keyIndex];
+                int to = offsets[keyIndex + 1];
+
+                offsets[keyIndex] = target;
+
+                for (int index = from; index < to; index++) {
+                    Object value = rows[index];
+                    int slot = slotOf(keyIndex, value, mask);
+                    boolean duplicate = false;
+
+                    for (int entry = valueTable[slot]; entry != 0; entry = valueTable[slot]) {
+                        int position = entry - 1;
+
+                        if (position >= offsets[keyIndex] && value.equals(rows[position])) {
+                            duplicate = true;
+                            break;
+                        }
+
+                        slot = (slot + 1) & mask;
+                    }
+
+                    if (!duplicate) {
+                        rows[target] = value;
+                        valueTable[slot] = ++target;
+                    }
+                }
+            }
+
+            offsets[offsets.length - 1] = target;
+
+            return target == rows.length ? rows : Arrays.copyOf(rows, target);
+        }
+    }
+
+    private static final class Slice<V> extends AbstractList<V> implements RandomAccess {
+        private final Object[] values;
+        private final int from;
+        private final int to;
+
+        private Slice(Object[] values, int from, int to) {
+            this.values = values;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public V get(int index) {
+            if (index < 0 || index >= to - from) {
+                throw new IndexOutOfBoundsException("Index: " + index);
+            }
+
+            return (V) values[from + index];
+        }
+
+        @Override
+        public int size() {
+            return to - from;
+        }
+    }
+
+    /**
+     * A distinct row, {@link #contains(Object)} looks the value up in the value table
+     */
+    private final class RowSet extends AbstractSet<V> {
+        private final int index;
+
+        private RowSet(int index) {
+            this.index = index;
+        }
+
+        @Override
+        public boolean contains(Object value) {
+            return positionOf(index, value) >= 0;
+        }
+
+        @Override
+        public Iterator<V> iterator() {
+            return valuesAt(index).iterator();
+        }
+
+        @Override
+        public int size() {
+            return valueCountAt(index);
+        }
+    }
+
+    /**
+     * Collects in two passes without any intermediate per-key collection, see {@link Builder}
+     */
+    private static final class RowsCollector<T, K, V, R> implements Collector<T, Builder<K, V>, R> {
+
+        private final Function<? super T, ? extends K> keyMapper;
+        private final Function<? super T, ? extends V> valueMapper;
+        private final Class<?> owner;
+        private final Function<Builder<K, V>, R> finisher;
+
+        private RowsCollector(
+                Function<? super T, ? extends K> keyMapper,
+                Function<? super T, ? extends V> valueMapper,
+                Class<?> owner,
+                Function<Builder<K, V>, R> finisher
+        ) {
+            this.keyMapper = keyMapper;
+            this.valueMapper = valueMapper;
+            this.owner = owner;
+            this.finisher = finisher;
+        }
+
+        @Override
+        public Supplier<Builder<K, V>> supplier() {
+            return Builder::new;
+        }
+
+        @Override
+        public BiConsumer<Builder<K, V>, T> accumulator() {
+            return (builder, element) -> builder.add(keyMapper.apply(element), valueMapper.apply(element));
+        }
+
+        @Override
+        public BinaryOperator<Builder<K, V>> combiner() {
+            return (left, right) -> {
+                ImmutableCollectionMetrics.combined(owner, left.valueCount(), right.valueCount());
+                return left.merge(right);
+            };
+        }
+
+        @Override
+        public Function<Builder<K, V>, R> finisher() {
+            return finisher;
+        }
+
+        @Override
+        public Set<Characteristics> characteristics() {
+            return Collections.emptySet();
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.github.borisskert;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Function;
+
+/**
+ * Iterates the items of several sources one after another. Unlike {@code Arrays.stream(sources).flatMap(...).iterator()}
+ * it never buffers a source (the {@code flatMap} of Java 8 is not lazy, see JDK-8075939), each source is iterated on
+ * demand.
+ * Attention: Does not support {@link Iterator#remove()}.
+ *
+ * @param <S> the source type
+ * @param <T> the item type
+ */
+final class ConcatenatedIterator<S, T> implements Iterator<T> {
+
+    /* *****************************************************************************************************************
+     * Readonly fields
+     **************************************************************************************************************** */
+
+    private final S[] sources;
+    private final Function<? super S, ? extends Iterator<? extends T>> iteratorOf;
+
+    /* *****************************************************************************************************************
+     * Fields
+     **************************************************************************************************************** */
+
+    private int nextSource;
+    private Iterator<? extends T> current;
+
+    /* *****************************************************************************************************************
+     * Constructor(s)
+     **************************************************************************************************************** */
+
+    /**
+     * @param sources    the sources, iterated in array order
+     * @param iteratorOf provides the {@link Iterator} of a source
+     */
+    ConcatenatedIterator(S[] sources, Function<? super S, ? extends Iterator<? extends T>> iteratorOf) {
+        this.sources = sources;
+        this.iteratorOf = iteratorOf;
+    }
+
+    /* *****************************************************************************************************************
+     * Implementation of Iterator<T>
+     **************************************************************************************************************** */
+
+    @Override
+    public boolean hasNext() {
+        while (current == null || !current.hasNext()) {
+            if (nextSource == sources.length) {
+                return false;
+            }
+
+            current = iteratorOf.apply(sources[nextSource++]);
+        }
+
+        return true;
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+
+        return current.next();
+    }
+}
@@ -0,0 +1,78 @@
+package com.github.borisskert;
+
+/**
+ * Canonicalizes equal values to one instance during the construction of a collection with a bounded, direct-mapped
+ * table: each value hashes to exactly one slot, the latest distinct value of a slot wins. So the memory stays bounded
+ * regardless of the number of distinct values, equal values being spread over a stream still share one instance as
+ * long as their slot has not been taken over in between.
+ * Attention: Not thread-safe, every accumulation of a collector uses its own instance.
+ *
+ * @param <T> the value type
+ */
+final class Deduplicator<T> {
+
+    /* *****************************************************************************************************************
+     * Constants
+     **************************************************************************************************************** */
+
+    static final int DEFAULT_CAPACITY = 1024;
+
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    /* *****************************************************************************************************************
+     * Readonly fields
+     **************************************************************************************************************** */
+
+    private final Object[] slots;
+
+    /* *****************************************************************************************************************
+     * Constructor(s)
+     **************************************************************************************************************** */
+
+    private Deduplicator(int capacity) {
+        this.slots = new Object[Integer.highestOneBit(capacity * 2 - 1)];
+    }
+
+    /* *****************************************************************************************************************
+     * Package-private methods
+     **************************************************************************************************************** */
+
+    /**
+     * @return a remembered instance equal to the specified value or the value itself (which is remembered then)
+     */
+    @SuppressWarnings("unchecked")
+    T canonical(T value) {
+        if (value == null) {
+            return null;
+        }
+
+        int hashCode = value.hashCode();
+        int slot = (hashCode ^ (hashCode >>> 16)) & (slots.length - 1);
+        Object remembered = slots[slot];
+
+        if (remembered != null && (remembered == value || remembered.equals(value))) {
+            return (T) remembered;
+        }
+
+        slots[slot] = value;
+        return value;
+    }
+
+    /* *****************************************************************************************************************
+     * Factory methods
+     **************************************************************************************************************** */
+
+    /**
+     * @param capacity the maximum number of remembered values, rounded up to a power of two
+     */
+    static <T> Deduplicator<T> of(int capacity) {
+        checkCapacity(capacity);
+        return new Deduplicator<>(capacity);
+    }
+
+    static void checkCapacity(int capacity) {
+        if (capacity < 1 || capacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException("Parameter 'capacity' must be between 1 and " + MAX_CAPACITY);
+        }
+    }
+}
@@ -0,0 +1,468 @@
+package com.github.borisskert;
+
+import java.security.SecureRandom;
+import java.util.*;
+
+/**
+ * Hash table with collision resistant hashing for untrusted keys: {@link String} keys are hashed with SipHash-2-4,
+ * the hash codes of other keys are mixed, both with a random key per instance. The entries are stored sorted by their
+ * hash in parallel arrays, the bucket of a hash is a contiguous slice of them. Buckets with more than
+ * {@value #LINEAR_SCAN_LIMIT} entries are binary searched by hash and, if the keys share the same hash code, by their
+ * natural order (if {@link Comparable}), so a lookup never scans long collision chains (except of equal hash codes of
+ * keys not being {@link Comparable}, like a {@link HashMap}).
+ * Attention: Never modified after construction, so it is safe for concurrent readers.
+ *
+ * @param <K> the key type
+ */
+final class HardenedHashTable<K> {
+
+    /* *****************************************************************************************************************
+     * Constants
+     **************************************************************************************************************** */
+
+    private static final int LINEAR_SCAN_LIMIT = 8;
+
+    private static final SecureRandom SEEDS = new SecureRandom();
+
+    /* *****************************************************************************************************************
+     * Readonly fields
+     **************************************************************************************************************** */
+
+    private final long seed0;
+    private final long seed1;
+
+    /**
+     * The bucket of a hash is {@code (hash ^ Integer.MIN_VALUE) >>> shift}, which keeps the order of the hashes
+     */
+    private final int shift;
+    private final int[] bucketStarts;
+
+    private final int[] hashes;
+    private final Object[] keys;
+    private final Object[] values;
+
+    /* *****************************************************************************************************************
+     * Constructor(s)
+     **************************************************************************************************************** */
+
+    private HardenedHashTable(
+            long seed0,
+            long seed1,
+            int shift,
+            int[] bucketStarts,
+            int[] hashes,
+            Object[] keys,
+            Object[] values
+    ) {
+        this.seed0 = seed0;
+        this.seed1 = seed1;
+        this.shift = shift;
+        this.bucketStarts = bucketStarts;
+        this.hashes = hashes;
+        this.keys = keys;
+        this.values = values;
+    }
+
+    /* *****************************************************************************************************************
+     * Package-private methods
+     **************************************************************************************************************** */
+
+    int size() {
+        return keys.length;
+    }
+
+    /**
+     * @return the index of the specified key or {@code -1} if not contained
+     */
+    int indexOf(Object key) {
+        int hash = hash(key);
+        int bucket = (hash ^ Integer.MIN_VALUE) >>> shift;
+        int from = bucketStarts[bucket];
+        int to = bucketStarts[bucket + 1];
+
+        if (to - from > LINEAR_SCAN_LIMIT) {
+            int hashesFrom = firstHashIndex(from, to, hash, false);
+            to = firstHashIndex(hashesFrom, to, hash, true);
+            from = hashesFrom;
+
+            if (to - from > LINEAR_SCAN_LIMIT) {
+                int keysFrom = firstKeyIndex(from, to, key, false);
+                to = firstKeyIndex(keysFrom, to, key, true);
+                from = keysFrom;
+            }
+        }
+
+        for (int index = from; index < to; index++) {
+            if (hashes[index] == hash && Objects.equals(key, keys[index])) {
+                return index;
+            }
+        }
+
+        return -1;
+    }
+
+    @SuppressWarnings("unchecked")
+    K keyAt(int index) {
+        return (K) keys[index];
+    }
+
+    @SuppressWarnings("unchecked")
+    <V> V valueAt(int index) {
+        return (V) values[index];
+    }
+
+    /**
+     * @return a {@link Map} view of the keys and their values
+     */
+    <V> Map<K, V> asMap() {
+        return new TableMap<>();
+    }
+
+    /**
+     * @return a {@link Set} view of the keys
+     */
+    Set<K> asSet() {
+        return new TableSet();
+    }
+
+    /* *****************************************************************************************************************
+     * Private methods
+     **************************************************************************************************************** */
+
+    private int hash(Object key) {
+        return hash(seed0, seed1, key);
+    }
+
+    /**
+     * @param after {@code true} to find the first hash greater than the specified one, {@code false} to find the first
+     *              hash not less than it
+     */
+    private int firstHashIndex(int from, int to, int hash, boolean after) {
+        int low = from;
+        int high = to;
+
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+
+            if (hashes[middle] < hash || after && hashes[middle] == hash) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+
+        return low;
+    }
+
+    /**
+     * @param after {@code true} to find the first key ordered after the specified one, {@code false} to find the
+     *              first key not ordered before it
+     */
+    private int firstKeyIndex(int from, int to, Object key, boolean after) {
+        int low = from;
+        int high = to;
+
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            int comparison = compareKeys(keys[middle], key);
+
+            if (comparison < 0 || after && comparison == 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+
+        return low;
+    }
+
+    private static int hash(long seed0, long seed1, Object key) {
+        if (key == null) {
+            return 0;
+        }
+
+        long hash;
+
+        if (key instanceof String) {
+            hash = sipHash(seed0, seed1, (String) key);
+        } else {
+            hash = mix((key.hashCode() & 0xFFFFFFFFL) ^ seed0);
+        }
+
+        return (int) (hash ^ (hash >>> 32));
+    }
+
+    /**
+     * SipHash-2-4 of the UTF-16LE encoded characters
+     */
+    static long sipHash(long seed0, long seed1, String value) {
+        long v0 = 0x736F6D6570736575L ^ seed0;
+        long v1 = 0x646F72616E646F6DL ^ seed1;
+        long v2 = 0x6C7967656E657261L ^ seed0;
+        long v3 = 0x7465646279746573L ^ seed1;
+
+        int length = value.length();
+        int blocks = length / 4;
+
+        for (int block = 0; block <= blocks; block++) {
+            long message;
+
+            if (block < blocks) {
+                int index = block * 4;
+                message = value.charAt(index)
+                        | (long) value.charAt(index + 1) << 16
+                        | (long) value.charAt(index + 2) << 32
+                        | (long) value.charAt(index + 3) << 48;
+            } else {
+                message = (long) (length * 2) << 56;
+
+                for (int index = blocks * 4, bits = 0; index < length; index++, bits += 16) {
+                    message |= (long) value.charAt(index) << bits;
+                }
+            }
+
+            v3 ^= message;
+
+            for (int round = 0; round < 2; round++) {
+                v0 += v1; v1 = Long.rotateLeft(v1, 13); v1 ^= v0; v0 = Long.rotateLeft(v0, 32);
+                v2 += v3; v3 = Long.rotateLeft(v3, 16); v3 ^= v2;
+                v0 += v3; v3 = Long.rotateLeft(v3, 21); v3 ^= v0;
+                v2 += v1; v1 = Long.rotateLeft(v1, 17); v1 ^= v2; v2 = Long.rotateLeft(v2, 32);
+            }
+
+            v0 ^= message;
+        }
+
+        v2 ^= 0xFF;
+
+        for (int round = 0; round < 4; round++) {
+            v0 += v1; v1 = Long.rotateLeft(v1, 13); v1 ^= v0; v0 = Long.rotateLeft(v0, 32);
+            v2 += v3; v3 = Long.rotateLeft(v3, 16); v3 ^= v2;
+            v0 += v3; v3 = Long.rotateLeft(v3, 21); v3 ^= v0;
+            v2 += v1; v1 = Long.rotateLeft(v1, 17); v1 ^= v2; v2 = Long.rotateLeft(v2, 32);
+        }
+
+        return v0 ^ v1 ^ v2 ^ v3;
+    }
+
+    /**
+     * The finalizer of MurmurHash3, a bijection: equal hash codes stay equal, different ones stay different
+     */
+    private static long mix(long value) {
+        value = (value ^ (value >>> 33)) * 0xFF51AFD7ED558CCDL;
+        value = (value ^ (value >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return value ^ (value >>> 33);
+    }
+
+    /**
+     * Orders keys with equal hashes: null first, then by class name, then by their natural order if
+     * {@link Comparable}. Keys ordered equally are told apart by {@link Object#equals(Object)}.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static int compareKeys(Object key, Object other) {
+        if (key == null || other == null) {
+            return key == null ? (other == null ? 0 : -1) : 1;
+        }
+
+        Class<?> keyClass = key.getClass();
+
+        if (keyClass != other.getClass()) {
+            return keyClass.getName().compareTo(other.getClass().getName());
+        }
+
+        return key instanceof Comparable ? ((Comparable) key).compareTo(other) : 0;
+    }
+
+    /* *****************************************************************************************************************
+     * Factory methods
+     **************************************************************************************************************** */
+
+    /**
+     * Creates a table of the specified keys (and values). Of equal keys the last one is kept.
+     *
+     * @param keys   the keys
+     * @param values the values in the order of the keys or {@code null} for a table without values
+     */
+    static <K> HardenedHashTable<K> of(Object[] keys, Object[] values) {
+        long seed0 = SEEDS.nextLong();
+        long seed1 = SEEDS.nextLong();
+
+        int length = keys.length;
+        long[] order = new long[length];
+
+        for (int index = 0; index < length; index++) {
+            order[index] = (long) hash(seed0, seed1, keys[index]) << 32 | index;
+        }
+
+        Arrays.sort(order);
+        sortEqualHashes(order, keys);
+
+        int[] sortedHashes = new int[length];
+        Object[] sortedKeys = new Object[length];
+        Object[] sortedValues = values == null ? null : new Object[length];
+        int size = 0;
+        int groupStart = 0;
+
+        for (long entry : order) {
+            int hash = (int) (entry >> 32);
+            int index = (int) entry;
+            Object key = keys[index];
+
+            if (size == 0 || sortedHashes[size - 1] != hash || compareKeys(sortedKeys[size - 1], key) != 0) {
+                groupStart = size;
+            }
+
+            int duplicate = -1;
+
+            for (int candidate = groupStart; candidate < size; candidate++) {
+                if (Objects.equals(sortedKeys[candidate], key)) {
+                    duplicate = candidate;
+                    break;
+                }
+            }
+
+            int target = duplicate < 0 ? size++ : duplicate;
+            sortedHashes[target] = hash;
+            sortedKeys[target] = key;
+
+            if (values != null) {
+                sortedValues[target] = values[index];
+            }
+        }
+
+        int bucketCount = Math.max(2, Integer.highestOneBit(Math.max(size, 1) * 2 - 1));
+        int shift = 32 - Integer.numberOfTrailingZeros(bucketCount);
+        int[] bucketStarts = new int[bucketCount + 1];
+
+        for (int index = 0; index < size; index++) {
+            bucketStarts[((sortedHashes[index] ^ Integer.MIN_VALUE) >>> shift) + 1]++;
+        }
+
+        for (int bucket = 0; bucket < bucketCount; bucket++) {
+            bucketStarts[bucket + 1] += bucketStarts[bucket];
+        }
+
+        return new HardenedHashTable<>(
+                seed0,
+                seed1,
+                shift,
+                bucketStarts,
+                Arrays.copyOf(sortedHashes, size),
+                Arrays.copyOf(sortedKeys, size),
+                values == null ? null : Arrays.copyOf(sortedValues, size)
+        );
+    }
+
+    /**
+     * Sorts each run of equal hashes by {@link #compareKeys(Object, Object)}, stable to keep the order of equal keys
+     */
+    private static void sortEqualHashes(long[] order, Object[] keys) {
+        int runStart = 0;
+
+        for (int index = 1; index <= order.length; index++) {
+            if (index < order.length && order[index] >> 32 == order[runStart] >> 32) {
+                continue;
+            }
+
+            if (index - runStart > 1) {
+                Long[] run = new Long[index - runStart];
+
+                for (int position = 0; position < run.length; position++) {
+                    run[position] = order[runStart + position];
+                }
+
+                Arrays.sort(run, (entry, other) -> compareKeys(keys[(int) (long) entry], keys[(int) (long) other]));
+
+                for (int position = 0; position < run.length; position++) {
+                    order[runStart + position] = run[position];
+                }
+            }
+
+            runStart = index;
+        }
+    }
+
+    /* *****************************************************************************************************************
+     * Inner class(es)
+     **************************************************************************************************************** */
+
+    private final class TableMap<V> extends AbstractMap<K, V> {
+        @Override
+        public V get(Object key) {
+            int index = indexOf(key);
+            return index < 0 ? null : valueAt(index);
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return indexOf(key) >= 0;
+        }
+
+        @Override
+        public int size() {
+            return keys.length;
+        }
+
+        @Override
+        public Set<Entry<K, V>> entrySet() {
+            return new AbstractSet<Entry<K, V>>() {
+                @Override
+                public Iterator<Entry<K, V>> iterator() {
+                    return new TableIterator<Entry<K, V>>() {
+                        @Override
+                        Entry<K, V> elementAt(int index) {
+                            return new SimpleImmutableEntry<>(keyAt(index), valueAt(index));
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return keys.length;
+                }
+            };
+        }
+    }
+
+    private final class TableSet extends AbstractSet<K> {
+        @Override
+        public boolean contains(Object key) {
+            return indexOf(key) >= 0;
+        }
+
+        @Override
+        public Iterator<K> iterator() {
+            return new TableIterator<K>() {
+                @Override
+                K elementAt(int index) {
+                    return keyAt(index);
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return keys.length;
+        }
+    }
+
+    private abstract class TableIterator<T> implements Iterator<T> {
+        private int index;
+
+        abstract T elementAt(int index);
+
+        @Override
+        public boolean hasNext() {
+            return index < keys.length;
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            return elementAt(index++);
+        }
+    }
+}
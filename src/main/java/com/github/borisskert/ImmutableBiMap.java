@@ -0,0 +1,414 @@
+package com.github.borisskert;
+
+import com.github.borisskert.ImmutableCollectionMetrics.Operation;
+
+import java.util.*;
+import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collector;
+import java.util.stream.Stream;
+
+/**
+ * Implements an immutable bidirectional {@link Map}: values are unique as well as keys.
+ * Attention: Works internal with one {@link KeyIndex} for the keys and one for the values, the key and the value of
+ * each entry have the same index. {@link #inverse()} swaps both and is an O(1) view, {@link #containsValue(Object)} is
+ * a lookup instead of a scan. Entries keep the order of their insertion.
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ */
+public class ImmutableBiMap<K, V> implements Map<K, V> {
+
+    /* *****************************************************************************************************************
+     * Constants
+     **************************************************************************************************************** */
+
+    @SuppressWarnings("unchecked")
+    private static final ImmutableBiMap EMPTY_IMMUTABLE_BI_MAP = new ImmutableBiMap<>(
+            new KeyIndex<>(0), new KeyIndex<>(0)
+    );
+
+    /* *****************************************************************************************************************
+     * Readonly fields
+     **************************************************************************************************************** */
+
+    private final KeyIndex<K> keys;
+    private final KeyIndex<V> values;
+    private final ImmutableBiMap<V, K> inverse;
+
+    /* *****************************************************************************************************************
+     * Constructor(s)
+     **************************************************************************************************************** */
+
+    private ImmutableBiMap(KeyIndex<K> keys, KeyIndex<V> values) {
+        this.keys = keys;
+        this.values = values;
+        this.inverse = new ImmutableBiMap<>(values, keys, this);
+    }
+
+    private ImmutableBiMap(KeyIndex<K> keys, KeyIndex<V> values, ImmutableBiMap<V, K> inverse) {
+        this.keys = keys;
+        this.values = values;
+        this.inverse = inverse;
+    }
+
+    /* *****************************************************************************************************************
+     * Public methods
+     **************************************************************************************************************** */
+
+    /**
+     * Provides the inverse of this map in O(1), it shares the indexes of this map
+     *
+     * @return an {@link ImmutableBiMap} of each value to its key
+     */
+    public ImmutableBiMap<V, K> inverse() {
+        return inverse;
+    }
+
+    /* *****************************************************************************************************************
+     * Implementation of Map<K,V> interface
+     **************************************************************************************************************** */
+
+    @Override
+    public int size() {
+        return keys.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return keys.size() == 0;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return keys.indexOf(key) >= 0;
+    }
+
+    @Override
+    public boolean containsValue(Object value) {
+        return values.indexOf(value) >= 0;
+    }
+
+    @Override
+    public V get(Object key) {
+        int index = keys.indexOf(key);
+        return index < 0 ? null : values.keyAt(index);
+    }
+
+    @Override
+    public Set<K> keySet() {
+        return ImmutableSet.view(keys.keySet());
+    }
+
+    @Override
+    public Set<V> values() {
+        return ImmutableSet.view(values.keySet());
+    }
+
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        return ImmutableSet.view(new EntrySet());
+    }
+
+    @Override
+    public V put(K key, V value) {
+        throw new UnsupportedOperationException("You must not put an element to this map");
+    }
+
+    @Override
+    public V remove(Object key) {
+        throw new UnsupportedOperationException("You must not remove an element from this map");
+    }
+
+    @Override
+    public void putAll(Map<? extends K, ? extends V> m) {
+        throw new UnsupportedOperationException("You must not put a elements to this map");
+    }
+
+    @Override
+    public void clear() {
+        throw new UnsupportedOperationException("You must not clear this map");
+    }
+
+    /* *****************************************************************************************************************
+     * Overrides of Object
+     **************************************************************************************************************** */
+
+    /**
+     * Similar implementation to {@link AbstractMap#equals(Object)}
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Map)) return false;
+
+        Map<?, ?> otherMap = (Map<?, ?>) o;
+        if (otherMap.size() != size())
+            return false;
+
+        long start = ImmutableCollectionMetrics.start();
+        boolean equals = true;
+
+        for (int index = 0; index < size() && equals; index++) {
+            equals = values.keyAt(index).equals(otherMap.get(keys.keyAt(index)));
+        }
+
+        ImmutableCollectionMetrics.operated(ImmutableBiMap.class, Operation.EQUALS, size(), start);
+
+        return equals;
+    }
+
+    @Override
+    public int hashCode() {
+        long start = ImmutableCollectionMetrics.start();
+        int hashCode = 0;
+
+        for (int index = 0; index < size(); index++) {
+            hashCode += keys.keyAt(index).hashCode() ^ values.keyAt(index).hashCode();
+        }
+
+        ImmutableCollectionMetrics.operated(ImmutableBiMap.class, Operation.HASH_CODE, size(), start);
+
+        return hashCode;
+    }
+
+    @Override
+    public String toString() {
+        StringJoiner joiner = new StringJoiner(", ", "{", "}");
+
+        for (int index = 0; index < size(); index++) {
+            joiner.add(keys.keyAt(index) + "=" + values.keyAt(index));
+        }
+
+        return joiner.toString();
+    }
+
+    /* *****************************************************************************************************************
+     * Factory methods
+     **************************************************************************************************************** */
+
+    /**
+     * Returns an empty instance of an {@link ImmutableBiMap}
+     *
+     * @param <K> the key type
+     * @param <V> the value type
+     * @return an empty instance (not a new one)
+     */
+    @SuppressWarnings("unchecked")
+    public static <K, V> ImmutableBiMap<K, V> empty() {
+        return EMPTY_IMMUTABLE_BI_MAP;
+    }
+
+    /**
+     * Creates an {@link ImmutableBiMap} with the same entries as the specified {@link Map}
+     *
+     * @param map the specified {@link Map}, keys and values must not be null, values must be unique
+     * @param <K> the key type
+     * @param <V> the value type
+     * @return a new instance of an {@link ImmutableBiMap}
+     */
+    public static <K, V> ImmutableBiMap<K, V> of(Map<K, V> map) {
+        Objects.requireNonNull(map, "Parameter 'map' must not be null");
+
+        Builder<K, V> builder = new Builder<>(map.size());
+
+        for (Entry<K, V> entry : map.entrySet()) {
+            builder.add(entry.getKey(), entry.getValue());
+        }
+
+        return builder.build();
+    }
+
+    /**
+     * Creates an {@link ImmutableBiMap} with the specified entries.
+     *
+     * @param entry        the first {@link Map.Entry}, which must not be null
+     * @param otherEntries potential further {@link Map.Entry}s to be added
+     * @param <K>          the type of the key
+     * @param <V>          the type of the values
+     * @return a new instance of an {@link ImmutableBiMap} containing the specified items
+     */
+    @SafeVarargs
+    public static <K, V> ImmutableBiMap<K, V> of(Map.Entry<K, V> entry, Map.Entry<K, V>... otherEntries) {
+        Builder<K, V> builder = new Builder<>(otherEntries == null ? 1 : otherEntries.length + 1);
+
+        builder.add(entry.getKey(), entry.getValue());
+
+        if (otherEntries != null) {
+            for (Entry<K, V> otherEntry : otherEntries) {
+                builder.add(otherEntry.getKey(), otherEntry.getValue());
+            }
+        }
+
+        return builder.build();
+    }
+
+    /**
+     * Provides a {@link Collector} to collect {@link Stream}s to an {@link ImmutableBiMap}
+     *
+     * @param keyMapper   the mapper {@link Function} to get the key for each element
+     * @param valueMapper the mapper {@link Function} to get the value for each element
+     * @param <T>         the type of the {@link Stream} elements
+     * @param <K>         the key type
+     * @param <V>         the value type
+     * @return a new {@link Collector} instance
+     */
+    public static <T, K, V> Collector<T, ?, ImmutableBiMap<K, V>> collect(
+            Function<? super T, ? extends K> keyMapper,
+            Function<? super T, ? extends V> valueMapper
+    ) {
+        return new ImmutableBiMapCollector<>(keyMapper, valueMapper);
+    }
+
+    /* *****************************************************************************************************************
+     * Inner class(es)
+     **************************************************************************************************************** */
+
+    private final class EntrySet extends AbstractSet<Entry<K, V>> {
+        @Override
+        public boolean contains(Object o) {
+            if (!(o instanceof Map.Entry)) {
+                return false;
+            }
+
+            Map.Entry<?, ?> entry = (Map.Entry<?, ?>) o;
+            int index = keys.indexOf(entry.getKey());
+
+            return index >= 0 && values.keyAt(index).equals(entry.getValue());
+        }
+
+        @Override
+        public Iterator<Entry<K, V>> iterator() {
+            return new Iterator<Entry<K, V>>() {
+                private int index;
+
+                @Override
+                public boolean hasNext() {
+                    return index < size();
+                }
+
+                @Override
+                public Entry<K, V> next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+
+                    Entry<K, V> entry = new AbstractMap.SimpleImmutableEntry<>(keys.keyAt(index), values.keyAt(index));
+                    index++;
+
+                    return entry;
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return keys.size();
+        }
+    }
+
+    /**
+     * Adds each entry to both indexes, so the key and the value get the same index
+     */
+    private static final class Builder<K, V> {
+        private final KeyIndex<K> keys;
+        private final KeyIndex<V> values;
+
+        private Builder() {
+            this(8);
+        }
+
+        private Builder(int expectedSize) {
+            this.keys = new KeyIndex<>(expectedSize);
+            this.values = new KeyIndex<>(expectedSize);
+        }
+
+        private void add(K key, V value) {
+            Objects.requireNonNull(key, "Keys must not be null");
+            Objects.requireNonNull(value, "Values must not be null");
+
+            int keyIndex = keys.indexOf(key);
+
+            if (keyIndex >= 0) {
+                throw new UnsupportedOperationException(
+                        String.format(
+                                "Duplicate key %s (attempted merging values %s and %s)",
+                                key, values.keyAt(keyIndex), value
+                        )
+                );
+            }
+
+            int valueIndex = values.indexOf(value);
+
+            if (valueIndex >= 0) {
+                throw new UnsupportedOperationException(
+                        String.format(
+                                "Duplicate value %s (attempted merging keys %s and %s)",
+                                value, keys.keyAt(valueIndex), key
+                        )
+                );
+            }
+
+            keys.add(key);
+            values.add(value);
+        }
+
+        private Builder<K, V> merge(Builder<K, V> other) {
+            for (int index = 0; index < other.keys.size(); index++) {
+                add(other.keys.keyAt(index), other.values.keyAt(index));
+            }
+
+            return this;
+        }
+
+        private ImmutableBiMap<K, V> build() {
+            long start = ImmutableCollectionMetrics.start();
+            ImmutableBiMap<K, V> biMap = new ImmutableBiMap<>(keys.trim(), values.trim());
+            ImmutableCollectionMetrics.constructed(ImmutableBiMap.class, biMap.size(), biMap.size(), start);
+
+            return biMap;
+        }
+    }
+
+    private static class ImmutableBiMapCollector<T, K, V>
+            implements Collector<T, Builder<K, V>, ImmutableBiMap<K, V>> {
+
+        private final Function<? super T, ? extends K> keyMapper;
+        private final Function<? super T, ? extends V> valueMapper;
+
+        private ImmutableBiMapCollector(Function<? super T, ? extends K> keyMapper, Function<? super T, ? extends V> valueMapper) {
+            this.keyMapper = keyMapper;
+            this.valueMapper = valueMapper;
+        }
+
+        @Override
+        public Supplier<Builder<K, V>> supplier() {
+            return Builder::new;
+        }
+
+        @Override
+        public BiConsumer<Builder<K, V>, T> accumulator() {
+            return (builder, element) -> builder.add(keyMapper.apply(element), valueMapper.apply(element));
+        }
+
+        @Override
+        public BinaryOperator<Builder<K, V>> combiner() {
+            return (left, right) -> {
+                ImmutableCollectionMetrics.combined(ImmutableBiMap.class, left.keys.size(), right.keys.size());
+                return left.merge(right);
+            };
+        }
+
+        @Override
+        public Function<Builder<K, V>, ImmutableBiMap<K, V>> finisher() {
+            return Builder::build;
+        }
+
+        @Override
+        public Set<Characteristics> characteristics() {
+            return Collections.emptySet();
+        }
+    }
+}
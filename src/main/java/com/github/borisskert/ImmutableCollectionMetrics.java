@@ -0,0 +1,352 @@
+package com.github.borisskert;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Opt-in instrumentation of the immutable collections: a static registry of {@link Listener}s which get notified about
+ * every construction, every combiner merge of a collector and every O(n) {@link Operation}.
+ * Attention: Disabled by default. As long as no {@link Listener} is registered the cost of every hook is a single
+ * branch (two for timed hooks, one to take the start time and one to report).
+ */
+public final class ImmutableCollectionMetrics {
+
+    /* *****************************************************************************************************************
+     * Constants
+     **************************************************************************************************************** */
+
+    private static final Object LOCK = new Object();
+
+    /* *****************************************************************************************************************
+     * Static fields
+     **************************************************************************************************************** */
+
+    /**
+     * All registered listeners, copied on write (guarded by {@link #LOCK})
+     */
+    private static Listener[] registered = new Listener[0];
+
+    /**
+     * The listener called by the hooks: {@code null}, the only registered one or a {@link Listeners} of all of them
+     */
+    private static volatile Listener listener;
+
+    /* *****************************************************************************************************************
+     * Constructor(s)
+     **************************************************************************************************************** */
+
+    private ImmutableCollectionMetrics() {
+    }
+
+    /* *****************************************************************************************************************
+     * Public methods
+     **************************************************************************************************************** */
+
+    /**
+     * Registers the specified {@link Listener} in addition to the already registered ones, registering the same
+     * instance twice has no effect
+     *
+     * @param listener the {@link Listener} to be notified
+     */
+    public static void register(Listener listener) {
+        Objects.requireNonNull(listener, "Parameter 'listener' must not be null");
+
+        synchronized (LOCK) {
+            if (indexOf(listener) < 0) {
+                Listener[] listeners = Arrays.copyOf(registered, registered.length + 1);
+                listeners[registered.length] = listener;
+                update(listeners);
+            }
+        }
+    }
+
+    /**
+     * Unregisters the specified {@link Listener} (if registered), the other listeners stay registered
+     *
+     * @param listener the {@link Listener} not to be notified anymore
+     */
+    public static void unregister(Listener listener) {
+        Objects.requireNonNull(listener, "Parameter 'listener' must not be null");
+
+        synchronized (LOCK) {
+            int index = indexOf(listener);
+
+            if (index >= 0) {
+                Listener[] listeners = new Listener[registered.length - 1];
+                System.arraycopy(registered, 0, listeners, 0, index);
+                System.arraycopy(registered, index + 1, listeners, index, listeners.length - index);
+                update(listeners);
+            }
+        }
+    }
+
+    /**
+     * Unregisters all {@link Listener}s and disables the instrumentation
+     */
+    public static void unregister() {
+        synchronized (LOCK) {
+            update(new Listener[0]);
+        }
+    }
+
+    /* *****************************************************************************************************************
+     * Hooks
+     **************************************************************************************************************** */
+
+    /**
+     * Takes the start time of a timed hook
+     *
+     * @return the current {@link System#nanoTime()} or {@code 0} if disabled
+     */
+    static long start() {
+        return listener == null ? 0L : System.nanoTime();
+    }
+
+    static void constructed(Class<?> type, int size, int copiedElements, long start) {
+        Listener current = listener;
+
+        if (current != null) {
+            current.onConstruction(type, size, copiedElements, durationSince(start));
+        }
+    }
+
+    static void operated(Class<?> type, Operation operation, int size, long start) {
+        Listener current = listener;
+
+        if (current != null) {
+            current.onOperation(type, operation, size, durationSince(start));
+        }
+    }
+
+    static void combined(Class<?> type, int leftSize, int rightSize) {
+        Listener current = listener;
+
+        if (current != null) {
+            current.onCombine(type, leftSize, rightSize);
+        }
+    }
+
+    /**
+     * @return the index of the specified listener in {@link #registered} (by identity) or {@code -1}
+     */
+    private static int indexOf(Listener listener) {
+        for (int index = 0; index < registered.length; index++) {
+            if (registered[index] == listener) {
+                return index;
+            }
+        }
+
+        return -1;
+    }
+
+    private static void update(Listener[] listeners) {
+        registered = listeners;
+
+        if (listeners.length == 0) {
+            listener = null;
+        } else if (listeners.length == 1) {
+            listener = listeners[0];
+        } else {
+            listener = new Listeners(listeners);
+        }
+    }
+
+    /**
+     * The start is {@code 0} if the listener has been registered after the start time was taken
+     */
+    private static long durationSince(long start) {
+        return start == 0L ? 0L : System.nanoTime() - start;
+    }
+
+    /* *****************************************************************************************************************
+     * Inner class(es)
+     **************************************************************************************************************** */
+
+    /**
+     * Gets notified about constructions and collector merges. Implementations must be thread-safe and should be cheap,
+     * they are called synchronously within the factory methods.
+     */
+    public interface Listener {
+
+        /**
+         * Called after an immutable collection has been constructed
+         *
+         * @param type           the type of the constructed collection, e.g. {@link ImmutableList}
+         * @param size           the size of the constructed collection
+         * @param copiedElements the number of elements copied into the new backing collection
+         * @param durationNanos  the duration of the construction in nanoseconds ({@code 0} if unknown)
+         */
+        void onConstruction(Class<?> type, int size, int copiedElements, long durationNanos);
+
+        /**
+         * Called when the combiner of a collector merges two partial results (parallel streams only)
+         *
+         * @param type      the type of the collection to be collected
+         * @param leftSize  the size of the partial result the other one is merged into
+         * @param rightSize the size of the merged partial result
+         */
+        void onCombine(Class<?> type, int leftSize, int rightSize);
+
+        /**
+         * Called after an O(n) {@link Operation} has been performed. Does nothing by default.
+         *
+         * @param type          the type of the collection
+         * @param operation     the performed {@link Operation}
+         * @param size          the size of the collection
+         * @param durationNanos the duration of the operation in nanoseconds ({@code 0} if unknown)
+         */
+        default void onOperation(Class<?> type, Operation operation, int size, long durationNanos) {
+        }
+    }
+
+    /**
+     * Notifies several registered {@link Listener}s in the order of their registration
+     */
+    private static final class Listeners implements Listener {
+        private final Listener[] listeners;
+
+        private Listeners(Listener[] listeners) {
+            this.listeners = listeners;
+        }
+
+        @Override
+        public void onConstruction(Class<?> type, int size, int copiedElements, long durationNanos) {
+            for (Listener listener : listeners) {
+                listener.onConstruction(type, size, copiedElements, durationNanos);
+            }
+        }
+
+        @Override
+        public void onCombine(Class<?> type, int leftSize, int rightSize) {
+            for (Listener listener : listeners) {
+                listener.onCombine(type, leftSize, rightSize);
+            }
+        }
+
+        @Override
+        public void onOperation(Class<?> type, Operation operation, int size, long durationNanos) {
+            for (Listener listener : listeners) {
+                listener.onOperation(type, operation, size, durationNanos);
+            }
+        }
+    }
+
+    /**
+     * The instrumented operations which take O(n) time
+     */
+    public enum Operation {
+        EQUALS,
+        HASH_CODE,
+        CONTAINS_ALL,
+        INDEX
+    }
+
+    /**
+     * A {@link Listener} counting constructions, copied elements and combiner merges per collection type and
+     * collecting a size distribution in power-of-two buckets.
+     */
+    public static class Counters implements Listener {
+
+        private static final int BUCKETS = Integer.SIZE + 1;
+
+        private final Map<Class<?>, TypeCounters> countersByType = new ConcurrentHashMap<>();
+
+        @Override
+        public void onConstruction(Class<?> type, int size, int copiedElements, long durationNanos) {
+            TypeCounters counters = countersOf(type);
+
+            counters.constructions.increment();
+            counters.copiedElements.add(copiedElements);
+            counters.sizes[bucketOf(size)].increment();
+        }
+
+        @Override
+        public void onCombine(Class<?> type, int leftSize, int rightSize) {
+            countersOf(type).combines.increment();
+        }
+
+        /**
+         * @param type the collection type
+         * @return the number of constructed collections of the specified type
+         */
+        public long constructions(Class<?> type) {
+            TypeCounters counters = countersByType.get(type);
+            return counters == null ? 0L : counters.constructions.sum();
+        }
+
+        /**
+         * @param type the collection type
+         * @return the number of elements copied while constructing collections of the specified type
+         */
+        public long copiedElements(Class<?> type) {
+            TypeCounters counters = countersByType.get(type);
+            return counters == null ? 0L : counters.copiedElements.sum();
+        }
+
+        /**
+         * @param type the collection type
+         * @return the number of combiner merges while collecting collections of the specified type
+         */
+        public long combines(Class<?> type) {
+            TypeCounters counters = countersByType.get(type);
+            return counters == null ? 0L : counters.combines.sum();
+        }
+
+        /**
+         * Provides the size distribution of the constructed collections. Bucket {@code 0} counts empty collections,
+         * bucket {@code i} counts the sizes from {@code 2^(i-1)} (inclusive) to {@code 2^i} (exclusive).
+         *
+         * @param type the collection type
+         * @return a new array containing the count of each bucket
+         */
+        public long[] sizeDistribution(Class<?> type) {
+            long[] distribution = new long[BUCKETS];
+            TypeCounters counters = countersByType.get(type);
+
+            if (counters != null) {
+                for (int bucket = 0; bucket < BUCKETS; bucket++) {
+                    distribution[bucket] = counters.sizes[bucket].sum();
+                }
+            }
+
+            return distribution;
+        }
+
+        /**
+         * Resets all counters
+         */
+        public void reset() {
+            countersByType.clear();
+        }
+
+        private TypeCounters countersOf(Class<?> type) {
+            TypeCounters counters = countersByType.get(type);
+
+            if (counters == null) {
+                counters = countersByType.computeIfAbsent(type, ignored -> new TypeCounters());
+            }
+
+            return counters;
+        }
+
+        private static int bucketOf(int size) {
+            return Integer.SIZE - Integer.numberOfLeadingZeros(size);
+        }
+
+        private static class TypeCounters {
+            private final LongAdder constructions = new LongAdder();
+            private final LongAdder copiedElements = new LongAdder();
+            private final LongAdder combines = new LongAdder();
+            private final LongAdder[] sizes = new LongAdder[BUCKETS];
+
+            private TypeCounters() {
+                for (int bucket = 0; bucket < BUCKETS; bucket++) {
+                    sizes[bucket] = new LongAdder();
+                }
+            }
+        }
+    }
+}
@@ -1,10 +1,21 @@
 package com.github.borisskert;
 
+import com.github.borisskert.ImmutableCollectionMetrics.Operation;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.*;
 import java.util.function.BiConsumer;
 import java.util.function.BinaryOperator;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
 import java.util.stream.Collector;
 import java.util.stream.Stream;
 
@@ -24,6 +35,16 @@ public class ImmutableList<E> implements List<E> {
             new ArrayList<>(0)
     );
 
+    /**
+     * Lists with fewer items are always scanned
+     */
+    private static final int INDEX_MIN_SIZE = 32;
+
+    /**
+     * The number of lookups after which a {@link ListIndex} is built
+     */
+    private static final int INDEX_LOOKUP_THRESHOLD = 16;
+
     /* *****************************************************************************************************************
      * Readonly fields
      **************************************************************************************************************** */
@@ -51,11 +72,21 @@ public class ImmutableList<E> implements List<E> {
     }
 
     public boolean contains(Object o) {
-        return protectedList.contains(o);
+        if (o == null && JdkCollections.rejectsNullQueries(protectedList))
+            return false;
+
+        ListIndex index = indexFor(1);
+        return index != null ? index.indexOf(o) >= 0 : protectedList.contains(o);
     }
 
     public boolean containsAll(Collection<?> c) {
-        return protectedList.containsAll(c);
+        long start = ImmutableCollectionMetrics.start();
+        boolean containsAll = JdkCollections.rejectsNullQueries(protectedList) || indexFor(c.size()) != null
+                ? containsAllItems(c)
+                : protectedList.containsAll(c);
+        ImmutableCollectionMetrics.operated(ImmutableList.class, Operation.CONTAINS_ALL, size(), start);
+
+        return containsAll;
     }
 
     public E get(int index) {
@@ -63,15 +94,27 @@ public class ImmutableList<E> implements List<E> {
     }
 
     public int indexOf(Object o) {
-        return protectedList.indexOf(o);
+        if (o == null && JdkCollections.rejectsNullQueries(protectedList))
+            return -1;
+
+        ListIndex index = indexFor(1);
+        return index != null ? index.indexOf(o) : protectedList.indexOf(o);
     }
 
     public int lastIndexOf(Object o) {
-        return protectedList.lastIndexOf(o);
+        if (o == null && JdkCollections.rejectsNullQueries(protectedList))
+            return -1;
+
+        ListIndex index = indexFor(1);
+        return index != null ? index.lastIndexOf(o) : protectedList.lastIndexOf(o);
     }
 
+    /**
+     * The sub list is an {@link ImmutableList} again, so it answers {@code null} queries like this list (the sub lists
+     * of the JDK immutable lists throw on them)
+     */
     public List<E> subList(int fromIndex, int toIndex) {
-        return protectedList.subList(fromIndex, toIndex);
+        return create(protectedList.subList(fromIndex, toIndex));
     }
 
     public Object[] toArray() {
@@ -152,18 +195,77 @@ public class ImmutableList<E> implements List<E> {
             return false;
         }
 
-        return containEqualItems(otherList);
+        long start = ImmutableCollectionMetrics.start();
+        boolean equalItems = isParallelComparableWith(otherList)
+                ? ParallelComparison.listsEqual(protectedList, ((ImmutableList<?>) otherList).protectedList)
+                : containEqualItems(otherList);
+        ImmutableCollectionMetrics.operated(ImmutableList.class, Operation.EQUALS, size(), start);
+
+        return equalItems;
     }
 
     @Override
     public int hashCode() {
-        return protectedList.hashCode();
+        long start = ImmutableCollectionMetrics.start();
+        int hashCode = protectedList instanceof RandomAccess && ParallelComparison.isParallel(size())
+                ? ParallelComparison.listHashCode(protectedList)
+                : protectedList.hashCode();
+        ImmutableCollectionMetrics.operated(ImmutableList.class, Operation.HASH_CODE, size(), start);
+
+        return hashCode;
     }
 
     /* *****************************************************************************************************************
      * Private methods
      **************************************************************************************************************** */
 
+    /**
+     * Counts the specified number of lookups and provides the {@link ListIndex} once enough lookups have been counted,
+     * see {@link IndexedImmutableList}
+     *
+     * @return the {@link ListIndex} or {@code null} if the lookups should scan the list
+     */
+    ListIndex indexFor(int lookups) {
+        return null;
+    }
+
+    /**
+     * Only lists backed by an array with at least {@value #INDEX_MIN_SIZE} items get the fields for a {@link ListIndex}.
+     * Lazy views, sorted lists (searched by binary search) and the lines of a file are scanned, so indexing never
+     * computes or reads all of their items. The type is checked first, so a lazy view is never sized here.
+     */
+    private static <E> ImmutableList<E> create(List<E> protectedList) {
+        if (isArrayBacked(protectedList) && protectedList.size() >= INDEX_MIN_SIZE) {
+            return new IndexedImmutableList<>(protectedList);
+        }
+
+        return new ImmutableList<>(protectedList);
+    }
+
+    private static boolean isArrayBacked(List<?> list) {
+        return list instanceof ArrayItems || list.getClass() == ArrayList.class || JdkCollections.isCompactList(list);
+    }
+
+    private boolean containsAllItems(Collection<?> items) {
+        for (Object item : items) {
+            if (!contains(item))
+                return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Huge lists are compared in parallel only if both are {@link ImmutableList}s with random access, so no
+     * concurrently modified {@link List} is read by several threads
+     */
+    private boolean isParallelComparableWith(List<?> otherList) {
+        return otherList instanceof ImmutableList
+                && protectedList instanceof RandomAccess
+                && ((ImmutableList<?>) otherList).protectedList instanceof RandomAccess
+                && ParallelComparison.isParallel(size());
+    }
+
     private boolean containEqualItems(List<?> otherList) {
         ListIterator<E> thisIterator = listIterator();
         ListIterator<?> otherIterator = otherList.listIterator();
@@ -206,11 +308,13 @@ public class ImmutableList<E> implements List<E> {
     public static <T> List<T> of(T item, final T... others) {
         Objects.requireNonNull(item, "Parameter 'item' must not be null");
 
-        List<T> arrayList = new ArrayList<>(others.length + 1);
-        arrayList.add(item);
-        Collections.addAll(arrayList, others);
+        long start = ImmutableCollectionMetrics.start();
 
-        return new ImmutableList<>(arrayList);
+        Object[] array = new Object[others.length + 1];
+        array[0] = item;
+        System.arraycopy(others, 0, array, 1, others.length);
+
+        return ofCopy(array, true, start);
     }
 
     /**
@@ -223,10 +327,9 @@ public class ImmutableList<E> implements List<E> {
     public static <T> List<T> of(T[] items) {
         Objects.requireNonNull(items, "Parameter 'items' must not be null");
 
-        List<T> arrayList = new ArrayList<>(items.length);
-        Collections.addAll(arrayList, items);
+        long start = ImmutableCollectionMetrics.start();
 
-        return new ImmutableList<>(arrayList);
+        return ofCopy(items, false, start);
     }
 
     /**
@@ -239,10 +342,9 @@ public class ImmutableList<E> implements List<E> {
     public static <T> List<T> of(Collection<T> items) {
         Objects.requireNonNull(items, "Parameter 'items' must not be null");
 
-        List<T> arrayList = new ArrayList<>(items.size());
-        arrayList.addAll(items);
+        long start = ImmutableCollectionMetrics.start();
 
-        return new ImmutableList<>(arrayList);
+        return ofCopy(items.toArray(), true, start);
     }
 
     /**
@@ -255,13 +357,43 @@ public class ImmutableList<E> implements List<E> {
     public static <T> List<T> of(Iterable<T> items) {
         Objects.requireNonNull(items, "Parameter 'items' must not be null");
 
-        List<T> arrayList = new ArrayList<>();
+        if (items instanceof Collection) {
+            return of((Collection<T>) items);
+        }
+
+        long start = ImmutableCollectionMetrics.start();
+
+        Object[] array = new Object[10];
+        int size = 0;
 
         for (T item : items) {
-            arrayList.add(item);
+            if (size == array.length) {
+                array = Arrays.copyOf(array, size + (size >> 1));
+            }
+
+            array[size++] = item;
         }
 
-        return new ImmutableList<>(arrayList);
+        return ofCopy(size < array.length ? Arrays.copyOf(array, size) : array, true, start);
+    }
+
+    /**
+     * Creates an immutable {@link List} containing the items of the specified {@link Stream} in encounter order.
+     * The items are stored in one array of the exact size, which is wrapped without copying: a {@link Stream} whose
+     * {@link Spliterator} is {@link Spliterator#SIZED} fills it directly (in parallel for a parallel {@link Stream}),
+     * other streams are buffered in growing chunks and copied once.
+     *
+     * @param items the {@link Stream} providing the items, which is consumed
+     * @param <T>   the item type
+     * @return a new instance of an {@link ImmutableList}
+     */
+    public static <T> List<T> ofStream(Stream<T> items) {
+        Objects.requireNonNull(items, "Parameter 'items' must not be null");
+
+        long start = ImmutableCollectionMetrics.start();
+        Object[] array = items.toArray();
+
+        return ofArray(array, array.length, start);
     }
 
     /**
@@ -274,6 +406,453 @@ public class ImmutableList<E> implements List<E> {
         return new ImmutableListCollector<T>();
     }
 
+    /**
+     * Provides a {@link Collector} to collect a {@link Stream} to an immutable {@link List}, equal items share one
+     * instance, see {@link #collectDeduplicated(int)}
+     *
+     * @param <T> the item type
+     * @return a new instance of an {@link Collector}
+     */
+    public static <T> Collector<T, ?, List<T>> collectDeduplicated() {
+        return collectDeduplicated(Deduplicator.DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Provides a {@link Collector} to collect a {@link Stream} to an immutable {@link List}, equal items share one
+     * instance. Items are canonicalized on accumulation by a bounded table of the last seen distinct items, so repeated
+     * strings or small value objects are retained once (as long as their slot in the table has not been taken over).
+     *
+     * @param capacity the maximum number of remembered distinct items of each accumulation
+     * @param <T>      the item type
+     * @return a new instance of an {@link Collector}
+     */
+    public static <T> Collector<T, ?, List<T>> collectDeduplicated(int capacity) {
+        Deduplicator.checkCapacity(capacity);
+        return new DeduplicatingListCollector<>(capacity);
+    }
+
+    /**
+     * Creates a lazy immutable {@link List} view which applies the mapper {@link Function} on each access of an item.
+     * Nothing is mapped in advance.
+     *
+     * @param items  the source items, copied once unless it is an {@link ImmutableList} already
+     * @param mapper the mapper {@link Function}, must be side-effect free and thread-safe
+     * @param <T>    the source item type
+     * @param <R>    the item type of the view
+     * @return a new instance of an {@link ImmutableList}
+     */
+    public static <T, R> List<R> mapLazy(List<T> items, Function<? super T, ? extends R> mapper) {
+        return mapLazy(items, mapper, false);
+    }
+
+    /**
+     * Creates a lazy immutable {@link List} view which applies the mapper {@link Function} on the first access of
+     * an item. Nothing is mapped in advance.
+     * Attention: Concurrent first accesses of the same item may apply the mapper more than once, the first stored
+     * result wins. A memoizing view reads the size of its source on the first access, which tests all items of a
+     * {@link #filterLazy(List, Predicate)} source.
+     *
+     * @param items   the source items, copied once unless it is an {@link ImmutableList} already
+     * @param mapper  the mapper {@link Function}, must be side-effect free and thread-safe
+     * @param memoize {@code true} to keep each mapped item, {@code false} to map it again on every access
+     * @param <T>     the source item type
+     * @param <R>     the item type of the view
+     * @return a new instance of an {@link ImmutableList}
+     */
+    public static <T, R> List<R> mapLazy(List<T> items, Function<? super T, ? extends R> mapper, boolean memoize) {
+        Objects.requireNonNull(items, "Parameter 'items' must not be null");
+        Objects.requireNonNull(mapper, "Parameter 'mapper' must not be null");
+
+        List<T> source = snapshotOf(items);
+
+        if (memoize) {
+            return create(new MemoizedMappedList<>(source, mapper));
+        }
+
+        return create(new MappedList<>(source, mapper));
+    }
+
+    /**
+     * Creates a lazy immutable {@link List} view containing the items matching the specified {@link Predicate}. Items
+     * are tested only as far as the view has been accessed (by index or iterator), each item at most once.
+     * Attention: {@link List#size()} (and all operations using it) tests all remaining items.
+     *
+     * @param items     the source items, copied once unless it is an {@link ImmutableList} already
+     * @param predicate the filter {@link Predicate}, must be side-effect free
+     * @param <T>       the item type
+     * @return a new instance of an {@link ImmutableList}
+     */
+    public static <T> List<T> filterLazy(List<T> items, Predicate<? super T> predicate) {
+        Objects.requireNonNull(items, "Parameter 'items' must not be null");
+        Objects.requireNonNull(predicate, "Parameter 'predicate' must not be null");
+
+        return create(new FilteredList<>(snapshotOf(items), predicate));
+    }
+
+    /**
+     * Creates an immutable {@link List} of the mapped items. Loops over the items directly into an exactly sized
+     * array, without a {@link Stream} pipeline and without a final copy.
+     *
+     * @param items  the source items
+     * @param mapper the mapper {@link Function}
+     * @param <T>    the source item type
+     * @param <R>    the item type of the result
+     * @return a new instance of an {@link ImmutableList}
+     */
+    public static <T, R> List<R> map(List<T> items, Function<? super T, ? extends R> mapper) {
+        Objects.requireNonNull(items, "Parameter 'items' must not be null");
+        Objects.requireNonNull(mapper, "Parameter 'mapper' must not be null");
+
+        long start = ImmutableCollectionMetrics.start();
+
+        List<T> source = backingOf(items);
+        Object[] mapped = new Object[source.size()];
+        int size = 0;
+
+        for (T item : source) {
+            mapped[size++] = mapper.apply(item);
+        }
+
+        return ofArray(mapped, size, start);
+    }
+
+    /**
+     * Creates an immutable {@link List} of the items matching the specified {@link Predicate}. Loops over the items
+     * directly into an array of the source size, which is trimmed only if more than a quarter of it is unused.
+     *
+     * @param items     the source items
+     * @param predicate the filter {@link Predicate}
+     * @param <T>       the item type
+     * @return a new instance of an {@link ImmutableList}
+     */
+    public static <T> List<T> filter(List<T> items, Predicate<? super T> predicate) {
+        Objects.requireNonNull(items, "Parameter 'items' must not be null");
+        Objects.requireNonNull(predicate, "Parameter 'predicate' must not be null");
+
+        long start = ImmutableCollectionMetrics.start();
+
+        List<T> source = backingOf(items);
+        Object[] matches = new Object[source.size()];
+        int size = 0;
+
+        for (T item : source) {
+            if (predicate.test(item)) {
+                matches[size++] = item;
+            }
+        }
+
+        return ofArray(matches, size, start);
+    }
+
+    /**
+     * Creates an immutable {@link List} of the items of all mapped {@link Collection}s. The mapper is applied once per
+     * item, the mapped items are copied into an exactly sized array.
+     *
+     * @param items  the source items
+     * @param mapper the mapper {@link Function} to get the {@link Collection} of each item
+     * @param <T>    the source item type
+     * @param <R>    the item type of the result
+     * @return a new instance of an {@link ImmutableList}
+     */
+    public static <T, R> List<R> flatMap(
+            List<T> items,
+            Function<? super T, ? extends Collection<? extends R>> mapper
+    ) {
+        Objects.requireNonNull(items, "Parameter 'items' must not be null");
+        Objects.requireNonNull(mapper, "Parameter 'mapper' must not be null");
+
+        long start = ImmutableCollectionMetrics.start();
+
+        List<T> source = backingOf(items);
+        Collection<?>[] collections = new Collection[source.size()];
+        int collectionCount = 0;
+        int totalSize = 0;
+
+        for (T item : source) {
+            Collection<? extends R> collection = mapper.apply(item);
+            collections[collectionCount++] = collection;
+            totalSize = Math.addExact(totalSize, collection.size());
+        }
+
+        Object[] mapped = new Object[totalSize];
+        int size = 0;
+
+        for (Collection<?> collection : collections) {
+            for (Object item : collection) {
+                if (size == mapped.length) {
+                    mapped = Arrays.copyOf(mapped, size + (size >> 1) + 1);
+                }
+
+                mapped[size++] = item;
+            }
+        }
+
+        return ofArray(mapped, size, start);
+    }
+
+    /**
+     * Maps the items to an exactly sized {@code int} array, without boxing.
+     *
+     * @param items  the source items
+     * @param mapper the mapper {@link ToIntFunction}
+     * @param <T>    the source item type
+     * @return a new array of the mapped values in the order of the items
+     */
+    public static <T> int[] mapToInt(List<T> items, ToIntFunction<? super T> mapper) {
+        Objects.requireNonNull(items, "Parameter 'items' must not be null");
+        Objects.requireNonNull(mapper, "Parameter 'mapper' must not be null");
+
+        List<T> source = backingOf(items);
+        int[] mapped = new int[source.size()];
+        int index = 0;
+
+        for (T item : source) {
+            mapped[index++] = mapper.applyAsInt(item);
+        }
+
+        return mapped;
+    }
+
+    /**
+     * Creates an immutable {@link List} of the specified items sorted by the specified {@link Comparator} (stable).
+     * The order is recorded, so {@link List#contains(Object)}, {@link List#indexOf(Object)} and
+     * {@link List#lastIndexOf(Object)} use a binary search, as well as {@link #binarySearch(List, Object)} and
+     * {@link #range(List, Object, Object)}.
+     *
+     * @param items      the items
+     * @param comparator the {@link Comparator}, should be consistent with {@link Object#equals(Object)}
+     * @param <T>        the item type
+     * @return a new instance of a sorted {@link ImmutableList}
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> List<T> sorted(Collection<T> items, Comparator<? super T> comparator) {
+        Objects.requireNonNull(items, "Parameter 'items' must not be null");
+        Objects.requireNonNull(comparator, "Parameter 'comparator' must not be null");
+
+        long start = ImmutableCollectionMetrics.start();
+
+        Object[] array = items.toArray();
+        Arrays.sort(array, (Comparator<Object>) comparator);
+
+        ImmutableCollectionMetrics.constructed(ImmutableList.class, array.length, array.length, start);
+
+        return create(new SortedItems<>(array, 0, array.length, comparator));
+    }
+
+    /**
+     * Creates an immutable {@link List} of the specified items which are sorted by the specified {@link Comparator}
+     * already (checked in O(n)), see {@link #sorted(Collection, Comparator)}
+     *
+     * @param items      the sorted items
+     * @param comparator the {@link Comparator}, should be consistent with {@link Object#equals(Object)}
+     * @param <T>        the item type
+     * @return a new instance of a sorted {@link ImmutableList}
+     * @throws IllegalArgumentException if the items are not sorted
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> List<T> ofSorted(List<T> items, Comparator<? super T> comparator) {
+        Objects.requireNonNull(items, "Parameter 'items' must not be null");
+        Objects.requireNonNull(comparator, "Parameter 'comparator' must not be null");
+
+        long start = ImmutableCollectionMetrics.start();
+
+        Object[] array = items.toArray();
+
+        for (int index = 1; index < array.length; index++) {
+            if (comparator.compare((T) array[index - 1], (T) array[index]) > 0) {
+                throw new IllegalArgumentException(
+                        String.format(
+                                "Parameter 'items' must be sorted, %s is ordered before %s",
+                                array[index - 1], array[index]
+                        )
+                );
+            }
+        }
+
+        ImmutableCollectionMetrics.constructed(ImmutableList.class, array.length, array.length, start);
+
+        return create(new SortedItems<>(array, 0, array.length, comparator));
+    }
+
+    /**
+     * Searches the specified key in a sorted {@link ImmutableList} in O(log n)
+     *
+     * @param sortedList a sorted {@link ImmutableList}, created by {@link #sorted(Collection, Comparator)},
+     *                   {@link #ofSorted(List, Comparator)} or {@link #mergeSorted(Collection, Comparator)}
+     * @param key        the key to be searched, ordered by the recorded {@link Comparator}
+     * @param <T>        the item type
+     * @return the index of an item ordered equally to the key or {@code -(insertion point) - 1}, like
+     * {@link Collections#binarySearch(List, Object, Comparator)}
+     */
+    public static <T> int binarySearch(List<T> sortedList, T key) {
+        return sortedItemsOf(sortedList).binarySearch(key);
+    }
+
+    /**
+     * Provides the items of a sorted {@link ImmutableList} from {@code fromInclusive} (inclusive) to
+     * {@code toExclusive} (exclusive) in O(log n) as a sorted view
+     *
+     * @param sortedList    a sorted {@link ImmutableList}, see {@link #binarySearch(List, Object)}
+     * @param fromInclusive the lower bound
+     * @param toExclusive   the upper bound
+     * @param <T>           the item type
+     * @return a sorted {@link ImmutableList} view
+     */
+    public static <T> List<T> range(List<T> sortedList, T fromInclusive, T toExclusive) {
+        return create(sortedItemsOf(sortedList).range(fromInclusive, toExclusive));
+    }
+
+    /**
+     * Merges lists sorted by the specified {@link Comparator} into one sorted {@link ImmutableList} in O(n log k)
+     * (k-way merge). Equally ordered items keep the order of the lists.
+     *
+     * @param sortedLists the lists, each sorted by the {@link Comparator}
+     * @param comparator  the {@link Comparator}
+     * @param <T>         the item type
+     * @return a new instance of a sorted {@link ImmutableList}
+     * @throws IllegalArgumentException if a list is not sorted
+     */
+    public static <T> List<T> mergeSorted(
+            Collection<? extends List<? extends T>> sortedLists,
+            Comparator<? super T> comparator
+    ) {
+        Objects.requireNonNull(sortedLists, "Parameter 'sortedLists' must not be null");
+        Objects.requireNonNull(comparator, "Parameter 'comparator' must not be null");
+
+        long start = ImmutableCollectionMetrics.start();
+        SortedItems<T> merged = SortedItems.merge(sortedLists, comparator);
+        ImmutableCollectionMetrics.constructed(ImmutableList.class, merged.size(), merged.size(), start);
+
+        return create(merged);
+    }
+
+    /**
+     * Creates an immutable {@link List} of the lines of the specified UTF-8 file, see
+     * {@link #ofLines(Path, Charset, boolean)}
+     *
+     * @param path the file
+     * @return a new instance of an {@link ImmutableList}
+     * @throws IOException if the file cannot be mapped
+     */
+    public static List<String> ofLines(Path path) throws IOException {
+        return ofLines(path, StandardCharsets.UTF_8, false);
+    }
+
+    /**
+     * Creates an immutable {@link List} of the lines of the specified file, see
+     * {@link #ofLines(Path, Charset, boolean)}
+     *
+     * @param path    the file
+     * @param charset the {@link Charset} of the file, must be ASCII compatible (like UTF-8 or ISO-8859-1)
+     * @return a new instance of an {@link ImmutableList}
+     * @throws IOException if the file cannot be mapped
+     */
+    public static List<String> ofLines(Path path, Charset charset) throws IOException {
+        return ofLines(path, charset, false);
+    }
+
+    /**
+     * Creates an immutable {@link List} of the lines of the specified file. The file is memory-mapped and scanned once
+     * for the line offsets, each line is decoded to a {@link String} on access only.
+     * Attention: The file must not be modified while the {@link List} is used. Malformed input is replaced instead of
+     * reported (unlike {@link Files#readAllLines(Path, Charset)}).
+     *
+     * @param path    the file
+     * @param charset the {@link Charset} of the file, must be ASCII compatible (like UTF-8 or ISO-8859-1)
+     * @param cache   {@code true} to keep each decoded line, {@code false} to decode it again on every access
+     * @return a new instance of an {@link ImmutableList}
+     * @throws IOException if the file cannot be mapped
+     */
+    public static List<String> ofLines(Path path, Charset charset, boolean cache) throws IOException {
+        Objects.requireNonNull(path, "Parameter 'path' must not be null");
+        Objects.requireNonNull(charset, "Parameter 'charset' must not be null");
+
+        long start = ImmutableCollectionMetrics.start();
+        List<String> lines = MappedLines.of(path, charset, cache);
+        ImmutableCollectionMetrics.constructed(ImmutableList.class, lines.size(), 0, start);
+
+        return create(lines);
+    }
+
+    /**
+     * Creates an {@link ImmutableList} backed by the specified {@link List} without copying it
+     *
+     * @param list a {@link List} which is never modified
+     */
+    static <T> List<T> view(List<T> list) {
+        return create(list);
+    }
+
+    /**
+     * Provides the backing {@link List} of an {@link ImmutableList} or the specified {@link List} itself
+     */
+    private static <T> List<T> backingOf(List<T> items) {
+        return items instanceof ImmutableList ? ((ImmutableList<T>) items).protectedList : items;
+    }
+
+    private static <T> SortedItems<T> sortedItemsOf(List<T> sortedList) {
+        Objects.requireNonNull(sortedList, "Parameter 'sortedList' must not be null");
+
+        if (sortedList instanceof ImmutableList && ((ImmutableList<T>) sortedList).protectedList instanceof SortedItems) {
+            return (SortedItems<T>) ((ImmutableList<T>) sortedList).protectedList;
+        }
+
+        throw new IllegalArgumentException("Parameter 'sortedList' must be a sorted ImmutableList");
+    }
+
+    /**
+     * Creates an {@link ImmutableList} of the first {@code size} items of the specified array without copying it,
+     * unless more than a quarter of it is unused
+     */
+    private static <T> List<T> ofArray(Object[] items, int size, long start) {
+        if (size == 0) {
+            return empty();
+        }
+
+        Object[] array = size < items.length - (items.length >> 2) ? Arrays.copyOf(items, size) : items;
+        ImmutableCollectionMetrics.constructed(ImmutableList.class, size, size, start);
+
+        return create(new ArrayItems<>(array, size));
+    }
+
+    /**
+     * Creates an {@link ImmutableList} of the specified items, which are copied once: into the compact JDK immutable
+     * {@link List} (Java 9+, no {@code null} items) or, unless the array has been copied already, into a new array
+     *
+     * @param items  the items
+     * @param copied {@code true} if the array is a copy which may be taken over
+     */
+    private static <T> List<T> ofCopy(Object[] items, boolean copied, long start) {
+        List<T> compactList = JdkCollections.compactList(items);
+        int copiedElements = copied ? items.length : 0;
+        List<T> protectedList;
+
+        if (compactList != null) {
+            protectedList = compactList;
+            copiedElements += items.length;
+        } else if (copied) {
+            protectedList = new ArrayItems<>(items, items.length);
+        } else {
+            protectedList = new ArrayItems<>(items.clone(), items.length);
+            copiedElements += items.length;
+        }
+
+        ImmutableCollectionMetrics.constructed(ImmutableList.class, items.length, copiedElements, start);
+
+        return create(protectedList);
+    }
+
+    /**
+     * Provides the items of the specified {@link List} as a {@link List} which never changes
+     */
+    private static <T> List<T> snapshotOf(List<T> items) {
+        if (items instanceof ImmutableList) {
+            return ((ImmutableList<T>) items).protectedList;
+        }
+
+        return ((ImmutableList<T>) of(items)).protectedList;
+    }
+
     /* *****************************************************************************************************************
      * Inner class(es)
      **************************************************************************************************************** */
@@ -292,6 +871,7 @@ public class ImmutableList<E> implements List<E> {
         @Override
         public BinaryOperator<List<T>> combiner() {
             return (left, right) -> {
+                ImmutableCollectionMetrics.combined(ImmutableList.class, left.size(), right.size());
                 left.addAll(right);
                 return left;
             };
@@ -307,4 +887,354 @@ public class ImmutableList<E> implements List<E> {
             return Collections.emptySet();
         }
     }
+
+    private static class DeduplicatingListCollector<T>
+            implements Collector<T, DeduplicatingListCollector.Accumulation<T>, List<T>> {
+
+        private final int capacity;
+
+        private DeduplicatingListCollector(int capacity) {
+            this.capacity = capacity;
+        }
+
+        @Override
+        public Supplier<Accumulation<T>> supplier() {
+            return () -> new Accumulation<>(Deduplicator.of(capacity));
+        }
+
+        @Override
+        public BiConsumer<Accumulation<T>, T> accumulator() {
+            return Accumulation::add;
+        }
+
+        @Override
+        public BinaryOperator<Accumulation<T>> combiner() {
+            return (left, right) -> {
+                ImmutableCollectionMetrics.combined(ImmutableList.class, left.items.size(), right.items.size());
+                right.items.forEach(left::add);
+                return left;
+            };
+        }
+
+        @Override
+        public Function<Accumulation<T>, List<T>> finisher() {
+            return accumulation -> of(accumulation.items);
+        }
+
+        @Override
+        public Set<Characteristics> characteristics() {
+            return Collections.emptySet();
+        }
+
+        private static class Accumulation<T> {
+            private final List<T> items = new ArrayList<>();
+            private final Deduplicator<T> deduplicator;
+
+            private Accumulation(Deduplicator<T> deduplicator) {
+                this.deduplicator = deduplicator;
+            }
+
+            private void add(T item) {
+                items.add(deduplicator.canonical(item));
+            }
+        }
+    }
+
+    /**
+     * An {@link ImmutableList} backed by a large array which builds a {@link ListIndex} once after
+     * {@value #INDEX_LOOKUP_THRESHOLD} lookups. Concurrent first builds race on one CAS, a lost race costs a duplicate
+     * build only.
+     */
+    private static final class IndexedImmutableList<E> extends ImmutableList<E> {
+
+        @SuppressWarnings("rawtypes")
+        private static final AtomicReferenceFieldUpdater<IndexedImmutableList, ListIndex> INDEX =
+                AtomicReferenceFieldUpdater.newUpdater(IndexedImmutableList.class, ListIndex.class, "index");
+
+        /**
+         * Counts the lookups (approximately, increments may get lost between threads) until the index is built
+         */
+        private int lookupCount;
+
+        private volatile ListIndex index;
+
+        private IndexedImmutableList(List<E> protectedList) {
+            super(protectedList);
+        }
+
+        @Override
+        ListIndex indexFor(int lookups) {
+            ListIndex currentIndex = index;
+
+            if (currentIndex != null) {
+                return currentIndex;
+            }
+
+            int count = lookupCount + lookups;
+            lookupCount = count;
+
+            if (count < INDEX_LOOKUP_THRESHOLD) {
+                return null;
+            }
+
+            long start = ImmutableCollectionMetrics.start();
+            ListIndex builtIndex = ListIndex.of(super.protectedList);
+
+            if (INDEX.compareAndSet(this, null, builtIndex)) {
+                ImmutableCollectionMetrics.operated(ImmutableList.class, Operation.INDEX, size(), start);
+                return builtIndex;
+            }
+
+            return index;
+        }
+    }
+
+    private static class ArrayItems<T> extends AbstractList<T> implements RandomAccess {
+        private final Object[] items;
+        private final int size;
+
+        private ArrayItems(Object[] items, int size) {
+            this.items = items;
+            this.size = size;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Index: " + index);
+            }
+
+            return (T) items[index];
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public Object[] toArray() {
+            return Arrays.copyOf(items, size);
+        }
+    }
+
+    private static class MappedList<T, R> extends AbstractList<R> implements RandomAccess {
+        private final List<T> source;
+        private final Function<? super T, ? extends R> mapper;
+
+        private MappedList(List<T> source, Function<? super T, ? extends R> mapper) {
+            this.source = source;
+            this.mapper = mapper;
+        }
+
+        @Override
+        public R get(int index) {
+            return mapper.apply(source.get(index));
+        }
+
+        @Override
+        public int size() {
+            return source.size();
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return source.isEmpty();
+        }
+
+        /**
+         * Iterates the source instead of asking for its size, so a lazy source stays lazy
+         */
+        @Override
+        public Iterator<R> iterator() {
+            Iterator<T> sourceIterator = source.iterator();
+
+            return new Iterator<R>() {
+                @Override
+                public boolean hasNext() {
+                    return sourceIterator.hasNext();
+                }
+
+                @Override
+                public R next() {
+                    return mapper.apply(sourceIterator.next());
+                }
+            };
+        }
+    }
+
+    private static class MemoizedMappedList<T, R> extends AbstractList<R> implements RandomAccess {
+        private static final Object NULL_ITEM = new Object();
+
+        private final List<T> source;
+        private final Function<? super T, ? extends R> mapper;
+
+        /**
+         * Allocated on the first access, so the size of the source is not read on construction
+         */
+        private volatile AtomicReferenceArray<Object> mappedItems;
+
+        private MemoizedMappedList(List<T> source, Function<? super T, ? extends R> mapper) {
+            this.source = source;
+            this.mapper = mapper;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public R get(int index) {
+            AtomicReferenceArray<Object> mappedItems = mappedItems();
+            Object mappedItem = mappedItems.get(index);
+
+            if (mappedItem == null) {
+                R item = mapper.apply(source.get(index));
+
+                if (!mappedItems.compareAndSet(index, null, item == null ? NULL_ITEM : item)) {
+                    return get(index);
+                }
+
+                return item;
+            }
+
+            return mappedItem == NULL_ITEM ? null : (R) mappedItem;
+        }
+
+        @Override
+        public int size() {
+            return source.size();
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return source.isEmpty();
+        }
+
+        private AtomicReferenceArray<Object> mappedItems() {
+            AtomicReferenceArray<Object> items = mappedItems;
+
+            if (items == null) {
+                synchronized (this) {
+                    items = mappedItems;
+
+                    if (items == null) {
+                        items = new AtomicReferenceArray<>(source.size());
+                        mappedItems = items;
+                    }
+                }
+            }
+
+            return items;
+        }
+    }
+
+    /**
+     * Tests the source items on demand, iterating the source instead of asking for its size (so a lazy source stays
+     * lazy). The matching items are appended to {@code matches} under the lock and published via the volatile
+     * {@code matchCount}, so readers never need the lock for materialized items.
+     */
+    private static class FilteredList<T> extends AbstractList<T> {
+        private final List<T> source;
+        private final Predicate<? super T> predicate;
+
+        private volatile Object[] matches = new Object[10];
+        private volatile int matchCount;
+        private volatile boolean exhausted;
+        private Iterator<T> sourceIterator;
+
+        private FilteredList(List<T> source, Predicate<? super T> predicate) {
+            this.source = source;
+            this.predicate = predicate;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T get(int index) {
+            if (index < 0 || !materialize(index + 1)) {
+                throw new IndexOutOfBoundsException("Index: " + index);
+            }
+
+            return (T) matches[index];
+        }
+
+        @Override
+        public int size() {
+            materialize(Integer.MAX_VALUE);
+            return matchCount;
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return !materialize(1);
+        }
+
+        @Override
+        public Iterator<T> iterator() {
+            return new Iterator<T>() {
+                private int cursor;
+
+                @Override
+                public boolean hasNext() {
+                    return materialize(cursor + 1);
+                }
+
+                @Override
+                public T next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+
+                    return get(cursor++);
+                }
+            };
+        }
+
+        /**
+         * Tests source items until the specified number of matches is available
+         *
+         * @return {@code true} if at least {@code count} items match
+         */
+        private boolean materialize(int count) {
+            if (matchCount >= count) {
+                return true;
+            }
+
+            if (exhausted) {
+                return false;
+            }
+
+            synchronized (this) {
+                if (sourceIterator == null) {
+                    sourceIterator = source.iterator();
+                }
+
+                while (matchCount < count) {
+                    if (!sourceIterator.hasNext()) {
+                        exhausted = true;
+                        return false;
+                    }
+
+                    T item = sourceIterator.next();
+
+                    if (predicate.test(item)) {
+                        append(item);
+                    }
+                }
+
+                return true;
+            }
+        }
+
+        private void append(T item) {
+            Object[] currentMatches = matches;
+            int count = matchCount;
+
+            if (count == currentMatches.length) {
+                currentMatches = Arrays.copyOf(currentMatches, count + (count >> 1) + 1);
+            }
+
+            currentMatches[count] = item;
+            matches = currentMatches;
+            matchCount = count + 1;
+        }
+    }
 }
@@ -1,17 +1,20 @@
 package com.github.borisskert;
 
+import com.github.borisskert.ImmutableCollectionMetrics.Operation;
+
 import java.util.*;
 import java.util.function.BiConsumer;
 import java.util.function.BinaryOperator;
 import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.stream.Collector;
-import java.util.stream.Collectors;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Implements an Immutable {@link Map}
- * Attention: Works internal with a {@link HashMap} implementation.
+ * Attention: Works internal with a {@link HashMap} implementation (or a compact insertion-ordered one, see
+ * {@link #ofOrdered(Map)}).
  * https://stackoverflow.com/a/22636750
  *
  * @param <K> the key type
@@ -80,10 +83,7 @@ public class ImmutableMap<K, V> implements Map<K, V> {
 
     @Override
     public Set<Entry<K, V>> entrySet() {
-        return protectedMap.entrySet()
-                .stream()
-                .map(ImmutableEntry::new)
-                .collect(Collectors.toSet());
+        return new EntrySet<>(protectedMap.entrySet());
     }
 
     @Override
@@ -111,17 +111,32 @@ public class ImmutableMap<K, V> implements Map<K, V> {
         if (this == o) return true;
         if (o == null) return false;
 
+        long start = ImmutableCollectionMetrics.start();
+        boolean equals;
+
         if (getClass() == o.getClass()) {
             ImmutableMap<?, ?> that = (ImmutableMap<?, ?>) o;
-            return Objects.equals(protectedMap, that.protectedMap);
+            equals = ParallelComparison.isParallel(size())
+                    ? size() == that.size() && ParallelComparison.mapsEqual(protectedMap, that.protectedMap)
+                    : Objects.equals(protectedMap, that.protectedMap);
+        } else {
+            equals = equalsMap(o);
         }
 
-        return equalsMap(o);
+        ImmutableCollectionMetrics.operated(ImmutableMap.class, Operation.EQUALS, size(), start);
+
+        return equals;
     }
 
     @Override
     public int hashCode() {
-        return protectedMap.hashCode();
+        long start = ImmutableCollectionMetrics.start();
+        int hashCode = ParallelComparison.isParallel(size())
+                ? ParallelComparison.mapHashCode(protectedMap)
+                : protectedMap.hashCode();
+        ImmutableCollectionMetrics.operated(ImmutableMap.class, Operation.HASH_CODE, size(), start);
+
+        return hashCode;
     }
 
     @Override
@@ -159,6 +174,45 @@ public class ImmutableMap<K, V> implements Map<K, V> {
         return true;
     }
 
+    /**
+     * @return the backing map of an {@link ImmutableMap} or the specified {@link Map} itself
+     */
+    private static <K, V> Map<K, V> unwrap(Map<K, V> map) {
+        if (map.getClass() == ImmutableMap.class) {
+            return ((ImmutableMap<K, V>) map).protectedMap;
+        }
+
+        return map;
+    }
+
+    private static <K, V> Map<K, V> wrap(Map<K, V> map) {
+        return map.isEmpty() ? empty() : new ImmutableMap<>(map);
+    }
+
+    /**
+     * Calculates the initial capacity of a {@link HashMap} which holds the specified number of entries without rehashing
+     */
+    private static int capacityFor(int size) {
+        return (int) (size / 0.75f) + 1;
+    }
+
+    private static <T, K, V> void putUnique(
+            Map<K, V> map,
+            T element,
+            Function<? super T, ? extends K> keyMapper,
+            Function<? super T, ? extends V> valueMapper
+    ) {
+        K key = keyMapper.apply(element);
+        V value = Objects.requireNonNull(valueMapper.apply(element), "Values must not be null");
+        V previousValue = map.putIfAbsent(key, value);
+        if (previousValue != null)
+            throw new UnsupportedOperationException(
+                    String.format(
+                            "Duplicate key %s (attempted merging values %s and %s)", key, previousValue, value
+                    )
+            );
+    }
+
     /* *****************************************************************************************************************
      * Factory methods
      **************************************************************************************************************** */
@@ -176,6 +230,8 @@ public class ImmutableMap<K, V> implements Map<K, V> {
 
     /**
      * Creates an immutable {@link Map} with the same entries as the specified {@link Map}.
+     * Maps of at least 65536 entries are built in parallel on the common {@link java.util.concurrent.ForkJoinPool},
+     * partitioned by the hash bits of their keys.
      *
      * @param map the specified {@link Map} which contains the entries.
      * @param <K> the key type
@@ -183,14 +239,56 @@ public class ImmutableMap<K, V> implements Map<K, V> {
      * @return a new instance of an {@link ImmutableMap} containing the same items as the specified {@link Map}
      */
     public static <K, V> Map<K, V> of(Map<K, V> map) {
-        return map.entrySet()
-                .stream()
-                .collect(
-                        collect(
-                                Map.Entry::getKey,
-                                Map.Entry::getValue
-                        )
-                );
+        long start = ImmutableCollectionMetrics.start();
+
+        if (Partitions.isParallel(map.size())) {
+            Map<K, V> partitionedMap = Partitions.mapOf(unwrap(map));
+            ImmutableCollectionMetrics.constructed(ImmutableMap.class, partitionedMap.size(), partitionedMap.size(), start);
+
+            return new ImmutableMap<>(partitionedMap);
+        }
+
+        Map<K, V> protectedMap = new HashMap<>(capacityFor(map.size()));
+
+        for (Entry<K, V> entry : map.entrySet()) {
+            protectedMap.put(entry.getKey(), Objects.requireNonNull(entry.getValue(), "Values must not be null"));
+        }
+
+        ImmutableCollectionMetrics.constructed(ImmutableMap.class, protectedMap.size(), protectedMap.size(), start);
+
+        return new ImmutableMap<>(protectedMap);
+    }
+
+    /**
+     * Creates an immutable {@link Map} with the same entries as the specified {@link Map}, which is safe to be built
+     * from untrusted keys (like header or field names of requests). {@link String} keys are hashed with SipHash-2-4,
+     * other hash codes are mixed, both with a random key per instance. Colliding hash codes of {@link Comparable} keys
+     * are binary searched, so the cost of {@link #get(Object)} stays bounded regardless of the keys.
+     *
+     * @param map the specified {@link Map} which contains the entries, values must not be null
+     * @param <K> the key type
+     * @param <V> the value type
+     * @return a new instance of an {@link ImmutableMap} containing the same items as the specified {@link Map}
+     */
+    public static <K, V> Map<K, V> ofHardened(Map<K, V> map) {
+        Objects.requireNonNull(map, "Parameter 'map' must not be null");
+
+        long start = ImmutableCollectionMetrics.start();
+
+        Object[] keys = new Object[map.size()];
+        Object[] values = new Object[map.size()];
+        int index = 0;
+
+        for (Entry<K, V> entry : map.entrySet()) {
+            keys[index] = entry.getKey();
+            values[index] = Objects.requireNonNull(entry.getValue(), "Values must not be null");
+            index++;
+        }
+
+        HardenedHashTable<K> table = HardenedHashTable.of(keys, values);
+        ImmutableCollectionMetrics.constructed(ImmutableMap.class, table.size(), index, start);
+
+        return new ImmutableMap<>(table.asMap());
     }
 
     /**
@@ -205,6 +303,8 @@ public class ImmutableMap<K, V> implements Map<K, V> {
      */
     @SafeVarargs
     public static <K, V> Map<K, V> of(Map.Entry<K, V> entry, Map.Entry<K, V>... otherEntries) {
+        long start = ImmutableCollectionMetrics.start();
+
         Map<K, V> protectedMap = new HashMap<>();
 
         protectedMap.put(entry.getKey(), entry.getValue());
@@ -215,9 +315,78 @@ public class ImmutableMap<K, V> implements Map<K, V> {
             }
         }
 
+        ImmutableCollectionMetrics.constructed(ImmutableMap.class, protectedMap.size(), protectedMap.size(), start);
+
         return new ImmutableMap<>(protectedMap);
     }
 
+    /**
+     * Creates an immutable {@link Map} with the same entries as the specified {@link Map}, which iterates them in the
+     * iteration order of the specified {@link Map} (like the order of a {@link LinkedHashMap} or a {@link TreeMap}).
+     * The entries are stored in dense arrays in insertion order plus a small hash index, which takes less memory than
+     * a {@link HashMap} or {@link LinkedHashMap} and iterates faster.
+     *
+     * @param map the specified {@link Map} which contains the entries, values must not be null
+     * @param <K> the key type
+     * @param <V> the value type
+     * @return a new instance of an {@link ImmutableMap} containing the same items as the specified {@link Map}
+     */
+    public static <K, V> Map<K, V> ofOrdered(Map<K, V> map) {
+        Objects.requireNonNull(map, "Parameter 'map' must not be null");
+
+        long start = ImmutableCollectionMetrics.start();
+
+        Object[] keys = new Object[map.size()];
+        Object[] values = new Object[map.size()];
+        int count = 0;
+
+        for (Entry<K, V> entry : map.entrySet()) {
+            keys[count] = entry.getKey();
+            values[count] = Objects.requireNonNull(entry.getValue(), "Values must not be null");
+            count++;
+        }
+
+        CompactMap<K, V> compactMap = CompactMap.of(keys, values, count);
+        ImmutableCollectionMetrics.constructed(ImmutableMap.class, compactMap.size(), count, start);
+
+        return new ImmutableMap<>(compactMap);
+    }
+
+    /**
+     * Creates an immutable {@link Map} with the specified entries, which iterates them in the specified order.
+     * The last value of a duplicate key wins at the position of its first occurrence (like {@link LinkedHashMap}).
+     * See {@link #ofOrdered(Map)}.
+     *
+     * @param entry        the first {@link Map.Entry}, which must not be null
+     * @param otherEntries potential further {@link Map.Entry}s to be added
+     * @param <K>          the type of the key
+     * @param <V>          the type of the values
+     * @return a new instance of an {@link ImmutableMap} containing the specified items
+     */
+    @SafeVarargs
+    public static <K, V> Map<K, V> ofOrdered(Map.Entry<K, V> entry, Map.Entry<K, V>... otherEntries) {
+        Objects.requireNonNull(entry, "Parameter 'entry' must not be null");
+
+        long start = ImmutableCollectionMetrics.start();
+
+        int count = otherEntries == null ? 1 : otherEntries.length + 1;
+        Object[] keys = new Object[count];
+        Object[] values = new Object[count];
+
+        keys[0] = entry.getKey();
+        values[0] = Objects.requireNonNull(entry.getValue(), "Values must not be null");
+
+        for (int index = 1; index < count; index++) {
+            keys[index] = otherEntries[index - 1].getKey();
+            values[index] = Objects.requireNonNull(otherEntries[index - 1].getValue(), "Values must not be null");
+        }
+
+        CompactMap<K, V> compactMap = CompactMap.of(keys, values, count);
+        ImmutableCollectionMetrics.constructed(ImmutableMap.class, compactMap.size(), count, start);
+
+        return new ImmutableMap<>(compactMap);
+    }
+
     /**
      * Creates a new immutable {@link java.util.Map.Entry}
      *
@@ -264,10 +433,301 @@ public class ImmutableMap<K, V> implements Map<K, V> {
         return new ImmutableMapCollector<>(keyMapper, valueMapper);
     }
 
+    /**
+     * Creates an immutable {@link Map} of the elements of the specified {@link Stream}, like {@link #collect(Function,
+     * Function)}. A sequential {@link Stream} whose {@link Spliterator} is {@link Spliterator#SIZED} is put into a
+     * {@link HashMap} presized for its exact size. Other streams are collected into an array of the exact size first
+     * (filled in parallel for a parallel {@link Stream}, otherwise buffered in growing chunks), huge parallel streams
+     * are then built in parallel like {@link #of(Map)}.
+     *
+     * @param elements    the {@link Stream} providing the elements, which is consumed
+     * @param keyMapper   the mapper {@link Function} to get the key for each element
+     * @param valueMapper the mapper {@link Function} to get the value for each element
+     * @param <T>         the type of the {@link Stream} elements
+     * @param <K>         the key type
+     * @param <V>         the value type
+     * @return a new instance of an {@link ImmutableMap}
+     * @throws UnsupportedOperationException on duplicate keys
+     */
+    @SuppressWarnings("unchecked")
+    public static <T, K, V> Map<K, V> ofStream(
+            Stream<T> elements,
+            Function<? super T, ? extends K> keyMapper,
+            Function<? super T, ? extends V> valueMapper
+    ) {
+        Objects.requireNonNull(elements, "Parameter 'elements' must not be null");
+        Objects.requireNonNull(keyMapper, "Parameter 'keyMapper' must not be null");
+        Objects.requireNonNull(valueMapper, "Parameter 'valueMapper' must not be null");
+
+        long start = ImmutableCollectionMetrics.start();
+        boolean parallel = elements.isParallel();
+        Spliterator<T> spliterator = elements.spliterator();
+        long exactSize = spliterator.getExactSizeIfKnown();
+        Map<K, V> protectedMap;
+
+        if (!parallel && exactSize >= 0 && exactSize < Integer.MAX_VALUE) {
+            Map<K, V> hashMap = new HashMap<>(capacityFor((int) exactSize));
+            spliterator.forEachRemaining(element -> putUnique(hashMap, element, keyMapper, valueMapper));
+
+            protectedMap = hashMap;
+        } else {
+            Object[] array = StreamSupport.stream(spliterator, parallel).toArray();
+
+            if (parallel && Partitions.isParallel(array.length)) {
+                protectedMap = Partitions.mapOf(array, keyMapper, valueMapper);
+            } else {
+                protectedMap = new HashMap<>(capacityFor(array.length));
+
+                for (Object element : array) {
+                    putUnique(protectedMap, (T) element, keyMapper, valueMapper);
+                }
+            }
+        }
+
+        ImmutableCollectionMetrics.constructed(ImmutableMap.class, protectedMap.size(), protectedMap.size(), start);
+
+        return new ImmutableMap<>(protectedMap);
+    }
+
+    /**
+     * Provides a {@link Collector} to collect {@link Stream}s to a {@link Map}, equal values share one instance, see
+     * {@link #collectDeduplicated(Function, Function, int)}
+     *
+     * @param keyMapper   the mapper {@link Function} to get the key for each element
+     * @param valueMapper the mapper {@link Function} to get the value for each element
+     * @param <T>         the type of the {@link Stream} elements
+     * @param <K>         the key type
+     * @param <V>         the value type
+     * @return a new {@link Collector} instance
+     */
+    public static <T, K, V> Collector<T, ?, Map<K, V>> collectDeduplicated(
+            Function<? super T, ? extends K> keyMapper,
+            Function<? super T, ? extends V> valueMapper
+    ) {
+        return collectDeduplicated(keyMapper, valueMapper, Deduplicator.DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Provides a {@link Collector} to collect {@link Stream}s to a {@link Map}, equal values share one instance.
+     * Values are canonicalized on accumulation by a bounded table of the last seen distinct values, so repeated
+     * strings or small value objects are retained once (as long as their slot in the table has not been taken over).
+     *
+     * @param keyMapper   the mapper {@link Function} to get the key for each element
+     * @param valueMapper the mapper {@link Function} to get the value for each element
+     * @param capacity    the maximum number of remembered distinct values of each accumulation
+     * @param <T>         the type of the {@link Stream} elements
+     * @param <K>         the key type
+     * @param <V>         the value type
+     * @return a new {@link Collector} instance
+     */
+    public static <T, K, V> Collector<T, ?, Map<K, V>> collectDeduplicated(
+            Function<? super T, ? extends K> keyMapper,
+            Function<? super T, ? extends V> valueMapper,
+            int capacity
+    ) {
+        Objects.requireNonNull(keyMapper, "Parameter 'keyMapper' must not be null");
+        Objects.requireNonNull(valueMapper, "Parameter 'valueMapper' must not be null");
+        Deduplicator.checkCapacity(capacity);
+
+        return new DeduplicatingMapCollector<>(keyMapper, valueMapper, capacity);
+    }
+
+    /**
+     * Provides a {@link Collector} to collect {@link Stream}s to a {@link Map} which iterates its entries in encounter
+     * order, see {@link #ofOrdered(Map)}
+     *
+     * @param keyMapper   the mapper {@link Function} to get the key for each element
+     * @param valueMapper the mapper {@link Function} to get the value for each element
+     * @param <T>         the type of the {@link Stream} elements
+     * @param <K>         the key type
+     * @param <V>         the value type
+     * @return a new {@link Collector} instance
+     */
+    public static <T, K, V> Collector<T, ?, Map<K, V>> collectOrdered(
+            Function<? super T, ? extends K> keyMapper,
+            Function<? super T, ? extends V> valueMapper
+    ) {
+        Objects.requireNonNull(keyMapper, "Parameter 'keyMapper' must not be null");
+        Objects.requireNonNull(valueMapper, "Parameter 'valueMapper' must not be null");
+
+        return new OrderedMapCollector<>(keyMapper, valueMapper);
+    }
+
+    /**
+     * Merges two {@link Map}s into an immutable {@link Map}. Returns an existing instance if one of them is empty or
+     * both are the same.
+     *
+     * @param map      the first {@link Map}, values must not be null
+     * @param other    the second {@link Map}, values must not be null
+     * @param resolver resolves the value of a key contained in both maps, a {@code null} result removes the key
+     * @param <K>      the key type
+     * @param <V>      the value type
+     * @return an immutable {@link Map} containing the entries of both {@link Map}s
+     */
+    public static <K, V> Map<K, V> merge(Map<K, V> map, Map<K, V> other, BinaryOperator<V> resolver) {
+        Objects.requireNonNull(map, "Parameter 'map' must not be null");
+        Objects.requireNonNull(other, "Parameter 'other' must not be null");
+
+        return merge(Arrays.asList(map, other), resolver);
+    }
+
+    /**
+     * Merges the specified {@link Map}s (in their order) into an immutable {@link Map}. Copies each entry once into a
+     * presized {@link HashMap}. Returns an existing instance if at most one of them is not empty or all are the same.
+     *
+     * @param maps     the {@link Map}s to be merged, values must not be null
+     * @param resolver resolves the value of a key contained in several maps, a {@code null} result removes the key
+     * @param <K>      the key type
+     * @param <V>      the value type
+     * @return an immutable {@link Map} containing the entries of all {@link Map}s
+     */
+    public static <K, V> Map<K, V> merge(Collection<? extends Map<K, V>> maps, BinaryOperator<V> resolver) {
+        Objects.requireNonNull(maps, "Parameter 'maps' must not be null");
+        Objects.requireNonNull(resolver, "Parameter 'resolver' must not be null");
+
+        Map<K, V> single = null;
+        boolean same = true;
+        int size = 0;
+
+        for (Map<K, V> map : maps) {
+            if (!map.isEmpty()) {
+                same = same && (single == null || unwrap(single) == unwrap(map));
+                single = single == null ? map : single;
+                size += map.size();
+            }
+        }
+
+        if (single == null) {
+            return empty();
+        }
+
+        if (same) {
+            return single.getClass() == ImmutableMap.class ? single : of(single);
+        }
+
+        long start = ImmutableCollectionMetrics.start();
+        Map<K, V> protectedMap = new HashMap<>(capacityFor(size));
+
+        for (Map<K, V> map : maps) {
+            for (Entry<K, V> entry : unwrap(map).entrySet()) {
+                protectedMap.merge(entry.getKey(), Objects.requireNonNull(entry.getValue(), "Values must not be null"), resolver);
+            }
+        }
+
+        ImmutableCollectionMetrics.constructed(ImmutableMap.class, protectedMap.size(), size, start);
+
+        return new ImmutableMap<>(protectedMap);
+    }
+
+    /**
+     * Compares two {@link Map}s without materializing their entry sets. Iterates the backing maps of
+     * {@link ImmutableMap}s directly and returns early if both are the same instance.
+     *
+     * @param oldMap the old {@link Map}
+     * @param newMap the new {@link Map}
+     * @param <K>    the key type
+     * @param <V>    the value type
+     * @return the {@link Difference} of both maps
+     */
+    public static <K, V> Difference<K, V> diff(Map<K, V> oldMap, Map<K, V> newMap) {
+        Objects.requireNonNull(oldMap, "Parameter 'oldMap' must not be null");
+        Objects.requireNonNull(newMap, "Parameter 'newMap' must not be null");
+
+        Map<K, V> oldEntries = unwrap(oldMap);
+        Map<K, V> newEntries = unwrap(newMap);
+
+        if (oldEntries == newEntries) {
+            return Difference.none();
+        }
+
+        Map<K, V> removed = new HashMap<>();
+        Map<K, Entry<V, V>> changed = new HashMap<>();
+
+        for (Entry<K, V> entry : oldEntries.entrySet()) {
+            K key = entry.getKey();
+            V oldValue = entry.getValue();
+            V newValue = newEntries.get(key);
+
+            if (newValue == null && !newEntries.containsKey(key)) {
+                removed.put(key, oldValue);
+            } else if (!Objects.equals(oldValue, newValue)) {
+                changed.put(key, new AbstractMap.SimpleImmutableEntry<>(oldValue, newValue));
+            }
+        }
+
+        Map<K, V> added = new HashMap<>();
+
+        if (newEntries.size() != oldEntries.size() - removed.size()) {
+            for (Entry<K, V> entry : newEntries.entrySet()) {
+                if (!oldEntries.containsKey(entry.getKey())) {
+                    added.put(entry.getKey(), entry.getValue());
+                }
+            }
+        }
+
+        return new Difference<>(wrap(added), wrap(removed), wrap(changed));
+    }
+
+    /**
+     * Copies the specified {@link Map} into a new {@link HashMap}, reading the backing map of an {@link ImmutableMap}
+     * directly
+     */
+    static <K, V> HashMap<K, V> mutableCopy(Map<K, V> map) {
+        return new HashMap<>(unwrap(map));
+    }
+
+    /**
+     * Creates an {@link ImmutableMap} backed by the specified {@link Map} without copying it
+     *
+     * @param map a {@link Map} which is never modified
+     */
+    static <K, V> Map<K, V> view(Map<K, V> map) {
+        return new ImmutableMap<>(map);
+    }
+
     /* *****************************************************************************************************************
      * Inner class(es)
      **************************************************************************************************************** */
 
+    /**
+     * Unmodifiable view of the entries of the backing {@link Map}, which keeps their iteration order and wraps each
+     * {@link java.util.Map.Entry} into an {@link ImmutableEntry} while iterating
+     */
+    private static class EntrySet<K, V> extends AbstractSet<Map.Entry<K, V>> {
+        private final Set<Map.Entry<K, V>> entries;
+
+        private EntrySet(Set<Map.Entry<K, V>> entries) {
+            this.entries = entries;
+        }
+
+        @Override
+        public Iterator<Map.Entry<K, V>> iterator() {
+            Iterator<Map.Entry<K, V>> iterator = entries.iterator();
+
+            return new Iterator<Map.Entry<K, V>>() {
+                @Override
+                public boolean hasNext() {
+                    return iterator.hasNext();
+                }
+
+                @Override
+                public Map.Entry<K, V> next() {
+                    return new ImmutableEntry<>(iterator.next());
+                }
+            };
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return entries.contains(o);
+        }
+
+        @Override
+        public int size() {
+            return entries.size();
+        }
+    }
+
     private static class ImmutableEntry<K, V> implements Map.Entry<K, V> {
         private final Map.Entry<K, V> entry;
 
@@ -318,6 +778,66 @@ public class ImmutableMap<K, V> implements Map<K, V> {
         }
     }
 
+    /**
+     * The result of {@link #diff(Map, Map)}: the added, removed and changed entries as immutable {@link Map}s
+     *
+     * @param <K> the key type
+     * @param <V> the value type
+     */
+    public static final class Difference<K, V> {
+
+        @SuppressWarnings("rawtypes")
+        private static final Difference NONE = new Difference<>(empty(), empty(), empty());
+
+        private final Map<K, V> added;
+        private final Map<K, V> removed;
+        private final Map<K, Entry<V, V>> changed;
+
+        private Difference(Map<K, V> added, Map<K, V> removed, Map<K, Entry<V, V>> changed) {
+            this.added = added;
+            this.removed = removed;
+            this.changed = changed;
+        }
+
+        /**
+         * @return the entries only contained in the new map
+         */
+        public Map<K, V> added() {
+            return added;
+        }
+
+        /**
+         * @return the entries only contained in the old map
+         */
+        public Map<K, V> removed() {
+            return removed;
+        }
+
+        /**
+         * @return each key contained in both maps with different values to an entry of the old and the new value
+         */
+        public Map<K, Entry<V, V>> changed() {
+            return changed;
+        }
+
+        /**
+         * @return {@code true} if both maps are equal
+         */
+        public boolean isEmpty() {
+            return added.isEmpty() && removed.isEmpty() && changed.isEmpty();
+        }
+
+        @Override
+        public String toString() {
+            return "added=" + added + ", removed=" + removed + ", changed=" + changed;
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <K, V> Difference<K, V> none() {
+            return NONE;
+        }
+    }
+
     private static class ImmutableMapCollector<T, K, V> implements Collector<T, Map<K, V>, Map<K, V>> {
 
         private final Function<? super T, ? extends K> keyMapper;
@@ -351,6 +871,7 @@ public class ImmutableMap<K, V> implements Map<K, V> {
         @Override
         public BinaryOperator<Map<K, V>> combiner() {
             return (map, otherMap) -> {
+                ImmutableCollectionMetrics.combined(ImmutableMap.class, map.size(), otherMap.size());
                 for (Map.Entry<K, V> entry : otherMap.entrySet()) {
                     K key = entry.getKey();
                     V value = Objects.requireNonNull(entry.getValue());
@@ -367,12 +888,164 @@ public class ImmutableMap<K, V> implements Map<K, V> {
 
         @Override
         public Function<Map<K, V>, Map<K, V>> finisher() {
-            return ImmutableMap::new;
+            return map -> {
+                ImmutableCollectionMetrics.constructed(ImmutableMap.class, map.size(), 0, 0L);
+                return new ImmutableMap<>(map);
+            };
+        }
+
+        @Override
+        public Set<Characteristics> characteristics() {
+            return Collections.emptySet();
+        }
+    }
+
+    private static class DeduplicatingMapCollector<T, K, V>
+            implements Collector<T, DeduplicatingMapCollector.Accumulation<K, V>, Map<K, V>> {
+
+        private final Function<? super T, ? extends K> keyMapper;
+        private final Function<? super T, ? extends V> valueMapper;
+        private final int capacity;
+
+        private DeduplicatingMapCollector(
+                Function<? super T, ? extends K> keyMapper,
+                Function<? super T, ? extends V> valueMapper,
+                int capacity
+        ) {
+            this.keyMapper = keyMapper;
+            this.valueMapper = valueMapper;
+            this.capacity = capacity;
+        }
+
+        @Override
+        public Supplier<Accumulation<K, V>> supplier() {
+            return () -> new Accumulation<>(Deduplicator.of(capacity));
+        }
+
+        @Override
+        public BiConsumer<Accumulation<K, V>, T> accumulator() {
+            return (accumulation, element) -> accumulation.put(keyMapper.apply(element), valueMapper.apply(element));
+        }
+
+        @Override
+        public BinaryOperator<Accumulation<K, V>> combiner() {
+            return (left, right) -> {
+                ImmutableCollectionMetrics.combined(ImmutableMap.class, left.map.size(), right.map.size());
+                right.map.forEach(left::put);
+                return left;
+            };
+        }
+
+        @Override
+        public Function<Accumulation<K, V>, Map<K, V>> finisher() {
+            return accumulation -> {
+                ImmutableCollectionMetrics.constructed(ImmutableMap.class, accumulation.map.size(), 0, 0L);
+                return new ImmutableMap<>(accumulation.map);
+            };
+        }
+
+        @Override
+        public Set<Characteristics> characteristics() {
+            return Collections.emptySet();
+        }
+
+        private static class Accumulation<K, V> {
+            private final Map<K, V> map = new HashMap<>();
+            private final Deduplicator<V> deduplicator;
+
+            private Accumulation(Deduplicator<V> deduplicator) {
+                this.deduplicator = deduplicator;
+            }
+
+            private void put(K key, V value) {
+                V canonicalValue = deduplicator.canonical(Objects.requireNonNull(value, "Values must not be null"));
+                V previousValue = map.putIfAbsent(key, canonicalValue);
+                if (previousValue != null)
+                    throw new UnsupportedOperationException(
+                            String.format(
+                                    "Duplicate key %s (attempted merging values %s and %s)", key, previousValue, value
+                            )
+                    );
+            }
+        }
+    }
+
+    /**
+     * Accumulates the entries in arrays in encounter order, the duplicate keys are rejected when the
+     * {@link CompactMap} is built by the finisher
+     */
+    private static class OrderedMapCollector<T, K, V>
+            implements Collector<T, OrderedMapCollector.Accumulation, Map<K, V>> {
+
+        private final Function<? super T, ? extends K> keyMapper;
+        private final Function<? super T, ? extends V> valueMapper;
+
+        private OrderedMapCollector(
+                Function<? super T, ? extends K> keyMapper,
+                Function<? super T, ? extends V> valueMapper
+        ) {
+            this.keyMapper = keyMapper;
+            this.valueMapper = valueMapper;
+        }
+
+        @Override
+        public Supplier<Accumulation> supplier() {
+            return Accumulation::new;
+        }
+
+        @Override
+        public BiConsumer<Accumulation, T> accumulator() {
+            return (accumulation, element) -> accumulation.add(
+                    keyMapper.apply(element),
+                    Objects.requireNonNull(valueMapper.apply(element), "Values must not be null")
+            );
+        }
+
+        @Override
+        public BinaryOperator<Accumulation> combiner() {
+            return (left, right) -> {
+                ImmutableCollectionMetrics.combined(ImmutableMap.class, left.count, right.count);
+
+                for (int index = 0; index < right.count; index++) {
+                    left.add(right.keys[index], right.values[index]);
+                }
+
+                return left;
+            };
+        }
+
+        @Override
+        public Function<Accumulation, Map<K, V>> finisher() {
+            return accumulation -> {
+                CompactMap<K, V> compactMap = CompactMap.ofUnique(
+                        accumulation.keys, accumulation.values, accumulation.count
+                );
+                ImmutableCollectionMetrics.constructed(ImmutableMap.class, compactMap.size(), 0, 0L);
+
+                return new ImmutableMap<>(compactMap);
+            };
         }
 
         @Override
         public Set<Characteristics> characteristics() {
             return Collections.emptySet();
         }
+
+        private static class Accumulation {
+            private Object[] keys = new Object[8];
+            private Object[] values = new Object[8];
+            private int count;
+
+            private void add(Object key, Object value) {
+                if (count == keys.length) {
+                    keys = Arrays.copyOf(keys, count * 2);
+                    values = Arrays.copyOf(values, count * 2);
+                }
+
+                keys[count] = key;
+                values[count] = value;
+                count++;
+            }
+        }
     }
 }
@@ -0,0 +1,337 @@
+package com.github.borisskert;
+
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Publishes immutable snapshots of a read-mostly {@link Map} to lock-free readers.
+ * Attention: Works internal with a volatile {@link ImmutableMap} and a queue of pending updates. A writer enqueues its
+ * update and tries to become the combiner (one {@link AtomicBoolean} CAS), the combiner copies the current snapshot
+ * once, applies all pending updates and publishes the new snapshot. So a burst of concurrent writes costs one copy
+ * instead of one copy (plus retries) per write. Each writer returns after its update has been published. A failing
+ * update is rolled back, so none of its changes are published.
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ */
+public final class ImmutableMapReference<K, V> {
+
+    /* *****************************************************************************************************************
+     * Fields
+     **************************************************************************************************************** */
+
+    private volatile Map<K, V> snapshot;
+
+    private final Queue<Update<K, V>> pendingUpdates = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean combining = new AtomicBoolean();
+
+    /* *****************************************************************************************************************
+     * Constructor(s)
+     **************************************************************************************************************** */
+
+    public ImmutableMapReference() {
+        this.snapshot = ImmutableMap.empty();
+    }
+
+    /**
+     * @param map the initial entries, values must not be null
+     */
+    public ImmutableMapReference(Map<K, V> map) {
+        Objects.requireNonNull(map, "Parameter 'map' must not be null");
+        this.snapshot = map.getClass() == ImmutableMap.class ? map : ImmutableMap.of(map);
+    }
+
+    /* *****************************************************************************************************************
+     * Public methods
+     **************************************************************************************************************** */
+
+    /**
+     * Provides the current snapshot (wait-free, a single volatile read)
+     *
+     * @return the current immutable {@link Map}
+     */
+    public Map<K, V> snapshot() {
+        return snapshot;
+    }
+
+    public void put(K key, V value) {
+        Objects.requireNonNull(value, "Parameter 'value' must not be null");
+        update(map -> map.put(key, value));
+    }
+
+    public void putAll(Map<? extends K, ? extends V> entries) {
+        Objects.requireNonNull(entries, "Parameter 'entries' must not be null");
+
+        for (V value : entries.values()) {
+            Objects.requireNonNull(value, "Values must not be null");
+        }
+
+        update(map -> map.putAll(entries));
+    }
+
+    public void remove(Object key) {
+        update(map -> map.remove(key));
+    }
+
+    /**
+     * Applies the specified mutation to a copy of the current snapshot (together with the concurrently pending
+     * updates) and publishes the result. Blocks until it has been published.
+     *
+     * @param mutation modifies the specified {@link Map}, must not put null values (throws a
+     *                 {@link NullPointerException}). If it throws, the changes it made before are rolled back and the
+     *                 exception is rethrown in the calling thread.
+     */
+    public void update(Consumer<? super Map<K, V>> mutation) {
+        Objects.requireNonNull(mutation, "Parameter 'mutation' must not be null");
+
+        Update<K, V> update = new Update<>(mutation);
+        pendingUpdates.add(update);
+
+        while (!update.done) {
+            if (combining.compareAndSet(false, true)) {
+                try {
+                    combine();
+                } finally {
+                    combining.set(false);
+                }
+            } else {
+                Thread.yield();
+            }
+        }
+
+        Throwable failure = update.failure;
+
+        if (failure instanceof RuntimeException) {
+            throw (RuntimeException) failure;
+        }
+
+        if (failure instanceof Error) {
+            throw (Error) failure;
+        }
+
+        if (failure != null) {
+            throw new UndeclaredThrowableException(failure);
+        }
+    }
+
+    /* *****************************************************************************************************************
+     * Private methods
+     **************************************************************************************************************** */
+
+    /**
+     * Drains the pending updates into one copy of the snapshot, called by the combiner only. The drained updates are
+     * always marked as done, if the combining itself fails its failure is the failure of all of them.
+     */
+    private void combine() {
+        Update<K, V> update = pendingUpdates.poll();
+
+        if (update == null) {
+            return;
+        }
+
+        List<Update<K, V>> drainedUpdates = new ArrayList<>();
+        drainedUpdates.add(update);
+
+        try {
+            long start = ImmutableCollectionMetrics.start();
+            HashMap<K, V> map = ImmutableMap.mutableCopy(snapshot);
+            JournaledMap<K, V> journaledMap = new JournaledMap<>(map);
+            int copiedElements = map.size();
+
+            while (update != null) {
+                update.apply(journaledMap);
+                update = pendingUpdates.poll();
+
+                if (update != null) {
+                    drainedUpdates.add(update);
+                }
+            }
+
+            snapshot = ImmutableMap.view(map);
+            ImmutableCollectionMetrics.constructed(ImmutableMap.class, map.size(), copiedElements, start);
+        } catch (Throwable e) {
+            for (Update<K, V> drainedUpdate : drainedUpdates) {
+                if (drainedUpdate.failure == null) {
+                    drainedUpdate.failure = e;
+                }
+            }
+        } finally {
+            for (Update<K, V> drainedUpdate : drainedUpdates) {
+                drainedUpdate.done = true;
+            }
+        }
+    }
+
+    /* *****************************************************************************************************************
+     * Inner class(es)
+     **************************************************************************************************************** */
+
+    private static final class Update<K, V> {
+        private final Consumer<? super Map<K, V>> mutation;
+
+        private Throwable failure;
+        private volatile boolean done;
+
+        private Update(Consumer<? super Map<K, V>> mutation) {
+            this.mutation = mutation;
+        }
+
+        private void apply(JournaledMap<K, V> map) {
+            try {
+                mutation.accept(map);
+                map.commit();
+            } catch (Throwable e) {
+                map.rollback();
+                failure = e;
+            }
+        }
+    }
+
+    /**
+     * Modifies the copy of the snapshot and remembers the original value of each key changed by the current mutation,
+     * so a failing mutation can be rolled back without copying the map per mutation. Rejects null values.
+     */
+    private static final class JournaledMap<K, V> extends AbstractMap<K, V> {
+        private static final Object ABSENT = new Object();
+
+        private final Map<K, V> map;
+        private final Map<K, Object> originalValues = new HashMap<>();
+
+        private JournaledMap(Map<K, V> map) {
+            this.map = map;
+        }
+
+        @Override
+        public int size() {
+            return map.size();
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return map.containsKey(key);
+        }
+
+        @Override
+        public boolean containsValue(Object value) {
+            return map.containsValue(value);
+        }
+
+        @Override
+        public V get(Object key) {
+            return map.get(key);
+        }
+
+        @Override
+        public V put(K key, V value) {
+            Objects.requireNonNull(value, "Values must not be null");
+            record(key);
+            return map.put(key, value);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public V remove(Object key) {
+            if (!map.containsKey(key)) {
+                return null;
+            }
+
+            record((K) key);
+            return map.remove(key);
+        }
+
+        @Override
+        public void clear() {
+            for (K key : map.keySet()) {
+                record(key);
+            }
+
+            map.clear();
+        }
+
+        @Override
+        public Set<Entry<K, V>> entrySet() {
+            return new AbstractSet<Entry<K, V>>() {
+                @Override
+                public Iterator<Entry<K, V>> iterator() {
+                    Iterator<Entry<K, V>> iterator = map.entrySet().iterator();
+
+                    return new Iterator<Entry<K, V>>() {
+                        private Entry<K, V> current;
+
+                        @Override
+                        public boolean hasNext() {
+                            return iterator.hasNext();
+                        }
+
+                        @Override
+                        public Entry<K, V> next() {
+                            Entry<K, V> entry = iterator.next();
+                            current = entry;
+
+                            return new SimpleEntry<K, V>(entry) {
+                                @Override
+                                public V setValue(V value) {
+                                    Objects.requireNonNull(value, "Values must not be null");
+                                    record(entry.getKey());
+                                    entry.setValue(value);
+                                    return super.setValue(value);
+                                }
+                            };
+                        }
+
+                        @Override
+                        public void remove() {
+                            if (current != null) {
+                                record(current.getKey());
+                            }
+
+                            iterator.remove();
+                            current = null;
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return map.size();
+                }
+            };
+        }
+
+        private void record(K key) {
+            if (!originalValues.containsKey(key)) {
+                V originalValue = map.get(key);
+                originalValues.put(key, originalValue != null ? originalValue : ABSENT);
+            }
+        }
+
+        private void commit() {
+            originalValues.clear();
+        }
+
+        @SuppressWarnings("unchecked")
+        private void rollback() {
+            for (Entry<K, Object> originalValue : originalValues.entrySet()) {
+                if (originalValue.getValue() == ABSENT) {
+                    map.remove(originalValue.getKey());
+                } else {
+                    map.put(originalValue.getKey(), (V) originalValue.getValue());
+                }
+            }
+
+            originalValues.clear();
+        }
+    }
+}
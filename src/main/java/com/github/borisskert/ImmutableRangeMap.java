@@ -0,0 +1,314 @@
+package com.github.borisskert;
+
+import java.util.*;
+import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collector;
+import java.util.stream.Stream;
+
+/**
+ * Implements an immutable mapping from disjoint {@link Range}s to values.
+ * Attention: Works internal with parallel sorted arrays of lower bounds, upper bounds and values. Connected
+ * (overlapping or adjacent) ranges with equal values are merged during construction, overlapping ranges with different
+ * values are rejected. Lookups take O(log n) without any allocation, {@link #subRangeMap(Range)} is a view.
+ *
+ * @param <C> the type of the range bounds
+ * @param <V> the value type
+ */
+public class ImmutableRangeMap<C extends Comparable<? super C>, V> {
+
+    /* *****************************************************************************************************************
+     * Constants
+     **************************************************************************************************************** */
+
+    @SuppressWarnings("unchecked")
+    private static final ImmutableRangeMap EMPTY_IMMUTABLE_RANGE_MAP = new ImmutableRangeMap<>(SortedRanges.EMPTY);
+
+    /* *****************************************************************************************************************
+     * Readonly fields
+     **************************************************************************************************************** */
+
+    private final SortedRanges<C> ranges;
+
+    /* *****************************************************************************************************************
+     * Constructor(s)
+     **************************************************************************************************************** */
+
+    private ImmutableRangeMap(SortedRanges<C> ranges) {
+        this.ranges = ranges;
+    }
+
+    /* *****************************************************************************************************************
+     * Public methods
+     **************************************************************************************************************** */
+
+    /**
+     * @return the number of disjoint ranges
+     */
+    public int size() {
+        return ranges.size();
+    }
+
+    public boolean isEmpty() {
+        return ranges.size() == 0;
+    }
+
+    /**
+     * @param key the value to be looked up
+     * @return the value of the range containing the specified key or {@code null}
+     */
+    public V get(C key) {
+        int index = ranges.indexOf(key);
+        return index < 0 ? null : ranges.valueAt(index);
+    }
+
+    /**
+     * @param key the value to be looked up
+     * @return the range containing the specified key and its value or {@code null}
+     */
+    public Map.Entry<Range<C>, V> getEntry(C key) {
+        int index = ranges.indexOf(key);
+        return index < 0 ? null : entryAt(index);
+    }
+
+    /**
+     * @return an immutable {@link Map} view of each range to its value, ordered by the range bounds
+     */
+    public Map<Range<C>, V> asMapOfRanges() {
+        return ImmutableMap.view(new RangeMap());
+    }
+
+    /**
+     * Provides the intersection with the specified {@link Range} in O(log n), the first and the last range are clipped
+     *
+     * @param range the {@link Range} to intersect with
+     * @return an {@link ImmutableRangeMap} view
+     */
+    public ImmutableRangeMap<C, V> subRangeMap(Range<C> range) {
+        Objects.requireNonNull(range, "Parameter 'range' must not be null");
+        return new ImmutableRangeMap<>(ranges.slice(range));
+    }
+
+    /* *****************************************************************************************************************
+     * Overrides of Object
+     **************************************************************************************************************** */
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null) return false;
+        if (getClass() != o.getClass()) return false;
+
+        ImmutableRangeMap<?, ?> that = (ImmutableRangeMap<?, ?>) o;
+        if (size() != that.size())
+            return false;
+
+        for (int index = 0; index < size(); index++) {
+            if (!entryAt(index).equals(that.entryAt(index)))
+                return false;
+        }
+
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        return asMapOfRanges().hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return asMapOfRanges().toString();
+    }
+
+    /* *****************************************************************************************************************
+     * Private methods
+     **************************************************************************************************************** */
+
+    private Map.Entry<Range<C>, V> entryAt(int index) {
+        return new AbstractMap.SimpleImmutableEntry<>(ranges.rangeAt(index), ranges.valueAt(index));
+    }
+
+    /* *****************************************************************************************************************
+     * Factory methods
+     **************************************************************************************************************** */
+
+    /**
+     * Returns an empty instance of an {@link ImmutableRangeMap}
+     *
+     * @param <C> the type of the range bounds
+     * @param <V> the value type
+     * @return an empty instance (not a new one)
+     */
+    @SuppressWarnings("unchecked")
+    public static <C extends Comparable<? super C>, V> ImmutableRangeMap<C, V> empty() {
+        return EMPTY_IMMUTABLE_RANGE_MAP;
+    }
+
+    /**
+     * Creates an {@link ImmutableRangeMap} of the specified ranges and values
+     *
+     * @param map the specified {@link Map} of ranges to values, values must not be null
+     * @param <C> the type of the range bounds
+     * @param <V> the value type
+     * @return a new instance of an {@link ImmutableRangeMap}
+     */
+    public static <C extends Comparable<? super C>, V> ImmutableRangeMap<C, V> of(Map<Range<C>, ? extends V> map) {
+        Objects.requireNonNull(map, "Parameter 'map' must not be null");
+
+        List<Map.Entry<Range<C>, Object>> entries = new ArrayList<>(map.size());
+
+        for (Map.Entry<Range<C>, ? extends V> entry : map.entrySet()) {
+            add(entries, entry.getKey(), entry.getValue());
+        }
+
+        return build(entries);
+    }
+
+    /**
+     * Provides a {@link Collector} to collect {@link Stream}s to an {@link ImmutableRangeMap}
+     *
+     * @param rangeMapper the mapper {@link Function} to get the {@link Range} for each element
+     * @param valueMapper the mapper {@link Function} to get the value for each element
+     * @param <T>         the type of the {@link Stream} elements
+     * @param <C>         the type of the range bounds
+     * @param <V>         the value type
+     * @return a new {@link Collector} instance
+     */
+    public static <T, C extends Comparable<? super C>, V> Collector<T, ?, ImmutableRangeMap<C, V>> collect(
+            Function<? super T, Range<C>> rangeMapper,
+            Function<? super T, ? extends V> valueMapper
+    ) {
+        return new ImmutableRangeMapCollector<>(rangeMapper, valueMapper);
+    }
+
+    private static <C extends Comparable<? super C>> void add(
+            List<Map.Entry<Range<C>, Object>> entries,
+            Range<C> range,
+            Object value
+    ) {
+        entries.add(new AbstractMap.SimpleImmutableEntry<>(
+                Objects.requireNonNull(range, "Ranges must not be null"),
+                Objects.requireNonNull(value, "Values must not be null")
+        ));
+    }
+
+    private static <C extends Comparable<? super C>, V> ImmutableRangeMap<C, V> build(
+            List<Map.Entry<Range<C>, Object>> entries
+    ) {
+        long start = ImmutableCollectionMetrics.start();
+        SortedRanges<C> ranges = SortedRanges.of(entries, true);
+        ImmutableCollectionMetrics.constructed(ImmutableRangeMap.class, ranges.size(), entries.size(), start);
+
+        return new ImmutableRangeMap<>(ranges);
+    }
+
+    /* *****************************************************************************************************************
+     * Inner class(es)
+     **************************************************************************************************************** */
+
+    private final class RangeMap extends AbstractMap<Range<C>, V> {
+        @Override
+        public V get(Object key) {
+            if (!(key instanceof Range)) {
+                return null;
+            }
+
+            @SuppressWarnings("unchecked")
+            Range<C> range = (Range<C>) key;
+            int index;
+
+            try {
+                index = ranges.indexOf(range.lower());
+            } catch (ClassCastException e) {
+                return null;
+            }
+
+            return index >= 0 && ranges.rangeAt(index).equals(range) ? ranges.valueAt(index) : null;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return get(key) != null;
+        }
+
+        @Override
+        public int size() {
+            return ranges.size();
+        }
+
+        @Override
+        public Set<Entry<Range<C>, V>> entrySet() {
+            return new AbstractSet<Entry<Range<C>, V>>() {
+                @Override
+                public Iterator<Entry<Range<C>, V>> iterator() {
+                    return new Iterator<Entry<Range<C>, V>>() {
+                        private int index;
+
+                        @Override
+                        public boolean hasNext() {
+                            return index < ranges.size();
+                        }
+
+                        @Override
+                        public Entry<Range<C>, V> next() {
+                            if (!hasNext()) {
+                                throw new NoSuchElementException();
+                            }
+
+                            return entryAt(index++);
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return ranges.size();
+                }
+            };
+        }
+    }
+
+    private static class ImmutableRangeMapCollector<T, C extends Comparable<? super C>, V>
+            implements Collector<T, List<Map.Entry<Range<C>, Object>>, ImmutableRangeMap<C, V>> {
+
+        private final Function<? super T, Range<C>> rangeMapper;
+        private final Function<? super T, ? extends V> valueMapper;
+
+        private ImmutableRangeMapCollector(Function<? super T, Range<C>> rangeMapper, Function<? super T, ? extends V> valueMapper) {
+            this.rangeMapper = rangeMapper;
+            this.valueMapper = valueMapper;
+        }
+
+        @Override
+        public Supplier<List<Map.Entry<Range<C>, Object>>> supplier() {
+            return ArrayList::new;
+        }
+
+        @Override
+        public BiConsumer<List<Map.Entry<Range<C>, Object>>, T> accumulator() {
+            return (entries, element) -> add(entries, rangeMapper.apply(element), valueMapper.apply(element));
+        }
+
+        @Override
+        public BinaryOperator<List<Map.Entry<Range<C>, Object>>> combiner() {
+            return (entries, otherEntries) -> {
+                ImmutableCollectionMetrics.combined(ImmutableRangeMap.class, entries.size(), otherEntries.size());
+                entries.addAll(otherEntries);
+                return entries;
+            };
+        }
+
+        @Override
+        public Function<List<Map.Entry<Range<C>, Object>>, ImmutableRangeMap<C, V>> finisher() {
+            return ImmutableRangeMap::build;
+        }
+
+        @Override
+        public Set<Characteristics> characteristics() {
+            return Collections.emptySet();
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package com.github.borisskert;
+
+import java.util.*;
+import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collector;
+import java.util.stream.Stream;
+
+/**
+ * Implements an immutable set of values given as disjoint {@link Range}s.
+ * Attention: Works internal with parallel sorted arrays of lower and upper bounds. Connected (overlapping or adjacent)
+ * ranges are merged during construction. Lookups take O(log n) without any allocation,
+ * {@link #subRangeSet(Range)} is a view.
+ *
+ * @param <C> the type of the values
+ */
+public class ImmutableRangeSet<C extends Comparable<? super C>> {
+
+    /* *****************************************************************************************************************
+     * Constants
+     **************************************************************************************************************** */
+
+    @SuppressWarnings("unchecked")
+    private static final ImmutableRangeSet EMPTY_IMMUTABLE_RANGE_SET = new ImmutableRangeSet<>(SortedRanges.EMPTY);
+
+    /* *****************************************************************************************************************
+     * Readonly fields
+     **************************************************************************************************************** */
+
+    private final SortedRanges<C> ranges;
+
+    /* *****************************************************************************************************************
+     * Constructor(s)
+     **************************************************************************************************************** */
+
+    private ImmutableRangeSet(SortedRanges<C> ranges) {
+        this.ranges = ranges;
+    }
+
+    /* *****************************************************************************************************************
+     * Public methods
+     **************************************************************************************************************** */
+
+    /**
+     * @return the number of disjoint ranges
+     */
+    public int size() {
+        return ranges.size();
+    }
+
+    public boolean isEmpty() {
+        return ranges.size() == 0;
+    }
+
+    public boolean contains(C value) {
+        return ranges.indexOf(value) >= 0;
+    }
+
+    /**
+     * @param value the value
+     * @return the {@link Range} containing the specified value or {@code null}
+     */
+    public Range<C> rangeContaining(C value) {
+        int index = ranges.indexOf(value);
+        return index < 0 ? null : ranges.rangeAt(index);
+    }
+
+    /**
+     * @return an immutable {@link List} of the disjoint ranges, ordered by their bounds
+     */
+    public List<Range<C>> asRanges() {
+        return ImmutableList.view(new RangeList());
+    }
+
+    /**
+     * Provides the intersection with the specified {@link Range} in O(log n), the first and the last range are clipped
+     *
+     * @param range the {@link Range} to intersect with
+     * @return an {@link ImmutableRangeSet} view
+     */
+    public ImmutableRangeSet<C> subRangeSet(Range<C> range) {
+        Objects.requireNonNull(range, "Parameter 'range' must not be null");
+        return new ImmutableRangeSet<>(ranges.slice(range));
+    }
+
+    /* *****************************************************************************************************************
+     * Overrides of Object
+     **************************************************************************************************************** */
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null) return false;
+        if (getClass() != o.getClass()) return false;
+
+        ImmutableRangeSet<?> that = (ImmutableRangeSet<?>) o;
+        return asRanges().equals(that.asRanges());
+    }
+
+    @Override
+    public int hashCode() {
+        return asRanges().hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return new RangeList().toString();
+    }
+
+    /* *****************************************************************************************************************
+     * Factory methods
+     **************************************************************************************************************** */
+
+    /**
+     * Returns an empty instance of an {@link ImmutableRangeSet}
+     *
+     * @param <C> the type of the values
+     * @return an empty instance (not a new one)
+     */
+    @SuppressWarnings("unchecked")
+    public static <C extends Comparable<? super C>> ImmutableRangeSet<C> empty() {
+        return EMPTY_IMMUTABLE_RANGE_SET;
+    }
+
+    /**
+     * Creates an {@link ImmutableRangeSet} of the specified ranges, connected ranges are merged
+     *
+     * @param ranges the ranges, must not contain null
+     * @param <C>    the type of the values
+     * @return a new instance of an {@link ImmutableRangeSet}
+     */
+    public static <C extends Comparable<? super C>> ImmutableRangeSet<C> of(Collection<Range<C>> ranges) {
+        Objects.requireNonNull(ranges, "Parameter 'ranges' must not be null");
+
+        List<Map.Entry<Range<C>, Object>> entries = new ArrayList<>(ranges.size());
+
+        for (Range<C> range : ranges) {
+            entries.add(new AbstractMap.SimpleImmutableEntry<>(
+                    Objects.requireNonNull(range, "Ranges must not be null"), null
+            ));
+        }
+
+        return build(entries);
+    }
+
+    /**
+     * Provides a {@link Collector} to collect {@link Stream}s of {@link Range}s to an {@link ImmutableRangeSet}
+     *
+     * @param <C> the type of the values
+     * @return a new {@link Collector} instance
+     */
+    public static <C extends Comparable<? super C>> Collector<Range<C>, ?, ImmutableRangeSet<C>> collect() {
+        return new ImmutableRangeSetCollector<>();
+    }
+
+    private static <C extends Comparable<? super C>> ImmutableRangeSet<C> build(List<Map.Entry<Range<C>, Object>> entries) {
+        long start = ImmutableCollectionMetrics.start();
+        SortedRanges<C> ranges = SortedRanges.of(entries, false);
+        ImmutableCollectionMetrics.constructed(ImmutableRangeSet.class, ranges.size(), entries.size(), start);
+
+        return new ImmutableRangeSet<>(ranges);
+    }
+
+    /* *****************************************************************************************************************
+     * Inner class(es)
+     **************************************************************************************************************** */
+
+    private final class RangeList extends AbstractList<Range<C>> implements RandomAccess {
+        @Override
+        public Range<C> get(int index) {
+            if (index < 0 || index >= ranges.size()) {
+                throw new IndexOutOfBoundsException("Index: " + index);
+            }
+
+            return ranges.rangeAt(index);
+        }
+
+        @Override
+        public int size() {
+            return ranges.size();
+        }
+    }
+
+    private static class ImmutableRangeSetCollector<C extends Comparable<? super C>>
+            implements Collector<Range<C>, List<Map.Entry<Range<C>, Object>>, ImmutableRangeSet<C>> {
+
+        @Override
+        public Supplier<List<Map.Entry<Range<C>, Object>>> supplier() {
+            return ArrayList::new;
+        }
+
+        @Override
+        public BiConsumer<List<Map.Entry<Range<C>, Object>>, Range<C>> accumulator() {
+            return (entries, range) -> entries.add(new AbstractMap.SimpleImmutableEntry<>(
+                    Objects.requireNonNull(range, "Ranges must not be null"), null
+            ));
+        }
+
+        @Override
+        public BinaryOperator<List<Map.Entry<Range<C>, Object>>> combiner() {
+            return (entries, otherEntries) -> {
+                ImmutableCollectionMetrics.combined(ImmutableRangeSet.class, entries.size(), otherEntries.size());
+                entries.addAll(otherEntries);
+                return entries;
+            };
+        }
+
+        @Override
+        public Function<List<Map.Entry<Range<C>, Object>>, ImmutableRangeSet<C>> finisher() {
+            return ImmutableRangeSet::build;
+        }
+
+        @Override
+        public Set<Characteristics> characteristics() {
+            return Collections.emptySet();
+        }
+    }
+}
@@ -1,12 +1,17 @@
 package com.github.borisskert;
 
+import com.github.borisskert.ImmutableCollectionMetrics.Operation;
+
 import java.util.*;
 import java.util.function.BiConsumer;
 import java.util.function.BinaryOperator;
 import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
 import java.util.stream.Collector;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Implements an unmodifiable {@link Set}
@@ -72,7 +77,11 @@ public class ImmutableSet<E> implements Set<E> {
 
     @Override
     public boolean containsAll(Collection<?> c) {
-        return protectedSet.containsAll(c);
+        long start = ImmutableCollectionMetrics.start();
+        boolean containsAll = protectedSet.containsAll(c);
+        ImmutableCollectionMetrics.operated(ImmutableSet.class, Operation.CONTAINS_ALL, size(), start);
+
+        return containsAll;
     }
 
     @Override
@@ -116,11 +125,11 @@ public class ImmutableSet<E> implements Set<E> {
 
         if (getClass() == o.getClass()) {
             ImmutableSet<?> that = (ImmutableSet<?>) o;
-            return protectedSet.equals(that.protectedSet);
+            return equalsSet(that.protectedSet, true);
         }
 
         if (o instanceof Set) {
-            return protectedSet.equals(o);
+            return equalsSet(o, false);
         }
 
         return false;
@@ -128,7 +137,13 @@ public class ImmutableSet<E> implements Set<E> {
 
     @Override
     public int hashCode() {
-        return protectedSet.hashCode();
+        long start = ImmutableCollectionMetrics.start();
+        int hashCode = ParallelComparison.isParallel(size())
+                ? ParallelComparison.setHashCode(protectedSet)
+                : protectedSet.hashCode();
+        ImmutableCollectionMetrics.operated(ImmutableSet.class, Operation.HASH_CODE, size(), start);
+
+        return hashCode;
     }
 
     @Override
@@ -136,6 +151,64 @@ public class ImmutableSet<E> implements Set<E> {
         return protectedSet.toString();
     }
 
+    /* *****************************************************************************************************************
+     * Private methods
+     **************************************************************************************************************** */
+
+    /**
+     * @param immutable {@code true} if the other {@link Set} is the backing {@link Set} of an {@link ImmutableSet},
+     *                  only then huge sets are compared in parallel
+     */
+    private boolean equalsSet(Object otherSet, boolean immutable) {
+        long start = ImmutableCollectionMetrics.start();
+        boolean equals = immutable && ParallelComparison.isParallel(size())
+                ? size() == ((Set<?>) otherSet).size() && ParallelComparison.setsEqual(protectedSet, (Set<?>) otherSet)
+                : protectedSet.equals(otherSet);
+        ImmutableCollectionMetrics.operated(ImmutableSet.class, Operation.EQUALS, size(), start);
+
+        return equals;
+    }
+
+    /**
+     * Provides the backing {@link Set} of an {@link ImmutableSet} or the specified {@link Set} itself
+     */
+    private static <T> Set<T> backingOf(Set<T> items) {
+        return items instanceof ImmutableSet ? ((ImmutableSet<T>) items).protectedSet : items;
+    }
+
+    private static <T> Set<T> ofHashSet(Set<T> hashSet, int copiedElements, long start) {
+        if (hashSet.isEmpty()) {
+            return empty();
+        }
+
+        ImmutableCollectionMetrics.constructed(ImmutableSet.class, hashSet.size(), copiedElements, start);
+
+        return new ImmutableSet<>(hashSet);
+    }
+
+    /**
+     * Like {@link #ofHashSet(Set, int, long)}, but copies the specified {@link HashSet} into an exactly sized one if
+     * more than a quarter of the items it has been presized for are missing (dropped duplicates or filtered items), so
+     * the immutable result does not keep a table sized for the source
+     */
+    private static <T> Set<T> ofPresizedHashSet(Set<T> hashSet, int presizedFor, int copiedElements, long start) {
+        if (hashSet.isEmpty() || hashSet.size() >= presizedFor - (presizedFor >> 2)) {
+            return ofHashSet(hashSet, copiedElements, start);
+        }
+
+        Set<T> trimmedSet = new HashSet<>(capacityFor(hashSet.size()));
+        trimmedSet.addAll(hashSet);
+
+        return ofHashSet(trimmedSet, copiedElements + hashSet.size(), start);
+    }
+
+    /**
+     * Calculates the initial capacity of a {@link HashSet} which holds the specified number of items without rehashing
+     */
+    private static int capacityFor(int size) {
+        return (int) (size / 0.75f) + 1;
+    }
+
     /* *****************************************************************************************************************
      * Factory methods
      **************************************************************************************************************** */
@@ -162,10 +235,14 @@ public class ImmutableSet<E> implements Set<E> {
     public static <T> Set<T> of(T item, final T... others) {
         Objects.requireNonNull(item, "Parameter 'item' must not be null");
 
+        long start = ImmutableCollectionMetrics.start();
+
         Set<T> hashSet = new HashSet<>(others.length + 1);
         hashSet.add(item);
         Collections.addAll(hashSet, others);
 
+        ImmutableCollectionMetrics.constructed(ImmutableSet.class, hashSet.size(), others.length + 1, start);
+
         return new ImmutableSet<>(hashSet);
     }
 
@@ -177,26 +254,68 @@ public class ImmutableSet<E> implements Set<E> {
      * @return a new instance of an {@link Set} containing the specified items
      */
     public static <T> Set<T> of(T[] items) {
+        long start = ImmutableCollectionMetrics.start();
+
         HashSet<T> hashSet = new HashSet<>(items.length);
         hashSet.addAll(Arrays.asList(items));
 
+        ImmutableCollectionMetrics.constructed(ImmutableSet.class, hashSet.size(), items.length, start);
+
         return new ImmutableSet<>(hashSet);
     }
 
     /**
-     * Creates an immutable {@link Set} containing the items of the specified {@link Collection}
+     * Creates an immutable {@link Set} containing the items of the specified {@link Collection}.
+     * Collections of at least 65536 items are built in parallel on the common
+     * {@link java.util.concurrent.ForkJoinPool}, partitioned by the hash bits of their items.
      *
      * @param items the specified {@link Collection}
      * @param <T>   the item type
      * @return a new instance of an {@link Set} containing the specified items
      */
     public static <T> Set<T> of(Collection<T> items) {
+        long start = ImmutableCollectionMetrics.start();
+
+        if (Partitions.isParallel(items.size())) {
+            Collection<T> source = items instanceof ImmutableSet ? ((ImmutableSet<T>) items).protectedSet : items;
+            Set<T> partitionedSet = Partitions.setOf(source);
+            ImmutableCollectionMetrics.constructed(ImmutableSet.class, partitionedSet.size(), items.size(), start);
+
+            return new ImmutableSet<>(partitionedSet);
+        }
+
         HashSet<T> hashSet = new HashSet<>(items.size());
         hashSet.addAll(items);
 
+        ImmutableCollectionMetrics.constructed(ImmutableSet.class, hashSet.size(), items.size(), start);
+
         return new ImmutableSet<>(hashSet);
     }
 
+    /**
+     * Creates an immutable {@link Set} containing the items of the specified {@link Collection}, which is safe to be
+     * built from untrusted items (like header or field names of requests). {@link String} items are hashed with
+     * SipHash-2-4, other hash codes are mixed, both with a random key per instance. Colliding hash codes of
+     * {@link Comparable} items are binary searched, so the cost of {@link #contains(Object)} stays bounded regardless
+     * of the items.
+     *
+     * @param items the specified {@link Collection}
+     * @param <T>   the item type
+     * @return a new instance of an {@link Set} containing the specified items
+     */
+    public static <T> Set<T> ofHardened(Collection<T> items) {
+        Objects.requireNonNull(items, "Parameter 'items' must not be null");
+
+        long start = ImmutableCollectionMetrics.start();
+
+        Object[] array = items.toArray();
+        HardenedHashTable<T> table = HardenedHashTable.of(array, null);
+
+        ImmutableCollectionMetrics.constructed(ImmutableSet.class, table.size(), array.length, start);
+
+        return new ImmutableSet<>(table.asSet());
+    }
+
     /**
      * Creates an immutable {@link Set} containing the items of the specified {@link Iterator}
      *
@@ -205,13 +324,19 @@ public class ImmutableSet<E> implements Set<E> {
      * @return a new instance of an {@link Set} containing the specified items
      */
     public static <T> Set<T> of(Iterator<T> items) {
+        long start = ImmutableCollectionMetrics.start();
+
         HashSet<T> hashSet = new HashSet<>();
+        int copiedElements = 0;
 
         while (items.hasNext()) {
             T item = items.next();
             hashSet.add(item);
+            copiedElements++;
         }
 
+        ImmutableCollectionMetrics.constructed(ImmutableSet.class, hashSet.size(), copiedElements, start);
+
         return new ImmutableSet<>(hashSet);
     }
 
@@ -223,15 +348,66 @@ public class ImmutableSet<E> implements Set<E> {
      * @return a new instance of an {@link Set} containing the specified items
      */
     public static <T> Set<T> of(Iterable<T> items) {
+        long start = ImmutableCollectionMetrics.start();
+
         HashSet<T> hashSet = new HashSet<>();
+        int copiedElements = 0;
 
         for (T item : items) {
             hashSet.add(item);
+            copiedElements++;
         }
 
+        ImmutableCollectionMetrics.constructed(ImmutableSet.class, hashSet.size(), copiedElements, start);
+
         return new ImmutableSet<>(hashSet);
     }
 
+    /**
+     * Creates an immutable {@link Set} containing the items of the specified {@link Stream}. A sequential
+     * {@link Stream} whose {@link Spliterator} is {@link Spliterator#SIZED} is put into a {@link HashSet} presized
+     * for its exact size. Other streams are collected into an array of the exact size first (filled in parallel for
+     * a parallel {@link Stream}, otherwise buffered in growing chunks), huge parallel streams are then built in
+     * parallel like {@link #of(Collection)}.
+     *
+     * @param items the {@link Stream} providing the items, which is consumed
+     * @param <T>   the item type
+     * @return a new instance of an {@link Set} containing the specified items
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> Set<T> ofStream(Stream<T> items) {
+        Objects.requireNonNull(items, "Parameter 'items' must not be null");
+
+        long start = ImmutableCollectionMetrics.start();
+        boolean parallel = items.isParallel();
+        Spliterator<T> spliterator = items.spliterator();
+        long exactSize = spliterator.getExactSizeIfKnown();
+
+        if (!parallel && exactSize >= 0 && exactSize < Integer.MAX_VALUE) {
+            HashSet<T> hashSet = new HashSet<>(capacityFor((int) exactSize));
+            spliterator.forEachRemaining(hashSet::add);
+
+            return ofHashSet(hashSet, (int) exactSize, start);
+        }
+
+        Object[] array = StreamSupport.stream(spliterator, parallel).toArray();
+
+        if (parallel && Partitions.isParallel(array.length)) {
+            Set<T> partitionedSet = Partitions.setOf(array);
+            ImmutableCollectionMetrics.constructed(ImmutableSet.class, partitionedSet.size(), array.length, start);
+
+            return new ImmutableSet<>(partitionedSet);
+        }
+
+        HashSet<T> hashSet = new HashSet<>(capacityFor(array.length));
+
+        for (Object item : array) {
+            hashSet.add((T) item);
+        }
+
+        return ofHashSet(hashSet, array.length, start);
+    }
+
     /**
      * Provides a {@link Collector} to collect {@link Stream}s to a {@link Set}
      *
@@ -242,6 +418,129 @@ public class ImmutableSet<E> implements Set<E> {
         return new ImmutableSetCollector<>();
     }
 
+    /**
+     * Creates an immutable {@link Set} of the mapped items. Loops over the items directly into a presized
+     * {@link HashSet}, without a {@link Stream} pipeline and without a final copy.
+     *
+     * @param items  the source items
+     * @param mapper the mapper {@link Function}
+     * @param <T>    the source item type
+     * @param <R>    the item type of the result
+     * @return a new instance of an {@link ImmutableSet}
+     */
+    public static <T, R> Set<R> map(Set<T> items, Function<? super T, ? extends R> mapper) {
+        Objects.requireNonNull(items, "Parameter 'items' must not be null");
+        Objects.requireNonNull(mapper, "Parameter 'mapper' must not be null");
+
+        long start = ImmutableCollectionMetrics.start();
+
+        Set<T> source = backingOf(items);
+        Set<R> mapped = new HashSet<>(capacityFor(source.size()));
+
+        for (T item : source) {
+            mapped.add(mapper.apply(item));
+        }
+
+        return ofPresizedHashSet(mapped, source.size(), source.size(), start);
+    }
+
+    /**
+     * Creates an immutable {@link Set} of the items matching the specified {@link Predicate}. Loops over the items
+     * directly into a {@link HashSet} presized for all items, which is trimmed if far fewer items match.
+     *
+     * @param items     the source items
+     * @param predicate the filter {@link Predicate}
+     * @param <T>       the item type
+     * @return a new instance of an {@link ImmutableSet}
+     */
+    public static <T> Set<T> filter(Set<T> items, Predicate<? super T> predicate) {
+        Objects.requireNonNull(items, "Parameter 'items' must not be null");
+        Objects.requireNonNull(predicate, "Parameter 'predicate' must not be null");
+
+        long start = ImmutableCollectionMetrics.start();
+
+        Set<T> source = backingOf(items);
+        Set<T> matches = new HashSet<>(capacityFor(source.size()));
+
+        for (T item : source) {
+            if (predicate.test(item)) {
+                matches.add(item);
+            }
+        }
+
+        return ofPresizedHashSet(matches, source.size(), matches.size(), start);
+    }
+
+    /**
+     * Creates an immutable {@link Set} of the items of all mapped {@link Collection}s. The mapper is applied once per
+     * item, the mapped items are added to a {@link HashSet} presized for all of them.
+     *
+     * @param items  the source items
+     * @param mapper the mapper {@link Function} to get the {@link Collection} of each item
+     * @param <T>    the source item type
+     * @param <R>    the item type of the result
+     * @return a new instance of an {@link ImmutableSet}
+     */
+    public static <T, R> Set<R> flatMap(Set<T> items, Function<? super T, ? extends Collection<? extends R>> mapper) {
+        Objects.requireNonNull(items, "Parameter 'items' must not be null");
+        Objects.requireNonNull(mapper, "Parameter 'mapper' must not be null");
+
+        long start = ImmutableCollectionMetrics.start();
+
+        Set<T> source = backingOf(items);
+        Collection<?>[] collections = new Collection[source.size()];
+        int collectionCount = 0;
+        int totalSize = 0;
+
+        for (T item : source) {
+            Collection<? extends R> collection = mapper.apply(item);
+            collections[collectionCount++] = collection;
+            totalSize = Math.addExact(totalSize, collection.size());
+        }
+
+        Set<R> mapped = new HashSet<>(capacityFor(totalSize));
+
+        for (int index = 0; index < collectionCount; index++) {
+            @SuppressWarnings("unchecked")
+            Collection<? extends R> collection = (Collection<? extends R>) collections[index];
+            mapped.addAll(collection);
+        }
+
+        return ofPresizedHashSet(mapped, totalSize, totalSize, start);
+    }
+
+    /**
+     * Maps the items to an exactly sized {@code int} array, without boxing.
+     *
+     * @param items  the source items
+     * @param mapper the mapper {@link ToIntFunction}
+     * @param <T>    the source item type
+     * @return a new array of the mapped values in the iteration order of the items
+     */
+    public static <T> int[] mapToInt(Set<T> items, ToIntFunction<? super T> mapper) {
+        Objects.requireNonNull(items, "Parameter 'items' must not be null");
+        Objects.requireNonNull(mapper, "Parameter 'mapper' must not be null");
+
+        Set<T> source = backingOf(items);
+        int[] mapped = new int[source.size()];
+        int index = 0;
+
+        for (T item : source) {
+            mapped[index++] = mapper.applyAsInt(item);
+        }
+
+        return mapped;
+    }
+
+    /**
+     * Creates an {@link ImmutableSet} backed by the specified {@link Set} without copying it
+     *
+     * @param set a {@link Set} which is never modified
+     */
+    static <T> Set<T> view(Set<T> set) {
+        return new ImmutableSet<>(set);
+    }
+
     /* *****************************************************************************************************************
      * Inner class(es)
      **************************************************************************************************************** */
@@ -260,6 +559,7 @@ public class ImmutableSet<E> implements Set<E> {
         @Override
         public BinaryOperator<Set<T>> combiner() {
             return (left, right) -> {
+                ImmutableCollectionMetrics.combined(ImmutableSet.class, left.size(), right.size());
                 left.addAll(right);
                 return left;
             };
@@ -0,0 +1,195 @@
+package com.github.borisskert;
+
+import java.util.*;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.stream.Collector;
+import java.util.stream.Stream;
+
+/**
+ * Implements an immutable one-to-many mapping from keys to {@link Set}s of distinct values.
+ * Attention: Works internal with a compressed sparse row layout (one key table, one {@code int[]} of offsets and one
+ * flat array of all values) instead of one {@link Set} per key. Keys and the values of each key keep the order of
+ * their first occurrence. {@link Set#contains(Object)} of a value {@link Set} looks the value up in one hash table
+ * over all values in O(1).
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ */
+public class ImmutableSetMultimap<K, V> {
+
+    /* *****************************************************************************************************************
+     * Constants
+     **************************************************************************************************************** */
+
+    @SuppressWarnings("unchecked")
+    private static final ImmutableSetMultimap EMPTY_IMMUTABLE_SET_MULTIMAP = new ImmutableSetMultimap<>(
+            CompressedSparseRows.EMPTY
+    );
+
+    /* *****************************************************************************************************************
+     * Readonly fields
+     **************************************************************************************************************** */
+
+    private final CompressedSparseRows<K, V> rows;
+
+    /* *****************************************************************************************************************
+     * Constructor(s)
+     **************************************************************************************************************** */
+
+    private ImmutableSetMultimap(CompressedSparseRows<K, V> rows) {
+        this.rows = rows;
+    }
+
+    /* *****************************************************************************************************************
+     * Public methods
+     **************************************************************************************************************** */
+
+    /**
+     * @return the number of values of all keys
+     */
+    public int size() {
+        return rows.valueCount();
+    }
+
+    public boolean isEmpty() {
+        return rows.valueCount() == 0;
+    }
+
+    public boolean containsKey(Object key) {
+        return rows.indexOf(key) >= 0;
+    }
+
+    public boolean containsEntry(Object key, Object value) {
+        return get(key).contains(value);
+    }
+
+    /**
+     * Provides the values of the specified key in O(1) as a view of the flat value array
+     *
+     * @param key the key
+     * @return an immutable {@link Set} of the values, empty if the key is not contained
+     */
+    public Set<V> get(Object key) {
+        int index = rows.indexOf(key);
+
+        if (index < 0) {
+            return ImmutableSet.empty();
+        }
+
+        return ImmutableSet.view(rows.distinctValuesAt(index));
+    }
+
+    /**
+     * @return an immutable {@link Set} of all keys
+     */
+    public Set<K> keySet() {
+        return ImmutableSet.view(rows.keySet());
+    }
+
+    /**
+     * @return an immutable {@link List} of the values of all keys (grouped by key)
+     */
+    public List<V> values() {
+        return ImmutableList.view(rows.values());
+    }
+
+    /**
+     * Performs the specified action for each key and its values
+     *
+     * @param action the action to be performed
+     */
+    public void forEach(BiConsumer<? super K, ? super Set<V>> action) {
+        for (int index = 0; index < rows.keyCount(); index++) {
+            action.accept(rows.keyAt(index), ImmutableSet.view(rows.distinctValuesAt(index)));
+        }
+    }
+
+    /* *****************************************************************************************************************
+     * Overrides of Object
+     **************************************************************************************************************** */
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null) return false;
+        if (getClass() != o.getClass()) return false;
+
+        ImmutableSetMultimap<?, ?> that = (ImmutableSetMultimap<?, ?>) o;
+        return rows.equals(that.rows);
+    }
+
+    /**
+     * Same hash code as a {@link Map} of each key to the {@link Set} of its values
+     */
+    @Override
+    public int hashCode() {
+        return rows.hashCode();
+    }
+
+    /**
+     * Same representation as a {@link Map} of each key to the {@link Set} of its values
+     */
+    @Override
+    public String toString() {
+        return rows.toString();
+    }
+
+    /* *****************************************************************************************************************
+     * Factory methods
+     **************************************************************************************************************** */
+
+    /**
+     * Returns an empty instance of an {@link ImmutableSetMultimap}
+     *
+     * @param <K> the key type
+     * @param <V> the value type
+     * @return an empty instance (not a new one)
+     */
+    @SuppressWarnings("unchecked")
+    public static <K, V> ImmutableSetMultimap<K, V> empty() {
+        return EMPTY_IMMUTABLE_SET_MULTIMAP;
+    }
+
+    /**
+     * Creates an {@link ImmutableSetMultimap} containing the distinct values of each key of the specified {@link Map}
+     *
+     * @param map the specified {@link Map}, keys and values must not be null
+     * @param <K> the key type
+     * @param <V> the value type
+     * @return a new instance of an {@link ImmutableSetMultimap}
+     */
+    public static <K, V> ImmutableSetMultimap<K, V> of(Map<K, ? extends Collection<? extends V>> map) {
+        Objects.requireNonNull(map, "Parameter 'map' must not be null");
+
+        return build(new CompressedSparseRows.Builder<K, V>().addAll(map));
+    }
+
+    /**
+     * Provides a {@link Collector} to group {@link Stream}s to an {@link ImmutableSetMultimap}. Collects in two
+     * passes without any intermediate per-key {@link Set}, duplicate values of a key are dropped.
+     *
+     * @param keyMapper   the mapper {@link Function} to get the key for each element
+     * @param valueMapper the mapper {@link Function} to get the value for each element
+     * @param <T>         the type of the {@link Stream} elements
+     * @param <K>         the key type
+     * @param <V>         the value type
+     * @return a new {@link Collector} instance
+     */
+    public static <T, K, V> Collector<T, ?, ImmutableSetMultimap<K, V>> collect(
+            Function<? super T, ? extends K> keyMapper,
+            Function<? super T, ? extends V> valueMapper
+    ) {
+        return CompressedSparseRows.<T, K, V, ImmutableSetMultimap<K, V>>collect(
+                keyMapper, valueMapper, ImmutableSetMultimap.class, ImmutableSetMultimap::build
+        );
+    }
+
+    private static <K, V> ImmutableSetMultimap<K, V> build(CompressedSparseRows.Builder<K, V> builder) {
+        long start = ImmutableCollectionMetrics.start();
+        CompressedSparseRows<K, V> rows = builder.build(true);
+        ImmutableCollectionMetrics.constructed(ImmutableSetMultimap.class, rows.valueCount(), rows.valueCount(), start);
+
+        return new ImmutableSetMultimap<>(rows);
+    }
+}
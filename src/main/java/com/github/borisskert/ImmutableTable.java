@@ -0,0 +1,647 @@
+package com.github.borisskert;
+
+import java.util.*;
+import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collector;
+import java.util.stream.Stream;
+
+/**
+ * Implements an immutable two-dimensional mapping from a row key and a column key to a value.
+ * Attention: Works internal with one {@link KeyIndex} for the row keys and one for the column keys. The cells are
+ * stored in a flat array of {@code rows * columns} values if at least a third of them is occupied, otherwise in a
+ * sorted array of cell ids (looked up by binary search) and a parallel array of values. So {@link #get(Object, Object)}
+ * costs two index lookups and one array load instead of two {@link Map} lookups. Row and column keys keep the order of
+ * their first occurrence.
+ *
+ * @param <R> the row key type
+ * @param <C> the column key type
+ * @param <V> the value type
+ */
+public class ImmutableTable<R, C, V> {
+
+    /* *****************************************************************************************************************
+     * Constants
+     **************************************************************************************************************** */
+
+    /**
+     * Dense tables need at least one occupied cell in {@value} cells
+     */
+    private static final int DENSE_FILL_FACTOR = 3;
+
+    /**
+     * Some VMs reserve header words in an array
+     */
+    private static final int MAX_DENSE_CELLS = Integer.MAX_VALUE - 8;
+
+    @SuppressWarnings("unchecked")
+    private static final ImmutableTable EMPTY_IMMUTABLE_TABLE = new ImmutableTable<>(
+            new KeyIndex<>(0), new KeyIndex<>(0), new Object[0], null, new int[0], new int[0]
+    );
+
+    /* *****************************************************************************************************************
+     * Readonly fields
+     **************************************************************************************************************** */
+
+    private final KeyIndex<R> rowKeys;
+    private final KeyIndex<C> columnKeys;
+
+    /**
+     * The values of all cells (dense layout) or the values of the occupied cells in the order of {@link #cellIds}
+     */
+    private final Object[] values;
+
+    /**
+     * The sorted ids ({@code row * columns + column}) of the occupied cells, {@code null} for the dense layout
+     */
+    private final long[] cellIds;
+
+    private final int[] rowSizes;
+    private final int[] columnSizes;
+    private final int size;
+
+    /* *****************************************************************************************************************
+     * Constructor(s)
+     **************************************************************************************************************** */
+
+    private ImmutableTable(
+            KeyIndex<R> rowKeys,
+            KeyIndex<C> columnKeys,
+            Object[] values,
+            long[] cellIds,
+            int[] rowSizes,
+            int[] columnSizes
+    ) {
+        this.rowKeys = rowKeys;
+        this.columnKeys = columnKeys;
+        this.values = values;
+        this.cellIds = cellIds;
+        this.rowSizes = rowSizes;
+        this.columnSizes = columnSizes;
+        this.size = Arrays.stream(rowSizes).sum();
+    }
+
+    /* *****************************************************************************************************************
+     * Public methods
+     **************************************************************************************************************** */
+
+    /**
+     * @return the number of occupied cells
+     */
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Provides the value of the specified cell
+     *
+     * @param rowKey    the row key
+     * @param columnKey the column key
+     * @return the value or {@code null} if the cell is not occupied
+     */
+    public V get(Object rowKey, Object columnKey) {
+        int row = rowKeys.indexOf(rowKey);
+
+        if (row < 0) {
+            return null;
+        }
+
+        int column = columnKeys.indexOf(columnKey);
+
+        if (column < 0) {
+            return null;
+        }
+
+        return valueAt(row, column);
+    }
+
+    public boolean contains(Object rowKey, Object columnKey) {
+        return get(rowKey, columnKey) != null;
+    }
+
+    public boolean containsRow(Object rowKey) {
+        return rowKeys.indexOf(rowKey) >= 0;
+    }
+
+    public boolean containsColumn(Object columnKey) {
+        return columnKeys.indexOf(columnKey) >= 0;
+    }
+
+    /**
+     * @return an immutable {@link Set} of all row keys
+     */
+    public Set<R> rowKeySet() {
+        return ImmutableSet.view(rowKeys.keySet());
+    }
+
+    /**
+     * @return an immutable {@link Set} of all column keys
+     */
+    public Set<C> columnKeySet() {
+        return ImmutableSet.view(columnKeys.keySet());
+    }
+
+    /**
+     * Provides the occupied cells of the specified row as a view of the table
+     *
+     * @param rowKey the row key
+     * @return an immutable {@link Map} of column keys to values, empty if the row is not contained
+     */
+    public Map<C, V> row(Object rowKey) {
+        int row = rowKeys.indexOf(rowKey);
+
+        if (row < 0) {
+            return ImmutableMap.empty();
+        }
+
+        return ImmutableMap.view(new RowMap(row));
+    }
+
+    /**
+     * Provides the occupied cells of the specified column as a view of the table
+     *
+     * @param columnKey the column key
+     * @return an immutable {@link Map} of row keys to values, empty if the column is not contained
+     */
+    public Map<R, V> column(Object columnKey) {
+        int column = columnKeys.indexOf(columnKey);
+
+        if (column < 0) {
+            return ImmutableMap.empty();
+        }
+
+        return ImmutableMap.view(new ColumnMap(column));
+    }
+
+    /* *****************************************************************************************************************
+     * Overrides of Object
+     **************************************************************************************************************** */
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null) return false;
+        if (getClass() != o.getClass()) return false;
+
+        ImmutableTable<?, ?, ?> that = (ImmutableTable<?, ?, ?>) o;
+        if (rowKeys.size() != that.rowKeys.size() || size != that.size)
+            return false;
+
+        for (int row = 0; row < rowKeys.size(); row++) {
+            if (!new RowMap(row).equals(that.row(rowKeys.keyAt(row))))
+                return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Same hash code as a {@link Map} of each row key to the {@link Map} of its column keys to values
+     */
+    @Override
+    public int hashCode() {
+        int hashCode = 0;
+
+        for (int row = 0; row < rowKeys.size(); row++) {
+            hashCode += rowKeys.keyAt(row).hashCode() ^ new RowMap(row).hashCode();
+        }
+
+        return hashCode;
+    }
+
+    /**
+     * Same representation as a {@link Map} of each row key to the {@link Map} of its column keys to values
+     */
+    @Override
+    public String toString() {
+        StringJoiner joiner = new StringJoiner(", ", "{", "}");
+
+        for (int row = 0; row < rowKeys.size(); row++) {
+            joiner.add(rowKeys.keyAt(row) + "=" + new RowMap(row));
+        }
+
+        return joiner.toString();
+    }
+
+    /* *****************************************************************************************************************
+     * Private methods
+     **************************************************************************************************************** */
+
+    @SuppressWarnings("unchecked")
+    private V valueAt(int row, int column) {
+        if (cellIds == null) {
+            return (V) values[row * columnKeys.size() + column];
+        }
+
+        int index = Arrays.binarySearch(cellIds, (long) row * columnKeys.size() + column);
+
+        return index < 0 ? null : (V) values[index];
+    }
+
+    /**
+     * @return the first occupied column of the specified row starting at the specified column or {@code -1}
+     */
+    private int nextColumn(int row, int column) {
+        int columnCount = columnKeys.size();
+
+        if (cellIds == null) {
+            for (int index = column; index < columnCount; index++) {
+                if (values[row * columnCount + index] != null) {
+                    return index;
+                }
+            }
+
+            return -1;
+        }
+
+        long rowStart = (long) row * columnCount;
+        int index = Arrays.binarySearch(cellIds, rowStart + column);
+
+        if (index < 0) {
+            index = -index - 1;
+        }
+
+        if (index < cellIds.length && cellIds[index] < rowStart + columnCount) {
+            return (int) (cellIds[index] - rowStart);
+        }
+
+        return -1;
+    }
+
+    /**
+     * @return the first occupied row of the specified column starting at the specified row or {@code -1}
+     */
+    private int nextRow(int column, int row) {
+        for (int index = row; index < rowKeys.size(); index++) {
+            if (valueAt(index, column) != null) {
+                return index;
+            }
+        }
+
+        return -1;
+    }
+
+    /* *****************************************************************************************************************
+     * Factory methods
+     **************************************************************************************************************** */
+
+    /**
+     * Returns an empty instance of an {@link ImmutableTable}
+     *
+     * @param <R> the row key type
+     * @param <C> the column key type
+     * @param <V> the value type
+     * @return an empty instance (not a new one)
+     */
+    @SuppressWarnings("unchecked")
+    public static <R, C, V> ImmutableTable<R, C, V> empty() {
+        return EMPTY_IMMUTABLE_TABLE;
+    }
+
+    /**
+     * Creates an {@link ImmutableTable} containing the cells of the specified {@link Map} of rows
+     *
+     * @param map the specified {@link Map} of each row key to the {@link Map} of its column keys to values, keys and
+     *            values must not be null
+     * @param <R> the row key type
+     * @param <C> the column key type
+     * @param <V> the value type
+     * @return a new instance of an {@link ImmutableTable}
+     */
+    public static <R, C, V> ImmutableTable<R, C, V> of(Map<R, ? extends Map<C, ? extends V>> map) {
+        Objects.requireNonNull(map, "Parameter 'map' must not be null");
+
+        Builder<R, C, V> builder = new Builder<>();
+
+        for (Map.Entry<R, ? extends Map<C, ? extends V>> row : map.entrySet()) {
+            for (Map.Entry<C, ? extends V> cell : row.getValue().entrySet()) {
+                builder.add(row.getKey(), cell.getKey(), cell.getValue());
+            }
+        }
+
+        return builder.build();
+    }
+
+    /**
+     * Provides a {@link Collector} to collect {@link Stream}s to an {@link ImmutableTable}
+     *
+     * @param rowMapper    the mapper {@link Function} to get the row key for each element
+     * @param columnMapper the mapper {@link Function} to get the column key for each element
+     * @param valueMapper  the mapper {@link Function} to get the value for each element
+     * @param <T>          the type of the {@link Stream} elements
+     * @param <R>          the row key type
+     * @param <C>          the column key type
+     * @param <V>          the value type
+     * @return a new {@link Collector} instance
+     */
+    public static <T, R, C, V> Collector<T, ?, ImmutableTable<R, C, V>> collect(
+            Function<? super T, ? extends R> rowMapper,
+            Function<? super T, ? extends C> columnMapper,
+            Function<? super T, ? extends V> valueMapper
+    ) {
+        return new ImmutableTableCollector<>(rowMapper, columnMapper, valueMapper);
+    }
+
+    /* *****************************************************************************************************************
+     * Inner class(es)
+     **************************************************************************************************************** */
+
+    /**
+     * A row or a column of the table
+     */
+    private abstract class Line<K> extends AbstractMap<K, V> {
+        private final KeyIndex<K> keys;
+        private final int size;
+
+        private Line(KeyIndex<K> keys, int size) {
+            this.keys = keys;
+            this.size = size;
+        }
+
+        abstract V valueAt(int keyIndex);
+
+        /**
+         * @return the first occupied key index starting at the specified one or {@code -1}
+         */
+        abstract int next(int keyIndex);
+
+        @Override
+        public V get(Object key) {
+            int keyIndex = keys.indexOf(key);
+            return keyIndex < 0 ? null : valueAt(keyIndex);
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return get(key) != null;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public Set<Entry<K, V>> entrySet() {
+            return new AbstractSet<Entry<K, V>>() {
+                @Override
+                public Iterator<Entry<K, V>> iterator() {
+                    return new Iterator<Entry<K, V>>() {
+                        private int keyIndex = Line.this.next(0);
+
+                        @Override
+                        public boolean hasNext() {
+                            return keyIndex >= 0;
+                        }
+
+                        @Override
+                        public Entry<K, V> next() {
+                            if (!hasNext()) {
+                                throw new NoSuchElementException();
+                            }
+
+                            Entry<K, V> entry = new SimpleImmutableEntry<>(keys.keyAt(keyIndex), valueAt(keyIndex));
+                            keyIndex = Line.this.next(keyIndex + 1);
+
+                            return entry;
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return size;
+                }
+            };
+        }
+    }
+
+    private final class RowMap extends Line<C> {
+        private final int row;
+
+        private RowMap(int row) {
+            super(columnKeys, rowSizes[row]);
+            this.row = row;
+        }
+
+        @Override
+        V valueAt(int column) {
+            return ImmutableTable.this.valueAt(row, column);
+        }
+
+        @Override
+        int next(int column) {
+            return nextColumn(row, column);
+        }
+    }
+
+    private final class ColumnMap extends Line<R> {
+        private final int column;
+
+        private ColumnMap(int column) {
+            super(rowKeys, columnSizes[column]);
+            this.column = column;
+        }
+
+        @Override
+        V valueAt(int row) {
+            return ImmutableTable.this.valueAt(row, column);
+        }
+
+        @Override
+        int next(int row) {
+            return nextRow(column, row);
+        }
+    }
+
+    /**
+     * Collects the cells in parallel arrays and chooses the layout when building
+     */
+    private static final class Builder<R, C, V> {
+        private final KeyIndex<R> rowKeys = new KeyIndex<>();
+        private final KeyIndex<C> columnKeys = new KeyIndex<>();
+
+        private int[] rows = new int[8];
+        private int[] columns = new int[8];
+        private Object[] values = new Object[8];
+        private int size;
+
+        private void add(R rowKey, C columnKey, V value) {
+            Objects.requireNonNull(rowKey, "Row keys must not be null");
+            Objects.requireNonNull(columnKey, "Column keys must not be null");
+            Objects.requireNonNull(value, "Values must not be null");
+
+            if (size == values.length) {
+                rows = Arrays.copyOf(rows, size * 2);
+                columns = Arrays.copyOf(columns, size * 2);
+                values = Arrays.copyOf(values, size * 2);
+            }
+
+            rows[size] = rowKeys.add(rowKey);
+            columns[size] = columnKeys.add(columnKey);
+            values[size] = value;
+            size++;
+        }
+
+        @SuppressWarnings("unchecked")
+        private Builder<R, C, V> merge(Builder<R, C, V> other) {
+            for (int index = 0; index < other.size; index++) {
+                add(
+                        other.rowKeys.keyAt(other.rows[index]),
+                        other.columnKeys.keyAt(other.columns[index]),
+                        (V) other.values[index]
+                );
+            }
+
+            return this;
+        }
+
+        private ImmutableTable<R, C, V> build() {
+            long start = ImmutableCollectionMetrics.start();
+
+            long cellCount = (long) rowKeys.size() * columnKeys.size();
+            ImmutableTable<R, C, V> table;
+
+            if (cellCount <= MAX_DENSE_CELLS && (long) size * DENSE_FILL_FACTOR >= cellCount) {
+                table = buildDense((int) cellCount);
+            } else {
+                table = buildSparse();
+            }
+
+            ImmutableCollectionMetrics.constructed(ImmutableTable.class, size, size, start);
+
+            return table;
+        }
+
+        private ImmutableTable<R, C, V> buildDense(int cellCount) {
+            Object[] cells = new Object[cellCount];
+            int[] rowSizes = new int[rowKeys.size()];
+            int[] columnSizes = new int[columnKeys.size()];
+
+            for (int index = 0; index < size; index++) {
+                int cell = rows[index] * columnKeys.size() + columns[index];
+
+                if (cells[cell] != null) {
+                    throw duplicateCell(rows[index], columns[index], cells[cell], values[index]);
+                }
+
+                cells[cell] = values[index];
+                rowSizes[rows[index]]++;
+                columnSizes[columns[index]]++;
+            }
+
+            return new ImmutableTable<>(rowKeys.trim(), columnKeys.trim(), cells, null, rowSizes, columnSizes);
+        }
+
+        /**
+         * Sorts the cells by row (counting sort) and within each row by column, packing the column and the position of
+         * the value into one {@code long}.
+         */
+        private ImmutableTable<R, C, V> buildSparse() {
+            int[] rowSizes = new int[rowKeys.size()];
+            int[] columnSizes = new int[columnKeys.size()];
+
+            for (int index = 0; index < size; index++) {
+                rowSizes[rows[index]]++;
+            }
+
+            int[] offsets = new int[rowSizes.length + 1];
+
+            for (int row = 0; row < rowSizes.length; row++) {
+                offsets[row + 1] = offsets[row] + rowSizes[row];
+            }
+
+            long[] packed = new long[size];
+            int[] cursors = Arrays.copyOf(offsets, rowSizes.length);
+
+            for (int index = 0; index < size; index++) {
+                packed[cursors[rows[index]]++] = (long) columns[index] << 32 | index;
+            }
+
+            long[] cellIds = new long[size];
+            Object[] cellValues = new Object[size];
+
+            for (int row = 0; row < rowSizes.length; row++) {
+                Arrays.sort(packed, offsets[row], offsets[row + 1]);
+
+                for (int cell = offsets[row]; cell < offsets[row + 1]; cell++) {
+                    int column = (int) (packed[cell] >>> 32);
+                    Object value = values[(int) packed[cell]];
+
+                    if (cell > offsets[row] && (int) (packed[cell - 1] >>> 32) == column) {
+                        throw duplicateCell(row, column, cellValues[cell - 1], value);
+                    }
+
+                    cellIds[cell] = (long) row * columnKeys.size() + column;
+                    cellValues[cell] = value;
+                    columnSizes[column]++;
+                }
+            }
+
+            return new ImmutableTable<>(rowKeys.trim(), columnKeys.trim(), cellValues, cellIds, rowSizes, columnSizes);
+        }
+
+        private UnsupportedOperationException duplicateCell(int row, int column, Object value, Object otherValue) {
+            return new UnsupportedOperationException(
+                    String.format(
+                            "Duplicate cell (%s, %s) (attempted merging values %s and %s)",
+                            rowKeys.keyAt(row), columnKeys.keyAt(column), value, otherValue
+                    )
+            );
+        }
+    }
+
+    private static class ImmutableTableCollector<T, R, C, V>
+            implements Collector<T, Builder<R, C, V>, ImmutableTable<R, C, V>> {
+
+        private final Function<? super T, ? extends R> rowMapper;
+        private final Function<? super T, ? extends C> columnMapper;
+        private final Function<? super T, ? extends V> valueMapper;
+
+        private ImmutableTableCollector(
+                Function<? super T, ? extends R> rowMapper,
+                Function<? super T, ? extends C> columnMapper,
+                Function<? super T, ? extends V> valueMapper
+        ) {
+            this.rowMapper = rowMapper;
+            this.columnMapper = columnMapper;
+            this.valueMapper = valueMapper;
+        }
+
+        @Override
+        public Supplier<Builder<R, C, V>> supplier() {
+            return Builder::new;
+        }
+
+        @Override
+        public BiConsumer<Builder<R, C, V>, T> accumulator() {
+            return (builder, element) -> builder.add(
+                    rowMapper.apply(element), columnMapper.apply(element), valueMapper.apply(element)
+            );
+        }
+
+        @Override
+        public BinaryOperator<Builder<R, C, V>> combiner() {
+            return (left, right) -> {
+                ImmutableCollectionMetrics.combined(ImmutableTable.class, left.size, right.size);
+                return left.merge(right);
+            };
+        }
+
+        @Override
+        public Function<Builder<R, C, V>, ImmutableTable<R, C, V>> finisher() {
+            return Builder::build;
+        }
+
+        @Override
+        public Set<Characteristics> characteristics() {
+            return Collections.emptySet();
+        }
+    }
+}
@@ -0,0 +1,605 @@
+package com.github.borisskert;
+
+import com.github.borisskert.ImmutableCollectionMetrics.Operation;
+
+import java.util.*;
+import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collector;
+import java.util.stream.Stream;
+
+/**
+ * Implements an immutable {@link Map} with {@link String} keys and prefix queries.
+ * Attention: Works internal with the keys sorted by {@link String#compareTo(String)} and a radix trie stored in flat
+ * {@code int} arrays. The label of each node references a range of chars of one of the keys, so shared prefixes are
+ * stored once (and never copied). The keys below a node are a contiguous range of the sorted keys, so
+ * {@link #prefixMap(String)} is a view. Lookups take O(key length), iteration is ordered by key.
+ *
+ * @param <V> the value type
+ */
+public class ImmutableTrieMap<V> implements Map<String, V> {
+
+    /* *****************************************************************************************************************
+     * Constants
+     **************************************************************************************************************** */
+
+    private static final int ROOT = 0;
+
+    @SuppressWarnings("unchecked")
+    private static final ImmutableTrieMap EMPTY_IMMUTABLE_TRIE_MAP = new ImmutableTrieMap<>(
+            new String[0], new Object[0], new Nodes(0)
+    );
+
+    /* *****************************************************************************************************************
+     * Readonly fields
+     **************************************************************************************************************** */
+
+    private final String[] keys;
+    private final Object[] values;
+    private final Nodes nodes;
+
+    /* *****************************************************************************************************************
+     * Constructor(s)
+     **************************************************************************************************************** */
+
+    private ImmutableTrieMap(String[] keys, Object[] values, Nodes nodes) {
+        this.keys = keys;
+        this.values = values;
+        this.nodes = nodes;
+    }
+
+    /* *****************************************************************************************************************
+     * Public methods
+     **************************************************************************************************************** */
+
+    /**
+     * Provides all entries whose key starts with the specified prefix in O(prefix length)
+     *
+     * @param prefix the prefix
+     * @return an immutable {@link Map} view, ordered by key
+     */
+    public Map<String, V> prefixMap(String prefix) {
+        Objects.requireNonNull(prefix, "Parameter 'prefix' must not be null");
+
+        int node = nodeOf(prefix, true);
+
+        if (node < 0) {
+            return ImmutableMap.empty();
+        }
+
+        return ImmutableMap.view(new Range(prefix, nodes.rangeFrom[node], nodes.rangeTo[node]));
+    }
+
+    /**
+     * Finds the longest key which is a prefix of the specified {@link String} in O(length)
+     *
+     * @param text the {@link String} to be matched
+     * @return the longest key which is a prefix of {@code text} (or equal to it), {@code null} if there is none
+     */
+    public String longestPrefixOf(String text) {
+        Objects.requireNonNull(text, "Parameter 'text' must not be null");
+
+        if (keys.length == 0) {
+            return null;
+        }
+
+        String longestPrefix = null;
+        int node = ROOT;
+        int position = 0;
+
+        while (true) {
+            String label = keys[nodes.labelKey[node]];
+            int labelTo = nodes.labelTo[node];
+
+            if (labelTo > text.length() || !text.regionMatches(position, label, position, labelTo - position)) {
+                return longestPrefix;
+            }
+
+            position = labelTo;
+
+            if (isTerminal(node)) {
+                longestPrefix = keys[nodes.rangeFrom[node]];
+            }
+
+            if (position == text.length()) {
+                return longestPrefix;
+            }
+
+            node = childOf(node, text.charAt(position));
+
+            if (node < 0) {
+                return longestPrefix;
+            }
+        }
+    }
+
+    /* *****************************************************************************************************************
+     * Implementation of Map<String,V> interface
+     **************************************************************************************************************** */
+
+    @Override
+    public int size() {
+        return keys.length;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return keys.length == 0;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return indexOf(key) >= 0;
+    }
+
+    @Override
+    public boolean containsValue(Object value) {
+        for (Object other : values) {
+            if (other.equals(value)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(Object key) {
+        int index = indexOf(key);
+        return index < 0 ? null : (V) values[index];
+    }
+
+    @Override
+    public Set<String> keySet() {
+        return ImmutableSet.view(new Range("", 0, keys.length).keySet());
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Collection<V> values() {
+        return ImmutableList.view((List<V>) Arrays.asList(values));
+    }
+
+    @Override
+    public Set<Entry<String, V>> entrySet() {
+        return ImmutableSet.view(new Range("", 0, keys.length).entrySet());
+    }
+
+    @Override
+    public V put(String key, V value) {
+        throw new UnsupportedOperationException("You must not put an element to this map");
+    }
+
+    @Override
+    public V remove(Object key) {
+        throw new UnsupportedOperationException("You must not remove an element from this map");
+    }
+
+    @Override
+    public void putAll(Map<? extends String, ? extends V> m) {
+        throw new UnsupportedOperationException("You must not put a elements to this map");
+    }
+
+    @Override
+    public void clear() {
+        throw new UnsupportedOperationException("You must not clear this map");
+    }
+
+    /* *****************************************************************************************************************
+     * Overrides of Object
+     **************************************************************************************************************** */
+
+    /**
+     * Similar implementation to {@link AbstractMap#equals(Object)}
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Map)) return false;
+
+        Map<?, ?> otherMap = (Map<?, ?>) o;
+        if (otherMap.size() != size())
+            return false;
+
+        long start = ImmutableCollectionMetrics.start();
+        boolean equals = true;
+
+        for (int index = 0; index < keys.length && equals; index++) {
+            equals = values[index].equals(otherMap.get(keys[index]));
+        }
+
+        ImmutableCollectionMetrics.operated(ImmutableTrieMap.class, Operation.EQUALS, size(), start);
+
+        return equals;
+    }
+
+    @Override
+    public int hashCode() {
+        long start = ImmutableCollectionMetrics.start();
+        int hashCode = 0;
+
+        for (int index = 0; index < keys.length; index++) {
+            hashCode += keys[index].hashCode() ^ values[index].hashCode();
+        }
+
+        ImmutableCollectionMetrics.operated(ImmutableTrieMap.class, Operation.HASH_CODE, size(), start);
+
+        return hashCode;
+    }
+
+    @Override
+    public String toString() {
+        StringJoiner joiner = new StringJoiner(", ", "{", "}");
+
+        for (int index = 0; index < keys.length; index++) {
+            joiner.add(keys[index] + "=" + values[index]);
+        }
+
+        return joiner.toString();
+    }
+
+    /* *****************************************************************************************************************
+     * Private methods
+     **************************************************************************************************************** */
+
+    /**
+     * @return the index of the specified key in the sorted keys or {@code -1}
+     */
+    private int indexOf(Object key) {
+        if (!(key instanceof String)) {
+            return -1;
+        }
+
+        String text = (String) key;
+        int node = nodeOf(text, false);
+
+        if (node < 0 || nodes.labelTo[node] != text.length() || !isTerminal(node)) {
+            return -1;
+        }
+
+        return nodes.rangeFrom[node];
+    }
+
+    /**
+     * Walks down the trie along the specified {@link String}
+     *
+     * @param text         the {@link String}
+     * @param withinLabels {@code true} to accept a node whose label continues after the end of {@code text}
+     * @return the node where {@code text} ends or {@code -1}
+     */
+    private int nodeOf(String text, boolean withinLabels) {
+        if (keys.length == 0) {
+            return -1;
+        }
+
+        int node = ROOT;
+        int position = 0;
+
+        while (true) {
+            String label = keys[nodes.labelKey[node]];
+            int labelTo = nodes.labelTo[node];
+
+            if (labelTo >= text.length()) {
+                boolean matches = text.regionMatches(position, label, position, text.length() - position);
+                return matches && (withinLabels || labelTo == text.length()) ? node : -1;
+            }
+
+            if (!text.regionMatches(position, label, position, labelTo - position)) {
+                return -1;
+            }
+
+            position = labelTo;
+            node = childOf(node, text.charAt(position));
+
+            if (node < 0) {
+                return -1;
+            }
+        }
+    }
+
+    /**
+     * Binary search of the children, which are ordered by their first char
+     */
+    private int childOf(int node, char c) {
+        int low = nodes.firstChild[node];
+        int high = low + nodes.childCount[node] - 1;
+        int labelFrom = nodes.labelTo[node];
+
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            char other = keys[nodes.labelKey[middle]].charAt(labelFrom);
+
+            if (other < c) {
+                low = middle + 1;
+            } else if (other > c) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * A key ends at the node if the first (shortest) key of its range has the length of the node's prefix
+     */
+    private boolean isTerminal(int node) {
+        return keys[nodes.rangeFrom[node]].length() == nodes.labelTo[node];
+    }
+
+    /* *****************************************************************************************************************
+     * Factory methods
+     **************************************************************************************************************** */
+
+    /**
+     * Returns an empty instance of an {@link ImmutableTrieMap}
+     *
+     * @param <V> the value type
+     * @return an empty instance (not a new one)
+     */
+    @SuppressWarnings("unchecked")
+    public static <V> ImmutableTrieMap<V> empty() {
+        return EMPTY_IMMUTABLE_TRIE_MAP;
+    }
+
+    /**
+     * Creates an {@link ImmutableTrieMap} with the same entries as the specified {@link Map}
+     *
+     * @param map the specified {@link Map}, keys and values must not be null
+     * @param <V> the value type
+     * @return a new instance of an {@link ImmutableTrieMap}
+     */
+    @SuppressWarnings("unchecked")
+    public static <V> ImmutableTrieMap<V> of(Map<String, ? extends V> map) {
+        Objects.requireNonNull(map, "Parameter 'map' must not be null");
+
+        long start = ImmutableCollectionMetrics.start();
+
+        Entry<String, V>[] entries = map.entrySet().toArray(new Entry[0]);
+        Arrays.sort(entries, Entry.comparingByKey());
+
+        String[] keys = new String[entries.length];
+        Object[] values = new Object[entries.length];
+
+        for (int index = 0; index < entries.length; index++) {
+            keys[index] = Objects.requireNonNull(entries[index].getKey(), "Keys must not be null");
+            values[index] = Objects.requireNonNull(entries[index].getValue(), "Values must not be null");
+        }
+
+        ImmutableTrieMap<V> trieMap = new ImmutableTrieMap<>(keys, values, Nodes.of(keys));
+        ImmutableCollectionMetrics.constructed(ImmutableTrieMap.class, keys.length, keys.length, start);
+
+        return trieMap;
+    }
+
+    /**
+     * Provides a {@link Collector} to collect {@link Stream}s to an {@link ImmutableTrieMap}
+     *
+     * @param keyMapper   the mapper {@link Function} to get the key for each element
+     * @param valueMapper the mapper {@link Function} to get the value for each element
+     * @param <T>         the type of the {@link Stream} elements
+     * @param <V>         the value type
+     * @return a new {@link Collector} instance
+     */
+    public static <T, V> Collector<T, ?, ImmutableTrieMap<V>> collect(
+            Function<? super T, String> keyMapper,
+            Function<? super T, ? extends V> valueMapper
+    ) {
+        return new ImmutableTrieMapCollector<>(keyMapper, valueMapper);
+    }
+
+    /* *****************************************************************************************************************
+     * Inner class(es)
+     **************************************************************************************************************** */
+
+    /**
+     * The nodes of the radix trie as parallel arrays. The label of node {@code n} are the chars
+     * {@code labelFrom} (the {@code labelTo} of its parent) to {@code labelTo[n]} of the key {@code labelKey[n]}. The
+     * children of a node are stored contiguously and ordered by their first char. The keys below a node (including its
+     * own key, if any) are the sorted keys {@code rangeFrom[n]} to {@code rangeTo[n]}.
+     */
+    private static final class Nodes {
+        private final int[] labelKey;
+        private final int[] labelTo;
+        private final int[] firstChild;
+        private final int[] childCount;
+        private final int[] rangeFrom;
+        private final int[] rangeTo;
+
+        private int size;
+
+        private Nodes(int capacity) {
+            labelKey = new int[capacity];
+            labelTo = new int[capacity];
+            firstChild = new int[capacity];
+            childCount = new int[capacity];
+            rangeFrom = new int[capacity];
+            rangeTo = new int[capacity];
+        }
+
+        /**
+         * @param keys distinct and sorted keys
+         */
+        private static Nodes of(String[] keys) {
+            // a radix trie of n keys has at most 2n - 1 nodes (plus the root)
+            Nodes nodes = new Nodes(keys.length * 2);
+
+            if (keys.length > 0) {
+                nodes.size = 1;
+                nodes.build(keys, ROOT, 0, keys.length);
+            }
+
+            return nodes;
+        }
+
+        /**
+         * Fills the specified node for the sorted key range and reserves (and builds) its children
+         */
+        private void build(String[] keys, int node, int from, int to) {
+            int prefixLength = commonPrefixLength(keys[from], keys[to - 1]);
+
+            labelKey[node] = from;
+            labelTo[node] = prefixLength;
+            rangeFrom[node] = from;
+            rangeTo[node] = to;
+
+            int childFrom = keys[from].length() == prefixLength ? from + 1 : from;
+            int count = 0;
+
+            for (int index = childFrom; index < to; index++) {
+                if (index == childFrom || keys[index].charAt(prefixLength) != keys[index - 1].charAt(prefixLength)) {
+                    count++;
+                }
+            }
+
+            firstChild[node] = size;
+            childCount[node] = count;
+            size += count;
+
+            int child = firstChild[node];
+            int groupFrom = childFrom;
+
+            for (int index = childFrom + 1; index <= to; index++) {
+                if (index == to || keys[index].charAt(prefixLength) != keys[groupFrom].charAt(prefixLength)) {
+                    build(keys, child++, groupFrom, index);
+                    groupFrom = index;
+                }
+            }
+        }
+
+        private static int commonPrefixLength(String first, String last) {
+            int length = Math.min(first.length(), last.length());
+
+            for (int index = 0; index < length; index++) {
+                if (first.charAt(index) != last.charAt(index)) {
+                    return index;
+                }
+            }
+
+            return length;
+        }
+    }
+
+    /**
+     * The entries of a range of the sorted keys, which all start with the specified prefix
+     */
+    private final class Range extends AbstractMap<String, V> {
+        private final String prefix;
+        private final int from;
+        private final int to;
+
+        private Range(String prefix, int from, int to) {
+            this.prefix = prefix;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public V get(Object key) {
+            return containsKey(key) ? ImmutableTrieMap.this.get(key) : null;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return key instanceof String && ((String) key).startsWith(prefix) && ImmutableTrieMap.this.containsKey(key);
+        }
+
+        @Override
+        public int size() {
+            return to - from;
+        }
+
+        @Override
+        public Set<Entry<String, V>> entrySet() {
+            return new AbstractSet<Entry<String, V>>() {
+                @Override
+                public Iterator<Entry<String, V>> iterator() {
+                    return new Iterator<Entry<String, V>>() {
+                        private int index = from;
+
+                        @Override
+                        public boolean hasNext() {
+                            return index < to;
+                        }
+
+                        @Override
+                        @SuppressWarnings("unchecked")
+                        public Entry<String, V> next() {
+                            if (!hasNext()) {
+                                throw new NoSuchElementException();
+                            }
+
+                            Entry<String, V> entry = new SimpleImmutableEntry<>(keys[index], (V) values[index]);
+                            index++;
+
+                            return entry;
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return to - from;
+                }
+            };
+        }
+    }
+
+    private static class ImmutableTrieMapCollector<T, V>
+            implements Collector<T, Map<String, V>, ImmutableTrieMap<V>> {
+
+        private final Function<? super T, String> keyMapper;
+        private final Function<? super T, ? extends V> valueMapper;
+
+        private ImmutableTrieMapCollector(Function<? super T, String> keyMapper, Function<? super T, ? extends V> valueMapper) {
+            this.keyMapper = keyMapper;
+            this.valueMapper = valueMapper;
+        }
+
+        @Override
+        public Supplier<Map<String, V>> supplier() {
+            return HashMap::new;
+        }
+
+        @Override
+        public BiConsumer<Map<String, V>, T> accumulator() {
+            return (map, element) -> put(map, keyMapper.apply(element), valueMapper.apply(element));
+        }
+
+        @Override
+        public BinaryOperator<Map<String, V>> combiner() {
+            return (map, otherMap) -> {
+                ImmutableCollectionMetrics.combined(ImmutableTrieMap.class, map.size(), otherMap.size());
+                otherMap.forEach((key, value) -> put(map, key, value));
+                return map;
+            };
+        }
+
+        @Override
+        public Function<Map<String, V>, ImmutableTrieMap<V>> finisher() {
+            return ImmutableTrieMap::of;
+        }
+
+        @Override
+        public Set<Characteristics> characteristics() {
+            return Collections.emptySet();
+        }
+
+        private static <V> void put(Map<String, V> map, String key, V value) {
+            V previousValue = map.putIfAbsent(
+                    Objects.requireNonNull(key, "Keys must not be null"),
+                    Objects.requireNonNull(value, "Values must not be null")
+            );
+
+            if (previousValue != null) {
+                throw new UnsupportedOperationException(
+                        String.format("Duplicate key %s (attempted merging values %s and %s)", key, previousValue, value)
+                );
+            }
+        }
+    }
+}
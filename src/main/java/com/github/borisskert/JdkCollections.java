@@ -0,0 +1,46 @@
+package com.github.borisskert;
+
+import java.util.List;
+
+/**
+ * Chooses the backing {@link List} of an {@link ImmutableList}.
+ * Attention: This is the Java 8 implementation which never provides a compact {@link List}, so the items are kept in
+ * an array. The multi-release jar contains a Java 9+ implementation in {@code src/main/java9} which provides the
+ * compact JDK immutable {@link List}.
+ */
+final class JdkCollections {
+
+    private JdkCollections() {
+    }
+
+    /**
+     * @param items the items, which are copied if a {@link List} is returned
+     * @param <T>   the item type
+     * @return the compact JDK immutable {@link List} of the items or {@code null} if it is not available (always on
+     * Java 8)
+     */
+    static <T> List<T> compactList(Object[] items) {
+        return null;
+    }
+
+    /**
+     * Indicates if the specified backing {@link List} is a compact JDK immutable {@link List} (backed by an array).
+     *
+     * @param list the backing {@link List}
+     * @return always {@code false} on Java 8
+     */
+    static boolean isCompactList(List<?> list) {
+        return false;
+    }
+
+    /**
+     * Indicates if the specified backing {@link List} throws a {@link NullPointerException} when queried for
+     * {@code null}. Such lists never contain {@code null}.
+     *
+     * @param list the backing {@link List}
+     * @return always {@code false} on Java 8
+     */
+    static boolean rejectsNullQueries(List<?> list) {
+        return false;
+    }
+}
@@ -0,0 +1,190 @@
+package com.github.borisskert;
+
+import java.util.*;
+
+/**
+ * Maps distinct keys to dense indices ({@code 0} to {@code size() - 1}) in the order they have been added, with an
+ * open addressing (linear probing) table of {@code int}s.
+ * Attention: Keys can only be added during construction. Never modified after it has been handed over to an
+ * immutable collection, so it is safe for concurrent readers then.
+ *
+ * @param <K> the key type
+ */
+final class KeyIndex<K> {
+
+    /* *****************************************************************************************************************
+     * Fields
+     **************************************************************************************************************** */
+
+    private Object[] keys;
+    private int[] table;
+    private int size;
+
+    /* *****************************************************************************************************************
+     * Constructor(s)
+     **************************************************************************************************************** */
+
+    KeyIndex() {
+        this(8);
+    }
+
+    KeyIndex(int expectedSize) {
+        this.keys = new Object[Math.max(expectedSize, 1)];
+        this.table = new int[tableLengthFor(expectedSize)];
+    }
+
+    /* *****************************************************************************************************************
+     * Package-private methods
+     **************************************************************************************************************** */
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * @return the index of the specified key or {@code -1} if not contained
+     */
+    int indexOf(Object key) {
+        if (key == null) {
+            return -1;
+        }
+
+        int mask = table.length - 1;
+        int slot = spread(key.hashCode()) & mask;
+
+        for (int entry = table[slot]; entry != 0; entry = table[slot]) {
+            if (key.equals(keys[entry - 1])) {
+                return entry - 1;
+            }
+
+            slot = (slot + 1) & mask;
+        }
+
+        return -1;
+    }
+
+    /**
+     * Adds the specified key if not contained yet
+     *
+     * @param key the key, must not be null
+     * @return the index of the key
+     */
+    int add(K key) {
+        int index = indexOf(key);
+
+        if (index >= 0) {
+            return index;
+        }
+
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+        }
+
+        keys[size] = key;
+        size++;
+
+        if (table.length < tableLengthFor(size)) {
+            rehash(tableLengthFor(size));
+        } else {
+            insert(key, size);
+        }
+
+        return size - 1;
+    }
+
+    @SuppressWarnings("unchecked")
+    K keyAt(int index) {
+        return (K) keys[index];
+    }
+
+    /**
+     * Drops the spare capacity of the key array, call after the last key has been added
+     *
+     * @return this instance
+     */
+    KeyIndex<K> trim() {
+        if (keys.length > size) {
+            keys = Arrays.copyOf(keys, size);
+        }
+
+        return this;
+    }
+
+    /**
+     * @return a view of all keys in index order
+     */
+    Set<K> keySet() {
+        return new KeySet();
+    }
+
+    /* *****************************************************************************************************************
+     * Private methods
+     **************************************************************************************************************** */
+
+    private void rehash(int tableLength) {
+        table = new int[tableLength];
+
+        for (int index = 0; index < size; index++) {
+            insert(keys[index], index + 1);
+        }
+    }
+
+    private void insert(Object key, int entry) {
+        int mask = table.length - 1;
+        int slot = spread(key.hashCode()) & mask;
+
+        while (table[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+
+        table[slot] = entry;
+    }
+
+    private static int spread(int hashCode) {
+        return hashCode ^ (hashCode >>> 16);
+    }
+
+    /**
+     * @return a power of two table length with a load factor of at most 0.5
+     */
+    private static int tableLengthFor(int size) {
+        return Integer.highestOneBit(Math.max(size, 1) * 2 - 1) << 1;
+    }
+
+    /* *****************************************************************************************************************
+     * Inner class(es)
+     **************************************************************************************************************** */
+
+    private final class KeySet extends AbstractSet<K> {
+        @Override
+        public boolean contains(Object key) {
+            return indexOf(key) >= 0;
+        }
+
+        @Override
+        public Iterator<K> iterator() {
+            return new Iterator<K>() {
+                private int index;
+
+                @Override
+                public boolean hasNext() {
+                    return index < size;
+                }
+
+                @Override
+                public K next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+
+                    return keyAt(index++);
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.github.borisskert;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Maps the distinct items of a {@link List} to the index of their first and of their last occurrence, so
+ * {@link List#indexOf(Object)} and {@link List#lastIndexOf(Object)} take O(1) instead of a linear scan.
+ * Attention: Never modified after construction, so it is safe for concurrent readers. It never goes stale as long as
+ * the {@link List} and the hash codes of its items do not change.
+ */
+final class ListIndex {
+
+    /* *****************************************************************************************************************
+     * Readonly fields
+     **************************************************************************************************************** */
+
+    private final KeyIndex<Object> items;
+    private final int[] firstIndices;
+    private final int[] lastIndices;
+    private final int firstNullIndex;
+    private final int lastNullIndex;
+
+    /* *****************************************************************************************************************
+     * Constructor(s)
+     **************************************************************************************************************** */
+
+    private ListIndex(KeyIndex<Object> items, int[] firstIndices, int[] lastIndices, int firstNullIndex, int lastNullIndex) {
+        this.items = items;
+        this.firstIndices = firstIndices;
+        this.lastIndices = lastIndices;
+        this.firstNullIndex = firstNullIndex;
+        this.lastNullIndex = lastNullIndex;
+    }
+
+    /* *****************************************************************************************************************
+     * Package-private methods
+     **************************************************************************************************************** */
+
+    int indexOf(Object item) {
+        if (item == null) {
+            return firstNullIndex;
+        }
+
+        int key = items.indexOf(item);
+        return key < 0 ? -1 : firstIndices[key];
+    }
+
+    int lastIndexOf(Object item) {
+        if (item == null) {
+            return lastNullIndex;
+        }
+
+        int key = items.indexOf(item);
+        return key < 0 ? -1 : lastIndices[key];
+    }
+
+    /* *****************************************************************************************************************
+     * Factory methods
+     **************************************************************************************************************** */
+
+    static ListIndex of(List<?> list) {
+        KeyIndex<Object> items = new KeyIndex<>(list.size());
+        int[] firstIndices = new int[list.size()];
+        int[] lastIndices = new int[list.size()];
+        int firstNullIndex = -1;
+        int lastNullIndex = -1;
+        int index = 0;
+
+        for (Object item : list) {
+            if (item == null) {
+                if (firstNullIndex < 0) {
+                    firstNullIndex = index;
+                }
+
+                lastNullIndex = index;
+            } else {
+                int distinctCount = items.size();
+                int key = items.add(item);
+
+                if (key == distinctCount) {
+                    firstIndices[key] = index;
+                }
+
+                lastIndices[key] = index;
+            }
+
+            index++;
+        }
+
+        return new ListIndex(
+                items.trim(),
+                Arrays.copyOf(firstIndices, items.size()),
+                Arrays.copyOf(lastIndices, items.size()),
+                firstNullIndex,
+                lastNullIndex
+        );
+    }
+}
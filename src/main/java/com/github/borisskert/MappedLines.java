@@ -0,0 +1,209 @@
+package com.github.borisskert;
+
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Provides the lines of a memory-mapped file as a {@link java.util.List}. The file is scanned once to build an index of
+ * the line offsets, each line is decoded on access only (optionally cached).
+ * Lines are terminated like in {@link java.nio.file.Files#readAllLines(Path, Charset)}: by {@code \n}, {@code \r} or
+ * {@code \r\n}. Malformed input is replaced instead of reported.
+ * Attention: The file must not be modified while this instance is used.
+ */
+final class MappedLines extends AbstractList<String> implements RandomAccess {
+
+    /* *****************************************************************************************************************
+     * Constants
+     **************************************************************************************************************** */
+
+    /**
+     * The size of each mapping, a {@link MappedByteBuffer} is limited to {@link Integer#MAX_VALUE} bytes
+     */
+    private static final int CHUNK_SIZE = 1 << 30;
+
+    private static final byte LF = '\n';
+    private static final byte CR = '\r';
+
+    /* *****************************************************************************************************************
+     * Readonly fields
+     **************************************************************************************************************** */
+
+    private final MappedByteBuffer[] chunks;
+    private final Charset charset;
+
+    /**
+     * The offset of each line plus the file size, so line {@code i} spans {@code offsets[i]} to {@code offsets[i + 1]}
+     * (including its terminator)
+     */
+    private final long[] offsets;
+    private final int size;
+
+    private final AtomicReferenceArray<String> cache;
+
+    /* *****************************************************************************************************************
+     * Constructor(s)
+     **************************************************************************************************************** */
+
+    private MappedLines(MappedByteBuffer[] chunks, Charset charset, long[] offsets, int size, boolean cache) {
+        this.chunks = chunks;
+        this.charset = charset;
+        this.offsets = offsets;
+        this.size = size;
+        this.cache = cache ? new AtomicReferenceArray<>(size) : null;
+    }
+
+    /* *****************************************************************************************************************
+     * Implementation of List<String> interface
+     **************************************************************************************************************** */
+
+    @Override
+    public String get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index);
+        }
+
+        if (cache == null) {
+            return decode(index);
+        }
+
+        String line = cache.get(index);
+
+        if (line == null) {
+            line = decode(index);
+            cache.lazySet(index, line);
+        }
+
+        return line;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /* *****************************************************************************************************************
+     * Private methods
+     **************************************************************************************************************** */
+
+    private String decode(int index) {
+        long from = offsets[index];
+        long to = offsets[index + 1];
+
+        if (to > from && byteAt(to - 1) == LF) {
+            to--;
+        }
+
+        if (to > from && byteAt(to - 1) == CR) {
+            to--;
+        }
+
+        byte[] bytes = new byte[(int) (to - from)];
+
+        for (int position = 0; position < bytes.length; ) {
+            long offset = from + position;
+            ByteBuffer chunk = ((ByteBuffer) chunks[(int) (offset / CHUNK_SIZE)]).duplicate();
+            int chunkOffset = (int) (offset % CHUNK_SIZE);
+            int length = Math.min(bytes.length - position, chunk.limit() - chunkOffset);
+
+            // cast to Buffer: the covariant overrides of newer JDKs do not exist on Java 8
+            ((Buffer) chunk).position(chunkOffset);
+            chunk.get(bytes, position, length);
+            position += length;
+        }
+
+        return new String(bytes, charset);
+    }
+
+    private byte byteAt(long offset) {
+        return chunks[(int) (offset / CHUNK_SIZE)].get((int) (offset % CHUNK_SIZE));
+    }
+
+    /* *****************************************************************************************************************
+     * Factory methods
+     **************************************************************************************************************** */
+
+    /**
+     * Maps the specified file and scans it once for the line offsets
+     *
+     * @param path    the file
+     * @param charset an ASCII compatible {@link Charset} (each line terminator is a single byte)
+     * @param cache   {@code true} to keep each decoded line
+     */
+    static MappedLines of(Path path, Charset charset, boolean cache) throws IOException {
+        byte[] lineFeed = "\n".getBytes(charset);
+
+        if (lineFeed.length != 1 || lineFeed[0] != LF) {
+            throw new IllegalArgumentException("Charset " + charset + " is not supported, it must be ASCII compatible");
+        }
+
+        MappedByteBuffer[] chunks;
+        long fileSize;
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            fileSize = channel.size();
+            chunks = new MappedByteBuffer[(int) ((fileSize + CHUNK_SIZE - 1) / CHUNK_SIZE)];
+
+            for (int chunk = 0; chunk < chunks.length; chunk++) {
+                long position = (long) chunk * CHUNK_SIZE;
+                chunks[chunk] = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(CHUNK_SIZE, fileSize - position));
+            }
+        }
+
+        long[] offsets = new long[1024];
+        int size = 0;
+        long lineStart = 0;
+
+        for (int chunk = 0; chunk < chunks.length; chunk++) {
+            MappedByteBuffer buffer = chunks[chunk];
+            long chunkStart = (long) chunk * CHUNK_SIZE;
+
+            for (int position = 0; position < buffer.limit(); position++) {
+                byte current = buffer.get(position);
+
+                if (current != LF && current != CR) {
+                    continue;
+                }
+
+                long offset = chunkStart + position;
+
+                if (current == CR && offset + 1 < fileSize && nextByte(chunks, offset) == LF) {
+                    continue;
+                }
+
+                if (size + 1 == offsets.length) {
+                    offsets = Arrays.copyOf(offsets, offsets.length * 2);
+                }
+
+                offsets[size++] = lineStart;
+                lineStart = offset + 1;
+            }
+        }
+
+        if (size + 2 > offsets.length) {
+            offsets = Arrays.copyOf(offsets, size + 2);
+        }
+
+        if (lineStart < fileSize) {
+            offsets[size++] = lineStart;
+        }
+
+        offsets[size] = fileSize;
+
+        return new MappedLines(chunks, charset, Arrays.copyOf(offsets, size + 1), size, cache);
+    }
+
+    private static byte nextByte(MappedByteBuffer[] chunks, long offset) {
+        long next = offset + 1;
+        return chunks[(int) (next / CHUNK_SIZE)].get((int) (next % CHUNK_SIZE));
+    }
+}
@@ -0,0 +1,138 @@
+package com.github.borisskert;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Compares and hashes huge immutable collections in parallel on the common {@link ForkJoinPool}. Comparisons are
+ * short-circuiting: once a task finds a difference no further ranges are started.
+ * Attention: Only for collections which are never modified, like the backing collections of the immutable
+ * collections of this library.
+ */
+final class ParallelComparison {
+
+    /* *****************************************************************************************************************
+     * Constants
+     **************************************************************************************************************** */
+
+    /**
+     * Below this size the sequential comparison is faster
+     */
+    static final int PARALLEL_THRESHOLD = 1 << 16;
+
+    /* *****************************************************************************************************************
+     * Constructor(s)
+     **************************************************************************************************************** */
+
+    private ParallelComparison() {
+    }
+
+    /* *****************************************************************************************************************
+     * Package-private methods
+     **************************************************************************************************************** */
+
+    /**
+     * @return {@code true} if collections of the specified size should be compared in parallel
+     */
+    static boolean isParallel(int size) {
+        return size >= PARALLEL_THRESHOLD && ForkJoinPool.getCommonPoolParallelism() > 1;
+    }
+
+    /**
+     * @param list      a {@link RandomAccess} {@link List}
+     * @param otherList a {@link RandomAccess} {@link List} of the same size
+     */
+    static boolean listsEqual(List<?> list, List<?> otherList) {
+        return IntStream.range(0, list.size())
+                .parallel()
+                .allMatch(index -> Objects.equals(list.get(index), otherList.get(index)));
+    }
+
+    /**
+     * Calculates {@link List#hashCode()} as a parallel reduction: every range of the {@link List} calculates the
+     * polynomial hash of its items, which are combined by shifting each partial hash with the power of 31 of the
+     * length of the following ranges.
+     *
+     * @param list a {@link RandomAccess} {@link List}
+     */
+    static int listHashCode(List<?> list) {
+        int size = list.size();
+        int rangeCount = ForkJoinPool.getCommonPoolParallelism() * 4;
+        int rangeSize = (size + rangeCount - 1) / rangeCount;
+        int[] partialHashCodes = new int[rangeCount];
+
+        IntStream.range(0, rangeCount).parallel().forEach(range -> {
+            int to = Math.min(size, (range + 1) * rangeSize);
+            int hashCode = 0;
+
+            for (int index = range * rangeSize; index < to; index++) {
+                hashCode = 31 * hashCode + Objects.hashCode(list.get(index));
+            }
+
+            partialHashCodes[range] = hashCode;
+        });
+
+        int hashCode = 1;
+
+        for (int range = 0; range < rangeCount; range++) {
+            int length = Math.max(0, Math.min(size, (range + 1) * rangeSize) - range * rangeSize);
+            hashCode = hashCode * powerOf31(length) + partialHashCodes[range];
+        }
+
+        return hashCode;
+    }
+
+    /**
+     * @param otherSet a {@link Set} of the same size
+     */
+    static boolean setsEqual(Set<?> set, Set<?> otherSet) {
+        return set.parallelStream().allMatch(otherSet::contains);
+    }
+
+    static int setHashCode(Set<?> set) {
+        return set.parallelStream().mapToInt(Objects::hashCode).sum();
+    }
+
+    /**
+     * @param otherMap a {@link Map} of the same size
+     */
+    static <K, V> boolean mapsEqual(Map<K, V> map, Map<?, ?> otherMap) {
+        return map.entrySet().parallelStream().allMatch(entry -> {
+            V value = entry.getValue();
+
+            if (value == null) {
+                return otherMap.get(entry.getKey()) == null && otherMap.containsKey(entry.getKey());
+            }
+
+            return value.equals(otherMap.get(entry.getKey()));
+        });
+    }
+
+    static int mapHashCode(Map<?, ?> map) {
+        return map.entrySet().parallelStream().mapToInt(Map.Entry::hashCode).sum();
+    }
+
+    /* *****************************************************************************************************************
+     * Private methods
+     **************************************************************************************************************** */
+
+    /**
+     * @return {@code 31^exponent} with the same overflow as the {@link List#hashCode()} calculation
+     */
+    private static int powerOf31(int exponent) {
+        int result = 1;
+        int base = 31;
+
+        while (exponent > 0) {
+            if ((exponent & 1) != 0) {
+                result *= base;
+            }
+
+            base *= base;
+            exponent >>= 1;
+        }
+
+        return result;
+    }
+}
@@ -0,0 +1,305 @@
+package com.github.borisskert;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+/**
+ * Builds huge hash based collections in parallel on the common {@link ForkJoinPool}: the items are partitioned by
+ * their hash bits (counted per chunk, then scattered into exactly sized arrays), each partition is put into its own
+ * presized {@link HashMap} or {@link HashSet}, and a {@link Map} or {@link Set} view selects the partition of a key
+ * by its hash bits again. Every task writes to its own slots only, so there are no locks.
+ * Attention: The partitions are never modified after construction, so the views are safe for concurrent readers.
+ */
+final class Partitions {
+
+    /* *****************************************************************************************************************
+     * Constants
+     **************************************************************************************************************** */
+
+    /**
+     * Below this size the sequential construction is faster
+     */
+    static final int PARALLEL_THRESHOLD = 1 << 16;
+
+    private static final int MAX_PARTITION_COUNT = 256;
+
+    /* *****************************************************************************************************************
+     * Constructor(s)
+     **************************************************************************************************************** */
+
+    private Partitions() {
+    }
+
+    /* *****************************************************************************************************************
+     * Package-private methods
+     **************************************************************************************************************** */
+
+    /**
+     * @return {@code true} if a collection of the specified size should be built in parallel
+     */
+    static boolean isParallel(int size) {
+        return size >= PARALLEL_THRESHOLD && ForkJoinPool.getCommonPoolParallelism() > 1;
+    }
+
+    /**
+     * @param map the entries, values must not be null
+     * @return a {@link Map} view of the partitioned entries
+     */
+    @SuppressWarnings("unchecked")
+    static <K, V> Map<K, V> mapOf(Map<K, V> map) {
+        return mapOf(
+                map.entrySet().toArray(),
+                entry -> ((Map.Entry<K, V>) entry).getKey(),
+                entry -> ((Map.Entry<K, V>) entry).getValue(),
+                false
+        );
+    }
+
+    /**
+     * @param items       the items to be mapped to the entries
+     * @param keyMapper   the mapper {@link Function} to get the key for each item
+     * @param valueMapper the mapper {@link Function} to get the value for each item, values must not be null
+     * @return a {@link Map} view of the partitioned entries
+     * @throws UnsupportedOperationException on duplicate keys
+     */
+    @SuppressWarnings("unchecked")
+    static <T, K, V> Map<K, V> mapOf(
+            Object[] items,
+            Function<? super T, ? extends K> keyMapper,
+            Function<? super T, ? extends V> valueMapper
+    ) {
+        return mapOf(items, item -> keyMapper.apply((T) item), item -> valueMapper.apply((T) item), true);
+    }
+
+    /**
+     * @return a {@link Set} view of the partitioned items
+     */
+    static <T> Set<T> setOf(Collection<T> items) {
+        return setOf(items.toArray());
+    }
+
+    /**
+     * @return a {@link Set} view of the partitioned items
+     */
+    static <T> Set<T> setOf(Object[] items) {
+        int[][] partitions = partition(items);
+        Set<?>[] sets = new Set[partitions.length];
+
+        IntStream.range(0, partitions.length).parallel().forEach(partition -> {
+            int[] partitionIndices = partitions[partition];
+            HashSet<Object> partitionSet = new HashSet<>(capacityFor(partitionIndices.length));
+
+            for (int index : partitionIndices) {
+                partitionSet.add(items[index]);
+            }
+
+            sets[partition] = partitionSet;
+        });
+
+        return new PartitionedSet<>(sets);
+    }
+
+    /* *****************************************************************************************************************
+     * Private methods
+     **************************************************************************************************************** */
+
+    /**
+     * Keys are partitioned by their hash bits, so duplicate keys always end up in the same partition. A partition stops
+     * at its first duplicate key, which is thrown by the calling thread afterwards (instead of being wrapped by the
+     * {@link ForkJoinPool}). The key of each item is computed exactly once.
+     */
+    private static <K, V> Map<K, V> mapOf(
+            Object[] items,
+            Function<Object, ? extends K> keyOf,
+            Function<Object, ? extends V> valueOf,
+            boolean rejectDuplicates
+    ) {
+        Object[] keys = new Object[items.length];
+        Arrays.parallelSetAll(keys, index -> keyOf.apply(items[index]));
+
+        int[][] partitions = partition(keys);
+        Map<?, ?>[] maps = new Map[partitions.length];
+        String[] duplicates = new String[partitions.length];
+
+        IntStream.range(0, partitions.length).parallel().forEach(partition -> {
+            int[] partitionIndices = partitions[partition];
+            HashMap<K, V> partitionMap = new HashMap<>(capacityFor(partitionIndices.length));
+
+            for (int index : partitionIndices) {
+                @SuppressWarnings("unchecked")
+                K key = (K) keys[index];
+                V value = Objects.requireNonNull(valueOf.apply(items[index]));
+                V previousValue = rejectDuplicates ? partitionMap.putIfAbsent(key, value) : partitionMap.put(key, value);
+
+                if (rejectDuplicates && previousValue != null) {
+                    duplicates[partition] = String.format(
+                            "Duplicate key %s (attempted merging values %s and %s)", key, previousValue, value
+                    );
+                    return;
+                }
+            }
+
+            maps[partition] = partitionMap;
+        });
+
+        for (String duplicate : duplicates) {
+            if (duplicate != null) {
+                throw new UnsupportedOperationException(duplicate);
+            }
+        }
+
+        return new PartitionedMap<>(maps);
+    }
+
+    /**
+     * Distributes the indices of the specified keys over exactly sized arrays, one per partition, in the order of the
+     * keys. Each chunk of the keys counts its keys per partition first (and remembers the partition of each key), so
+     * every chunk knows its own offsets and scatters its indices without locks.
+     */
+    private static int[][] partition(Object[] keys) {
+        int parallelism = ForkJoinPool.getCommonPoolParallelism();
+        int partitionCount = Math.min(MAX_PARTITION_COUNT, Integer.highestOneBit(parallelism * 4 - 1) << 1);
+        int chunkCount = parallelism * 4;
+        int chunkSize = (keys.length + chunkCount - 1) / chunkCount;
+
+        int[][] offsets = new int[chunkCount][partitionCount];
+        byte[] partitionOfKey = new byte[keys.length];
+
+        IntStream.range(0, chunkCount).parallel().forEach(chunk -> {
+            int[] counts = offsets[chunk];
+            int to = Math.min(keys.length, (chunk + 1) * chunkSize);
+
+            for (int index = chunk * chunkSize; index < to; index++) {
+                int partition = partitionOf(keys[index], partitionCount);
+                partitionOfKey[index] = (byte) partition;
+                counts[partition]++;
+            }
+        });
+
+        int[][] partitions = new int[partitionCount][];
+
+        for (int partition = 0; partition < partitionCount; partition++) {
+            int offset = 0;
+
+            for (int chunk = 0; chunk < chunkCount; chunk++) {
+                int count = offsets[chunk][partition];
+                offsets[chunk][partition] = offset;
+                offset += count;
+            }
+
+            partitions[partition] = new int[offset];
+        }
+
+        IntStream.range(0, chunkCount).parallel().forEach(chunk -> {
+            int[] chunkOffsets = offsets[chunk];
+            int to = Math.min(keys.length, (chunk + 1) * chunkSize);
+
+            for (int index = chunk * chunkSize; index < to; index++) {
+                int partition = partitionOfKey[index] & 0xFF;
+                partitions[partition][chunkOffsets[partition]++] = index;
+            }
+        });
+
+        return partitions;
+    }
+
+    /**
+     * Differs from the spreading of {@link HashMap}, so the keys of one partition are still distributed over the
+     * buckets of its {@link HashMap}
+     */
+    private static int partitionOf(Object key, int partitionCount) {
+        if (key == null) {
+            return 0;
+        }
+
+        int h = key.hashCode() * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & (partitionCount - 1);
+    }
+
+    /**
+     * Calculates the initial capacity of a {@link HashMap} which holds the specified number of entries without rehashing
+     */
+    private static int capacityFor(int size) {
+        return (int) (size / 0.75f) + 1;
+    }
+
+    /* *****************************************************************************************************************
+     * Inner class(es)
+     **************************************************************************************************************** */
+
+    private static final class PartitionedMap<K, V> extends AbstractMap<K, V> {
+        private final Map<?, ?>[] partitions;
+        private final int size;
+
+        private PartitionedMap(Map<?, ?>[] partitions) {
+            this.partitions = partitions;
+            this.size = Arrays.stream(partitions).mapToInt(Map::size).sum();
+        }
+
+        @SuppressWarnings("unchecked")
+        private Map<K, V> partitionOf(Object key) {
+            return (Map<K, V>) partitions[Partitions.partitionOf(key, partitions.length)];
+        }
+
+        @Override
+        public V get(Object key) {
+            return partitionOf(key).get(key);
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return partitionOf(key).containsKey(key);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public Set<Entry<K, V>> entrySet() {
+            return new AbstractSet<Entry<K, V>>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public Iterator<Entry<K, V>> iterator() {
+                    return new ConcatenatedIterator<Map<?, ?>, Entry<K, V>>(
+                            partitions, partition -> ((Map<K, V>) partition).entrySet().iterator()
+                    );
+                }
+
+                @Override
+                public int size() {
+                    return size;
+                }
+            };
+        }
+    }
+
+    private static final class PartitionedSet<T> extends AbstractSet<T> {
+        private final Set<?>[] partitions;
+        private final int size;
+
+        private PartitionedSet(Set<?>[] partitions) {
+            this.partitions = partitions;
+            this.size = Arrays.stream(partitions).mapToInt(Set::size).sum();
+        }
+
+        @Override
+        public boolean contains(Object item) {
+            return partitions[partitionOf(item, partitions.length)].contains(item);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Iterator<T> iterator() {
+            return new ConcatenatedIterator<Set<?>, T>(partitions, partition -> ((Set<T>) partition).iterator());
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.github.borisskert;
+
+import java.util.Objects;
+
+/**
+ * Implements an immutable half-open interval {@code [lower, upper)} of {@link Comparable} values.
+ *
+ * @param <C> the type of the bounds
+ */
+public final class Range<C extends Comparable<? super C>> {
+
+    /* *****************************************************************************************************************
+     * Readonly fields
+     **************************************************************************************************************** */
+
+    private final C lower;
+    private final C upper;
+
+    /* *****************************************************************************************************************
+     * Constructor(s)
+     **************************************************************************************************************** */
+
+    private Range(C lower, C upper) {
+        this.lower = lower;
+        this.upper = upper;
+    }
+
+    /* *****************************************************************************************************************
+     * Public methods
+     **************************************************************************************************************** */
+
+    /**
+     * @return the lower bound (inclusive)
+     */
+    public C lower() {
+        return lower;
+    }
+
+    /**
+     * @return the upper bound (exclusive)
+     */
+    public C upper() {
+        return upper;
+    }
+
+    public boolean contains(C value) {
+        return lower.compareTo(value) <= 0 && value.compareTo(upper) < 0;
+    }
+
+    /**
+     * @return {@code true} if both ranges overlap or are adjacent
+     */
+    public boolean isConnected(Range<C> other) {
+        return lower.compareTo(other.upper) <= 0 && other.lower.compareTo(upper) <= 0;
+    }
+
+    /* *****************************************************************************************************************
+     * Overrides of Object
+     **************************************************************************************************************** */
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null) return false;
+        if (getClass() != o.getClass()) return false;
+
+        Range<?> range = (Range<?>) o;
+        return lower.equals(range.lower) && upper.equals(range.upper);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(lower, upper);
+    }
+
+    @Override
+    public String toString() {
+        return "[" + lower + ".." + upper + ")";
+    }
+
+    /* *****************************************************************************************************************
+     * Factory methods
+     **************************************************************************************************************** */
+
+    /**
+     * Creates the half-open {@link Range} {@code [lower, upper)}
+     *
+     * @param lower the lower bound (inclusive), must not be null
+     * @param upper the upper bound (exclusive), must not be null and greater than {@code lower}
+     * @param <C>   the type of the bounds
+     * @return a new instance of a {@link Range}
+     */
+    public static <C extends Comparable<? super C>> Range<C> of(C lower, C upper) {
+        Objects.requireNonNull(lower, "Parameter 'lower' must not be null");
+        Objects.requireNonNull(upper, "Parameter 'upper' must not be null");
+
+        if (lower.compareTo(upper) >= 0) {
+            throw new IllegalArgumentException(
+                    String.format("Parameter 'lower' (%s) must be less than 'upper' (%s)", lower, upper)
+            );
+        }
+
+        return new Range<>(lower, upper);
+    }
+}
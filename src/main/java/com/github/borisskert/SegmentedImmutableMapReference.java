@@ -0,0 +1,322 @@
+package com.github.borisskert;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.IntStream;
+
+/**
+ * Publishes immutable snapshots of a {@link Map} with frequent writes to lock-free readers.
+ * Attention: Works internal with N {@link HashMap} segments (never modified after they have been published) selected
+ * by the hash of the key. A write copies only the segment of its key, writes to different segments run in parallel.
+ * {@link #get(Object)} reads one segment without any lock. Each segment has a version stamp which is odd while the
+ * segment is being published, {@link #snapshot()} collects the N segments in O(N) and retries until no stamp has
+ * changed meanwhile, so the snapshot is consistent without holding back any writer.
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ */
+public final class SegmentedImmutableMapReference<K, V> {
+
+    /* *****************************************************************************************************************
+     * Constants
+     **************************************************************************************************************** */
+
+    private static final int DEFAULT_SEGMENT_COUNT = 16;
+
+    /* *****************************************************************************************************************
+     * Readonly fields
+     **************************************************************************************************************** */
+
+    /**
+     * Never modified after a segment has been published, but not wrapped, so the snapshot iterates the entries of each
+     * segment directly
+     */
+    private final AtomicReferenceArray<Map<K, V>> segments;
+
+    /**
+     * Incremented before and after a segment is published (by the holder of its lock only), so a stamp is odd while
+     * the segment is being published
+     */
+    private final AtomicLongArray segmentStamps;
+
+    /**
+     * Serialize the writers of each segment, {@link #putAll(Map)} takes the locks in ascending order
+     */
+    private final ReentrantLock[] segmentLocks;
+
+    /* *****************************************************************************************************************
+     * Constructor(s)
+     **************************************************************************************************************** */
+
+    public SegmentedImmutableMapReference() {
+        this(DEFAULT_SEGMENT_COUNT);
+    }
+
+    /**
+     * @param segmentCount the minimal number of segments, rounded up to a power of two
+     */
+    public SegmentedImmutableMapReference(int segmentCount) {
+        if (segmentCount < 1 || segmentCount > 1 << 16) {
+            throw new IllegalArgumentException("Parameter 'segmentCount' must be between 1 and 65536");
+        }
+
+        int length = Integer.highestOneBit(segmentCount * 2 - 1);
+
+        this.segments = new AtomicReferenceArray<>(length);
+        this.segmentStamps = new AtomicLongArray(length);
+        this.segmentLocks = new ReentrantLock[length];
+
+        for (int index = 0; index < length; index++) {
+            segments.set(index, Collections.emptyMap());
+            segmentLocks[index] = new ReentrantLock();
+        }
+    }
+
+    /* *****************************************************************************************************************
+     * Public methods
+     **************************************************************************************************************** */
+
+    /**
+     * Reads the value of the specified key from the current state of its segment (lock-free)
+     */
+    public V get(Object key) {
+        return key == null ? null : segments.get(segmentOf(key)).get(key);
+    }
+
+    public boolean containsKey(Object key) {
+        return key != null && segments.get(segmentOf(key)).containsKey(key);
+    }
+
+    public void put(K key, V value) {
+        Objects.requireNonNull(key, "Parameter 'key' must not be null");
+        Objects.requireNonNull(value, "Parameter 'value' must not be null");
+
+        int segment = segmentOf(key);
+        ReentrantLock segmentLock = segmentLocks[segment];
+
+        segmentLock.lock();
+
+        try {
+            long start = ImmutableCollectionMetrics.start();
+            HashMap<K, V> map = ImmutableMap.mutableCopy(segments.get(segment));
+            map.put(key, value);
+            publish(segment, map, start);
+        } finally {
+            segmentLock.unlock();
+        }
+    }
+
+    /**
+     * Puts the specified entries, copies each affected segment once. A snapshot contains all or none of them.
+     */
+    public void putAll(Map<? extends K, ? extends V> entries) {
+        Objects.requireNonNull(entries, "Parameter 'entries' must not be null");
+
+        List<List<Map.Entry<? extends K, ? extends V>>> entriesBySegment = new ArrayList<>(segments.length());
+
+        for (int segment = 0; segment < segments.length(); segment++) {
+            entriesBySegment.add(new ArrayList<>());
+        }
+
+        for (Map.Entry<? extends K, ? extends V> entry : entries.entrySet()) {
+            Objects.requireNonNull(entry.getKey(), "Keys must not be null");
+            Objects.requireNonNull(entry.getValue(), "Values must not be null");
+
+            entriesBySegment.get(segmentOf(entry.getKey())).add(entry);
+        }
+
+        int[] affectedSegments = IntStream.range(0, segments.length())
+                .filter(segment -> !entriesBySegment.get(segment).isEmpty())
+                .toArray();
+        int lockedCount = 0;
+
+        try {
+            for (int segment : affectedSegments) {
+                segmentLocks[segment].lock();
+                lockedCount++;
+            }
+
+            long start = ImmutableCollectionMetrics.start();
+            List<HashMap<K, V>> maps = new ArrayList<>(affectedSegments.length);
+
+            for (int segment : affectedSegments) {
+                HashMap<K, V> map = ImmutableMap.mutableCopy(segments.get(segment));
+
+                for (Map.Entry<? extends K, ? extends V> entry : entriesBySegment.get(segment)) {
+                    map.put(entry.getKey(), entry.getValue());
+                }
+
+                maps.add(map);
+            }
+
+            for (int segment : affectedSegments) {
+                segmentStamps.incrementAndGet(segment);
+            }
+
+            int size = 0;
+
+            for (int index = 0; index < affectedSegments.length; index++) {
+                segments.set(affectedSegments[index], maps.get(index));
+                size += maps.get(index).size();
+            }
+
+            for (int segment : affectedSegments) {
+                segmentStamps.incrementAndGet(segment);
+            }
+
+            if (affectedSegments.length > 0) {
+                ImmutableCollectionMetrics.constructed(ImmutableMap.class, size, size, start);
+            }
+        } finally {
+            for (int index = 0; index < lockedCount; index++) {
+                segmentLocks[affectedSegments[index]].unlock();
+            }
+        }
+    }
+
+    public void remove(Object key) {
+        if (!containsKey(key)) {
+            return;
+        }
+
+        int segment = segmentOf(key);
+        ReentrantLock segmentLock = segmentLocks[segment];
+
+        segmentLock.lock();
+
+        try {
+            long start = ImmutableCollectionMetrics.start();
+            HashMap<K, V> map = ImmutableMap.mutableCopy(segments.get(segment));
+            map.remove(key);
+            publish(segment, map, start);
+        } finally {
+            segmentLock.unlock();
+        }
+    }
+
+    /**
+     * Provides a consistent snapshot of all segments in O(N) without blocking any writer: collects the segments again
+     * until no segment has been published meanwhile
+     *
+     * @return an immutable {@link Map} view of the current segments
+     */
+    public Map<K, V> snapshot() {
+        Map<?, ?>[] snapshot = new Map<?, ?>[segments.length()];
+        long[] stamps = new long[segments.length()];
+
+        while (!collect(snapshot, stamps)) {
+            Thread.yield();
+        }
+
+        return ImmutableMap.view(new Segments<>(snapshot));
+    }
+
+    /* *****************************************************************************************************************
+     * Private methods
+     **************************************************************************************************************** */
+
+    private int segmentOf(Object key) {
+        return spread(key.hashCode()) & (segments.length() - 1);
+    }
+
+    /**
+     * Called by the holder of the lock of the segment only
+     */
+    private void publish(int segment, HashMap<K, V> map, long start) {
+        segmentStamps.incrementAndGet(segment);
+        segments.set(segment, map);
+        segmentStamps.incrementAndGet(segment);
+        ImmutableCollectionMetrics.constructed(ImmutableMap.class, map.size(), map.size(), start);
+    }
+
+    /**
+     * @return {@code true} if the collected segments are consistent, {@code false} if a segment has been published
+     * meanwhile
+     */
+    private boolean collect(Map<?, ?>[] snapshot, long[] stamps) {
+        for (int segment = 0; segment < stamps.length; segment++) {
+            long stamp = segmentStamps.get(segment);
+
+            if ((stamp & 1) != 0) {
+                return false;
+            }
+
+            stamps[segment] = stamp;
+        }
+
+        for (int segment = 0; segment < snapshot.length; segment++) {
+            snapshot[segment] = segments.get(segment);
+        }
+
+        for (int segment = 0; segment < stamps.length; segment++) {
+            if (segmentStamps.get(segment) != stamps[segment]) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Differs from the spreading of {@link HashMap}, so the keys of one segment are still distributed over the
+     * buckets of its {@link HashMap}
+     */
+    private static int spread(int hashCode) {
+        int h = hashCode * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /* *****************************************************************************************************************
+     * Inner class(es)
+     **************************************************************************************************************** */
+
+    private static final class Segments<K, V> extends AbstractMap<K, V> {
+        private final Map<?, ?>[] segments;
+        private final int size;
+
+        private Segments(Map<?, ?>[] segments) {
+            this.segments = segments;
+            this.size = Arrays.stream(segments).mapToInt(Map::size).sum();
+        }
+
+        @SuppressWarnings("unchecked")
+        private Map<K, V> segmentOf(Object key) {
+            return (Map<K, V>) segments[spread(key.hashCode()) & (segments.length - 1)];
+        }
+
+        @Override
+        public V get(Object key) {
+            return key == null ? null : segmentOf(key).get(key);
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return key != null && segmentOf(key).containsKey(key);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public Set<Entry<K, V>> entrySet() {
+            return new AbstractSet<Entry<K, V>>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public Iterator<Entry<K, V>> iterator() {
+                    return new ConcatenatedIterator<Map<?, ?>, Entry<K, V>>(
+                            segments, segment -> ((Map<K, V>) segment).entrySet().iterator()
+                    );
+                }
+
+                @Override
+                public int size() {
+                    return size;
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package com.github.borisskert;
+
+import java.util.*;
+
+/**
+ * Backing {@link List} of a sorted {@link ImmutableList}: an array slice sorted by a recorded {@link Comparator}, so
+ * {@link #contains(Object)}, {@link #indexOf(Object)} and {@link #lastIndexOf(Object)} take O(log n) by binary search
+ * (plus the items ordered equally by the {@link Comparator}, which are told apart by {@link Object#equals(Object)}).
+ * Attention: Never modified after construction, so it is safe for concurrent readers.
+ *
+ * @param <T> the item type
+ */
+final class SortedItems<T> extends AbstractList<T> implements RandomAccess {
+
+    /* *****************************************************************************************************************
+     * Readonly fields
+     **************************************************************************************************************** */
+
+    private final Object[] items;
+    private final int from;
+    private final int to;
+    private final Comparator<? super T> comparator;
+
+    /* *****************************************************************************************************************
+     * Constructor(s)
+     **************************************************************************************************************** */
+
+    SortedItems(Object[] items, int from, int to, Comparator<? super T> comparator) {
+        this.items = items;
+        this.from = from;
+        this.to = to;
+        this.comparator = comparator;
+    }
+
+    /* *****************************************************************************************************************
+     * Implementation of List<T>
+     **************************************************************************************************************** */
+
+    @Override
+    public T get(int index) {
+        if (index < 0 || index >= to - from) {
+            throw new IndexOutOfBoundsException("Index: " + index);
+        }
+
+        return itemAt(from + index);
+    }
+
+    @Override
+    public int size() {
+        return to - from;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return indexOf(o) >= 0;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public int indexOf(Object o) {
+        int low;
+
+        try {
+            low = firstIndex((T) o, false);
+        } catch (ClassCastException | NullPointerException e) {
+            return super.indexOf(o);
+        }
+
+        for (int index = low; index < to && comparator.compare(itemAt(index), (T) o) == 0; index++) {
+            if (Objects.equals(o, items[index])) {
+                return index - from;
+            }
+        }
+
+        return -1;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public int lastIndexOf(Object o) {
+        int high;
+
+        try {
+            high = firstIndex((T) o, true);
+        } catch (ClassCastException | NullPointerException e) {
+            return super.lastIndexOf(o);
+        }
+
+        for (int index = high - 1; index >= from && comparator.compare(itemAt(index), (T) o) == 0; index--) {
+            if (Objects.equals(o, items[index])) {
+                return index - from;
+            }
+        }
+
+        return -1;
+    }
+
+    @Override
+    public Object[] toArray() {
+        return Arrays.copyOfRange(items, from, to);
+    }
+
+    /* *****************************************************************************************************************
+     * Package-private methods
+     **************************************************************************************************************** */
+
+    /**
+     * @return the index of an item ordered equally to the specified key or {@code -(insertion point) - 1}, like
+     * {@link Collections#binarySearch(List, Object, Comparator)}
+     */
+    int binarySearch(T key) {
+        int low = firstIndex(key, false);
+
+        if (low < to && comparator.compare(itemAt(low), key) == 0) {
+            return low - from;
+        }
+
+        return -(low - from) - 1;
+    }
+
+    /**
+     * @return a view of the items from {@code fromInclusive} (inclusive) to {@code toExclusive} (exclusive)
+     */
+    SortedItems<T> range(T fromInclusive, T toExclusive) {
+        int rangeFrom = firstIndex(fromInclusive, false);
+        int rangeTo = Math.max(rangeFrom, firstIndex(toExclusive, false));
+
+        return new SortedItems<>(items, rangeFrom, rangeTo, comparator);
+    }
+
+    /* *****************************************************************************************************************
+     * Private methods
+     **************************************************************************************************************** */
+
+    @SuppressWarnings("unchecked")
+    private T itemAt(int absoluteIndex) {
+        return (T) items[absoluteIndex];
+    }
+
+    /**
+     * @param after {@code true} to find the first item ordered after the specified key, {@code false} to find the
+     *              first item not ordered before it
+     * @return the first absolute index in {@code from} to {@code to} of such an item or {@code to}
+     */
+    private int firstIndex(T key, boolean after) {
+        int low = from;
+        int high = to;
+
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            int comparison = comparator.compare(itemAt(middle), key);
+
+            if (comparison < 0 || after && comparison == 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+
+        return low;
+    }
+
+    /* *****************************************************************************************************************
+     * Factory methods
+     **************************************************************************************************************** */
+
+    /**
+     * Merges the specified sorted lists in O(n log k) with a heap of the heads of the lists. Equally ordered items
+     * keep the order of the lists.
+     *
+     * @throws IllegalArgumentException if a list is not sorted by the {@link Comparator}
+     */
+    @SuppressWarnings("unchecked")
+    static <T> SortedItems<T> merge(Collection<? extends List<? extends T>> sortedLists, Comparator<? super T> comparator) {
+        List<Iterator<? extends T>> iterators = new ArrayList<>(sortedLists.size());
+        int size = 0;
+
+        for (List<? extends T> sortedList : sortedLists) {
+            iterators.add(sortedList.iterator());
+            size = Math.addExact(size, sortedList.size());
+        }
+
+        Object[] heads = new Object[iterators.size()];
+        PriorityQueue<Integer> heap = new PriorityQueue<>(Math.max(1, iterators.size()), (list, otherList) -> {
+            int comparison = comparator.compare((T) heads[list], (T) heads[otherList]);
+            return comparison != 0 ? comparison : Integer.compare(list, otherList);
+        });
+
+        for (int list = 0; list < iterators.size(); list++) {
+            if (iterators.get(list).hasNext()) {
+                heads[list] = iterators.get(list).next();
+                heap.add(list);
+            }
+        }
+
+        Object[] merged = new Object[size];
+        int index = 0;
+
+        while (!heap.isEmpty()) {
+            int list = heap.poll();
+            T head = (T) heads[list];
+
+            if (index == merged.length) {
+                merged = Arrays.copyOf(merged, index + (index >> 1) + 1);
+            }
+
+            merged[index++] = head;
+
+            Iterator<? extends T> iterator = iterators.get(list);
+
+            if (iterator.hasNext()) {
+                T next = iterator.next();
+
+                if (comparator.compare(head, next) > 0) {
+                    throw new IllegalArgumentException(
+                            String.format("List %d is not sorted, %s is ordered before %s", list, head, next)
+                    );
+                }
+
+                heads[list] = next;
+                heap.add(list);
+            }
+        }
+
+        return new SortedItems<>(merged, 0, index, comparator);
+    }
+}
@@ -0,0 +1,222 @@
+package com.github.borisskert;
+
+import java.util.*;
+
+/**
+ * Stores disjoint {@link Range}s (and optionally a value of each range) sorted by their bounds in parallel arrays of
+ * lower bounds, upper bounds and values. A slice shares the arrays and clips the bounds of its first and its last
+ * range to its limits.
+ * Attention: Never modified after construction, so it is safe for concurrent readers.
+ *
+ * @param <C> the type of the bounds
+ */
+final class SortedRanges<C extends Comparable<? super C>> {
+
+    /* *****************************************************************************************************************
+     * Constants
+     **************************************************************************************************************** */
+
+    @SuppressWarnings("rawtypes")
+    static final SortedRanges EMPTY = new SortedRanges<>(new Object[0], new Object[0], null, 0, 0, null, null);
+
+    /* *****************************************************************************************************************
+     * Readonly fields
+     **************************************************************************************************************** */
+
+    private final Object[] lowers;
+    private final Object[] uppers;
+    private final Object[] values;
+
+    private final int from;
+    private final int to;
+
+    /**
+     * The limits of a slice, {@code null} if not limited
+     */
+    private final C lowerLimit;
+    private final C upperLimit;
+
+    /* *****************************************************************************************************************
+     * Constructor(s)
+     **************************************************************************************************************** */
+
+    private SortedRanges(Object[] lowers, Object[] uppers, Object[] values, int from, int to, C lowerLimit, C upperLimit) {
+        this.lowers = lowers;
+        this.uppers = uppers;
+        this.values = values;
+        this.from = from;
+        this.to = to;
+        this.lowerLimit = lowerLimit;
+        this.upperLimit = upperLimit;
+    }
+
+    /* *****************************************************************************************************************
+     * Package-private methods
+     **************************************************************************************************************** */
+
+    int size() {
+        return to - from;
+    }
+
+    C lowerAt(int index) {
+        C lower = boundAt(lowers, index);
+        return lowerLimit != null && lowerLimit.compareTo(lower) > 0 ? lowerLimit : lower;
+    }
+
+    C upperAt(int index) {
+        C upper = boundAt(uppers, index);
+        return upperLimit != null && upperLimit.compareTo(upper) < 0 ? upperLimit : upper;
+    }
+
+    Range<C> rangeAt(int index) {
+        return Range.of(lowerAt(index), upperAt(index));
+    }
+
+    @SuppressWarnings("unchecked")
+    <V> V valueAt(int index) {
+        return (V) values[from + index];
+    }
+
+    /**
+     * Binary search for the range containing the specified value in O(log n)
+     *
+     * @return the index of the range containing the specified value or {@code -1}
+     */
+    int indexOf(C value) {
+        if (value == null
+                || lowerLimit != null && value.compareTo(lowerLimit) < 0
+                || upperLimit != null && value.compareTo(upperLimit) >= 0) {
+            return -1;
+        }
+
+        int index = firstIndex(lowers, value, true) - 1;
+
+        if (index < from || value.compareTo(bound(uppers, index)) >= 0) {
+            return -1;
+        }
+
+        return index - from;
+    }
+
+    /**
+     * @return a view of the ranges intersecting the specified {@link Range}, clipped to it
+     */
+    SortedRanges<C> slice(Range<C> range) {
+        C lower = lowerLimit != null && lowerLimit.compareTo(range.lower()) > 0 ? lowerLimit : range.lower();
+        C upper = upperLimit != null && upperLimit.compareTo(range.upper()) < 0 ? upperLimit : range.upper();
+
+        if (lower.compareTo(upper) >= 0) {
+            return new SortedRanges<>(lowers, uppers, values, from, from, lower, lower);
+        }
+
+        int sliceFrom = firstIndex(uppers, lower, true);
+        int sliceTo = Math.max(sliceFrom, firstIndex(lowers, upper, false));
+
+        return new SortedRanges<>(lowers, uppers, values, sliceFrom, sliceTo, lower, upper);
+    }
+
+    /* *****************************************************************************************************************
+     * Private methods
+     **************************************************************************************************************** */
+
+    private C boundAt(Object[] bounds, int index) {
+        return bound(bounds, from + index);
+    }
+
+    @SuppressWarnings("unchecked")
+    private C bound(Object[] bounds, int absoluteIndex) {
+        return (C) bounds[absoluteIndex];
+    }
+
+    /**
+     * @param inclusive {@code true} to find the first bound greater than the value, {@code false} to find the first
+     *                  bound greater than or equal to the value
+     * @return the first absolute index in {@code from} to {@code to} of such a bound or {@code to}
+     */
+    private int firstIndex(Object[] bounds, C value, boolean inclusive) {
+        int low = from;
+        int high = to;
+
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            int comparison = bound(bounds, middle).compareTo(value);
+
+            if (comparison < 0 || inclusive && comparison == 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+
+        return low;
+    }
+
+    /* *****************************************************************************************************************
+     * Factory methods
+     **************************************************************************************************************** */
+
+    /**
+     * Sorts the specified ranges and merges the connected ones (overlapping or adjacent)
+     *
+     * @param entries    the ranges with their values
+     * @param withValues {@code true} to keep the values: connected ranges are merged only if their values are equal,
+     *                   overlapping ranges with different values are rejected
+     */
+    @SuppressWarnings("unchecked")
+    static <C extends Comparable<? super C>> SortedRanges<C> of(
+            List<Map.Entry<Range<C>, Object>> entries,
+            boolean withValues
+    ) {
+        List<Map.Entry<Range<C>, Object>> sorted = new ArrayList<>(entries);
+        sorted.sort(Comparator.comparing(
+                (Map.Entry<Range<C>, Object> entry) -> entry.getKey().lower()
+        ).thenComparing(entry -> entry.getKey().upper()));
+
+        Object[] lowers = new Object[sorted.size()];
+        Object[] uppers = new Object[sorted.size()];
+        Object[] values = withValues ? new Object[sorted.size()] : null;
+        int size = 0;
+
+        for (Map.Entry<Range<C>, Object> entry : sorted) {
+            Range<C> range = entry.getKey();
+
+            if (size > 0) {
+                C upper = (C) uppers[size - 1];
+                int comparison = range.lower().compareTo(upper);
+
+                if (comparison <= 0 && (!withValues || Objects.equals(values[size - 1], entry.getValue()))) {
+                    uppers[size - 1] = range.upper().compareTo(upper) > 0 ? range.upper() : upper;
+                    continue;
+                }
+
+                if (comparison < 0) {
+                    throw new UnsupportedOperationException(
+                            String.format(
+                                    "Overlapping ranges %s and %s (attempted merging values %s and %s)",
+                                    Range.of((C) lowers[size - 1], upper), range, values[size - 1], entry.getValue()
+                            )
+                    );
+                }
+            }
+
+            lowers[size] = range.lower();
+            uppers[size] = range.upper();
+
+            if (withValues) {
+                values[size] = entry.getValue();
+            }
+
+            size++;
+        }
+
+        return new SortedRanges<>(
+                Arrays.copyOf(lowers, size),
+                Arrays.copyOf(uppers, size),
+                withValues ? Arrays.copyOf(values, size) : null,
+                0,
+                size,
+                null,
+                null
+        );
+    }
+}
@@ -0,0 +1,43 @@
+package com.github.borisskert;
+
+import java.util.List;
+
+/**
+ * Chooses the backing {@link List} of an {@link ImmutableList}.
+ * Attention: This is the Java 9+ implementation of the multi-release jar. Lists without {@code null} items are
+ * stored in the compact JDK immutable {@link List} ({@code List.of}), all others are kept in an array.
+ * Sets and maps are not replaced: {@code Set.of} and {@code Map.ofEntries} randomize their iteration order per JVM.
+ */
+final class JdkCollections {
+
+    private static final Class<?> LIST_12_CLASS = List.of(1).getClass();
+    private static final Class<?> LIST_N_CLASS = List.of(1, 2, 3).getClass();
+    private static final Class<?> SUB_LIST_CLASS = List.of(1, 2, 3).subList(0, 2).getClass();
+
+    private JdkCollections() {
+    }
+
+    /**
+     * Scans the items for {@code null} and copies them once into {@code List.of}
+     */
+    @SuppressWarnings("unchecked")
+    static <T> List<T> compactList(Object[] items) {
+        for (Object item : items) {
+            if (item == null) {
+                return null;
+            }
+        }
+
+        return (List<T>) List.of(items);
+    }
+
+    static boolean isCompactList(List<?> list) {
+        Class<?> listClass = list.getClass();
+        return listClass == LIST_N_CLASS || listClass == LIST_12_CLASS;
+    }
+
+    static boolean rejectsNullQueries(List<?> list) {
+        Class<?> listClass = list.getClass();
+        return listClass == LIST_N_CLASS || listClass == LIST_12_CLASS || listClass == SUB_LIST_CLASS;
+    }
+}
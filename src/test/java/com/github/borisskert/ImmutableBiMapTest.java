@@ -0,0 +1,134 @@
+package com.github.borisskert;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.fail;
+
+class ImmutableBiMapTest {
+
+    private ImmutableBiMap<String, String> emptyBiMap;
+    private ImmutableBiMap<String, String> biMap;
+    private Map<String, String> hashMap;
+
+    @BeforeEach
+    public void setup() throws Exception {
+        emptyBiMap = ImmutableBiMap.empty();
+
+        biMap = ImmutableBiMap.of(
+                ImmutableMap.entry("1", "A"),
+                ImmutableMap.entry("2", "B"),
+                ImmutableMap.entry("3", "C")
+        );
+
+        hashMap = new HashMap<>();
+        hashMap.put("1", "A");
+        hashMap.put("2", "B");
+        hashMap.put("3", "C");
+    }
+
+    @Test
+    public void shouldHaveSpecificSize() throws Exception {
+        assertThat(biMap.size(), is(equalTo(3)));
+        assertThat(biMap.isEmpty(), is(false));
+
+        assertThat(emptyBiMap.size(), is(equalTo(0)));
+        assertThat(emptyBiMap.isEmpty(), is(true));
+    }
+
+    @Test
+    public void shouldProvideValues() throws Exception {
+        assertThat(biMap.get("1"), is(equalTo("A")));
+        assertThat(biMap.get("3"), is(equalTo("C")));
+        assertThat(biMap.get("4"), is(nullValue()));
+        assertThat(biMap.get(null), is(nullValue()));
+
+        assertThat(biMap.containsKey("2"), is(true));
+        assertThat(biMap.containsKey("B"), is(false));
+        assertThat(biMap.containsValue("B"), is(true));
+        assertThat(biMap.containsValue("2"), is(false));
+
+        assertThat(biMap.keySet(), contains("1", "2", "3"));
+        assertThat(biMap.values(), contains("A", "B", "C"));
+    }
+
+    @Test
+    public void shouldProvideInverse() throws Exception {
+        ImmutableBiMap<String, String> inverse = biMap.inverse();
+
+        assertThat(inverse.get("A"), is(equalTo("1")));
+        assertThat(inverse.get("1"), is(nullValue()));
+        assertThat(inverse.keySet(), contains("A", "B", "C"));
+        assertThat(inverse.toString(), is(equalTo("{A=1, B=2, C=3}")));
+
+        assertThat(biMap.inverse(), is(sameInstance(inverse)));
+        assertThat(inverse.inverse(), is(sameInstance(biMap)));
+        assertThat(emptyBiMap.inverse().isEmpty(), is(true));
+    }
+
+    @Test
+    public void shouldBeEqualToMap() throws Exception {
+        assertThat(biMap, is(equalTo(hashMap)));
+        assertThat(hashMap, is(equalTo(biMap)));
+        assertThat(biMap.hashCode(), is(equalTo(hashMap.hashCode())));
+        assertThat(biMap.entrySet(), is(equalTo(hashMap.entrySet())));
+
+        assertThat(ImmutableBiMap.of(hashMap), is(equalTo(biMap)));
+        assertThat(biMap, is(not(equalTo(biMap.inverse()))));
+        assertThat(biMap, is(not(equalTo(emptyBiMap))));
+    }
+
+    @Test
+    public void shouldNotAllowToPutElement() throws Exception {
+        try {
+            biMap.put("4", "D");
+            fail("Should throw UnsupportedOperationException");
+        } catch (UnsupportedOperationException e) {
+            assertThat(e.getMessage(), is(equalTo("You must not put an element to this map")));
+        }
+
+        try {
+            biMap.inverse().remove("A");
+            fail("Should throw UnsupportedOperationException");
+        } catch (UnsupportedOperationException e) {
+            assertThat(e.getMessage(), is(equalTo("You must not remove an element from this map")));
+        }
+    }
+
+    @Test
+    public void shouldNotAllowDuplicateKeysOrValues() throws Exception {
+        try {
+            ImmutableBiMap.of(ImmutableMap.entry("1", "A"), ImmutableMap.entry("1", "B"));
+            fail("Should throw UnsupportedOperationException");
+        } catch (UnsupportedOperationException e) {
+            assertThat(e.getMessage(), is(equalTo("Duplicate key 1 (attempted merging values A and B)")));
+        }
+
+        try {
+            Stream.of("A", "B", "a")
+                    .collect(ImmutableBiMap.collect(Function.identity(), String::toUpperCase));
+            fail("Should throw UnsupportedOperationException");
+        } catch (UnsupportedOperationException e) {
+            assertThat(e.getMessage(), is(equalTo("Duplicate value A (attempted merging keys A and a)")));
+        }
+    }
+
+    @Test
+    public void shouldCollectInParallel() throws Exception {
+        ImmutableBiMap<Integer, String> collected = IntStream.range(0, 10_000)
+                .boxed()
+                .parallel()
+                .collect(ImmutableBiMap.collect(Function.identity(), String::valueOf));
+
+        assertThat(collected.size(), is(equalTo(10_000)));
+        assertThat(collected.get(1234), is(equalTo("1234")));
+        assertThat(collected.inverse().get("1234"), is(equalTo(1234)));
+    }
+}
@@ -0,0 +1,137 @@
+package com.github.borisskert;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+
+class ImmutableCollectionMetricsTest {
+
+    private ImmutableCollectionMetrics.Counters counters;
+
+    @BeforeEach
+    public void setup() throws Exception {
+        counters = new ImmutableCollectionMetrics.Counters();
+        ImmutableCollectionMetrics.register(counters);
+    }
+
+    @AfterEach
+    public void teardown() throws Exception {
+        ImmutableCollectionMetrics.unregister();
+    }
+
+    @Test
+    public void shouldCountConstructionsAndCopiedElements() throws Exception {
+        ImmutableList.of(new String[]{"A", "B", "C"});
+        ImmutableSet.of(ImmutableList.of(new String[]{"A", "B"}));
+
+        assertThat(counters.constructions(ImmutableList.class), is(equalTo(2L)));
+        assertThat(counters.copiedElements(ImmutableList.class), is(equalTo(5L)));
+
+        assertThat(counters.constructions(ImmutableSet.class), is(equalTo(1L)));
+        assertThat(counters.copiedElements(ImmutableSet.class), is(equalTo(2L)));
+
+        assertThat(counters.constructions(ImmutableMap.class), is(equalTo(0L)));
+    }
+
+    @Test
+    public void shouldCountCopiesOfMaps() throws Exception {
+        Map<String, String> hashMap = new HashMap<>();
+        hashMap.put("1", "A");
+        hashMap.put("2", "B");
+
+        ImmutableMap.of(hashMap);
+
+        assertThat(counters.constructions(ImmutableMap.class), is(equalTo(1L)));
+        assertThat(counters.copiedElements(ImmutableMap.class), is(equalTo(2L)));
+    }
+
+    @Test
+    public void shouldProvideSizeDistribution() throws Exception {
+        ImmutableList.of(new String[0]);
+        ImmutableList.of("A");
+        ImmutableList.of("A", "B", "C");
+
+        long[] distribution = counters.sizeDistribution(ImmutableList.class);
+
+        assertThat(distribution[0], is(equalTo(1L)));
+        assertThat(distribution[1], is(equalTo(1L)));
+        assertThat(distribution[2], is(equalTo(1L)));
+        assertThat(distribution[3], is(equalTo(0L)));
+    }
+
+    @Test
+    public void shouldCountCombinerMerges() throws Exception {
+        Map<Integer, Integer> map = IntStream.range(0, 10_000)
+                .boxed()
+                .parallel()
+                .collect(ImmutableMap.collect(Function.identity(), Function.identity()));
+
+        assertThat(map.size(), is(equalTo(10_000)));
+        assertThat(counters.constructions(ImmutableMap.class), is(equalTo(1L)));
+        assertThat(counters.combines(ImmutableMap.class) > 0, is(true));
+    }
+
+    @Test
+    public void shouldNotCountAfterUnregister() throws Exception {
+        ImmutableCollectionMetrics.unregister();
+
+        IntStream.range(0, 10).boxed().collect(ImmutableList.collect());
+
+        assertThat(counters.constructions(ImmutableList.class), is(equalTo(0L)));
+    }
+
+    @Test
+    public void shouldReportOperations() throws Exception {
+        List<String> operations = new ArrayList<>();
+        ImmutableCollectionMetrics.register(new ImmutableCollectionMetrics.Counters() {
+            @Override
+            public void onOperation(Class<?> type, ImmutableCollectionMetrics.Operation operation, int size, long durationNanos) {
+                operations.add(type.getSimpleName() + "." + operation + "(" + size + ")");
+            }
+        });
+
+        List<String> list = ImmutableList.of("A", "B", "C");
+        Map<String, String> map = ImmutableMap.of(ImmutableMap.entry("1", "A"));
+
+        list.equals(ImmutableList.of("A", "B", "C"));
+        list.containsAll(ImmutableList.of("A"));
+        map.entrySet();
+        map.hashCode();
+
+        assertThat(operations, contains(
+                "ImmutableList.EQUALS(3)",
+                "ImmutableList.CONTAINS_ALL(3)",
+                "ImmutableMap.HASH_CODE(1)"
+        ));
+    }
+
+    @Test
+    public void shouldNotifySeveralListeners() throws Exception {
+        ImmutableCollectionMetrics.Counters otherCounters = new ImmutableCollectionMetrics.Counters();
+        ImmutableCollectionMetrics.register(otherCounters);
+        ImmutableCollectionMetrics.register(otherCounters);
+
+        ImmutableList.of("A", "B", "C");
+
+        assertThat(counters.constructions(ImmutableList.class), is(equalTo(1L)));
+        assertThat(otherCounters.constructions(ImmutableList.class), is(equalTo(1L)));
+
+        ImmutableCollectionMetrics.unregister(otherCounters);
+        ImmutableList.of("A", "B", "C");
+
+        assertThat(counters.constructions(ImmutableList.class), is(equalTo(2L)));
+        assertThat(otherCounters.constructions(ImmutableList.class), is(equalTo(1L)));
+    }
+}
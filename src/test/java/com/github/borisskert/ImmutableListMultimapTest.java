@@ -0,0 +1,128 @@
+package com.github.borisskert;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.fail;
+
+class ImmutableListMultimapTest {
+
+    private ImmutableListMultimap<String, String> emptyMultimap;
+    private ImmutableListMultimap<String, String> multimap;
+
+    @BeforeEach
+    public void setup() throws Exception {
+        emptyMultimap = ImmutableListMultimap.empty();
+
+        multimap = Stream.of("A1", "B1", "A2", "C1", "A1")
+                .collect(ImmutableListMultimap.collect(item -> item.substring(0, 1), Function.identity()));
+    }
+
+    @Test
+    public void shouldHaveSpecificSize() throws Exception {
+        assertThat(multimap.size(), is(equalTo(5)));
+        assertThat(multimap.isEmpty(), is(false));
+
+        assertThat(emptyMultimap.size(), is(equalTo(0)));
+        assertThat(emptyMultimap.isEmpty(), is(true));
+    }
+
+    @Test
+    public void shouldProvideValuesOfKey() throws Exception {
+        assertThat(multimap.get("A"), is(equalTo(Arrays.asList("A1", "A2", "A1"))));
+        assertThat(multimap.get("B"), is(equalTo(Collections.singletonList("B1"))));
+        assertThat(multimap.get("C"), is(equalTo(Collections.singletonList("C1"))));
+        assertThat(multimap.get("D"), is(empty()));
+        assertThat(multimap.get(null), is(empty()));
+
+        assertThat(emptyMultimap.get("A"), is(empty()));
+    }
+
+    @Test
+    public void shouldProvideImmutableValues() throws Exception {
+        List<String> values = multimap.get("A");
+
+        assertThat(values, is(instanceOf(ImmutableList.class)));
+
+        try {
+            values.add("A3");
+            fail("Should throw UnsupportedOperationException");
+        } catch (UnsupportedOperationException e) {
+            assertThat(e.getMessage(), is(equalTo("You must not add an element to this list")));
+        }
+    }
+
+    @Test
+    public void shouldIndicateIfContainsKeyOrEntry() throws Exception {
+        assertThat(multimap.containsKey("A"), is(true));
+        assertThat(multimap.containsKey("D"), is(false));
+
+        assertThat(multimap.containsEntry("A", "A2"), is(true));
+        assertThat(multimap.containsEntry("B", "A2"), is(false));
+        assertThat(multimap.containsEntry("D", "A2"), is(false));
+    }
+
+    @Test
+    public void shouldProvideKeysAndValuesInOrderOfFirstOccurrence() throws Exception {
+        assertThat(multimap.keySet(), contains("A", "B", "C"));
+        assertThat(multimap.keySet().contains("B"), is(true));
+        assertThat(multimap.values(), contains("A1", "A2", "A1", "B1", "C1"));
+    }
+
+    @Test
+    public void shouldCreateFromMap() throws Exception {
+        Map<String, List<String>> map = new LinkedHashMap<>();
+        map.put("A", Arrays.asList("A1", "A2", "A1"));
+        map.put("B", Collections.singletonList("B1"));
+        map.put("C", Collections.singletonList("C1"));
+
+        ImmutableListMultimap<String, String> fromMap = ImmutableListMultimap.of(map);
+
+        assertThat(fromMap, is(equalTo(multimap)));
+        assertThat(fromMap.hashCode(), is(equalTo(multimap.hashCode())));
+        assertThat(fromMap.hashCode(), is(equalTo(map.hashCode())));
+        assertThat(fromMap.toString(), is(equalTo(map.toString())));
+    }
+
+    @Test
+    public void shouldNotEqualMultimapWithDifferentValues() throws Exception {
+        ImmutableListMultimap<String, String> other = Stream.of("A1", "B1", "A2", "C1")
+                .collect(ImmutableListMultimap.collect(item -> item.substring(0, 1), Function.identity()));
+
+        assertThat(other, is(not(equalTo(multimap))));
+        assertThat(emptyMultimap, is(not(equalTo(multimap))));
+    }
+
+    @Test
+    public void shouldCollectParallelStreams() throws Exception {
+        ImmutableListMultimap<Integer, Integer> collected = IntStream.range(0, 100_000)
+                .boxed()
+                .parallel()
+                .collect(ImmutableListMultimap.collect(item -> item % 7, Function.identity()));
+
+        assertThat(collected.size(), is(equalTo(100_000)));
+        assertThat(collected.keySet(), hasSize(7));
+
+        List<Integer> values = collected.get(3);
+        assertThat(values.get(0), is(equalTo(3)));
+        assertThat(values.get(1), is(equalTo(10)));
+        assertThat(values.get(values.size() - 1), is(equalTo(99_999 - (99_999 - 3) % 7)));
+    }
+
+    @Test
+    public void shouldNotAllowNullValues() throws Exception {
+        try {
+            Stream.of("A").collect(ImmutableListMultimap.collect(Function.identity(), item -> null));
+            fail("Should throw NullPointerException");
+        } catch (NullPointerException e) {
+            assertThat(e.getMessage(), is(equalTo("Values must not be null")));
+        }
+    }
+}
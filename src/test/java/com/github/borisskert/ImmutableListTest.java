@@ -2,13 +2,22 @@ package com.github.borisskert;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 import static org.hamcrest.CoreMatchers.instanceOf;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
 import static org.hamcrest.core.Is.is;
 import static org.hamcrest.core.IsEqual.equalTo;
 import static org.junit.jupiter.api.Assertions.fail;
@@ -392,6 +401,43 @@ class ImmutableListTest {
         assertThat(collectedImmutableList, instanceOf(ImmutableList.class));
     }
 
+    @Test
+    public void shouldCreateListFromStream() throws Exception {
+        assertThat(ImmutableList.ofStream(Stream.of("A", "B", "C")), is(equalTo(abcImmutableList)));
+        assertThat(ImmutableList.ofStream(Stream.of("A", "B", "C")), instanceOf(ImmutableList.class));
+        assertThat(ImmutableList.ofStream(Stream.empty()), is(sameInstance(ImmutableList.empty())));
+
+        List<Integer> expected = new ArrayList<>();
+
+        for (int index = 0; index < 10000; index++) {
+            expected.add(index % 3 == 0 ? null : index);
+        }
+
+        List<Integer> sized = ImmutableList.ofStream(IntStream.range(0, 10000).mapToObj(expected::get).parallel());
+        List<Integer> unsized = ImmutableList.ofStream(
+                IntStream.range(0, 20000).parallel().filter(index -> index < 10000).mapToObj(expected::get)
+        );
+        List<Integer> iterated = ImmutableList.ofStream(Stream.iterate(0, index -> index + 1).limit(10000).map(expected::get));
+
+        assertThat(sized, is(equalTo(expected)));
+        assertThat(unsized, is(equalTo(expected)));
+        assertThat(iterated, is(equalTo(expected)));
+
+        try {
+            sized.add(1);
+            fail("Should throw UnsupportedOperationException");
+        } catch (UnsupportedOperationException e) {
+            assertThat(e.getMessage(), is(equalTo("You must not add an element to this list")));
+        }
+
+        try {
+            ImmutableList.ofStream(null);
+            fail("Should throw NullPointerException");
+        } catch (NullPointerException e) {
+            assertThat(e.getMessage(), is(equalTo("Parameter 'items' must not be null")));
+        }
+    }
+
     @Test
     public void shouldNotAllowManipulateListViaOriginalList() throws Exception {
         List<String> immutableList = ImmutableList.of(abcArrayList);
@@ -400,4 +446,424 @@ class ImmutableListTest {
 
         assertThat(immutableList, hasSize(3));
     }
+
+    @Test
+    public void shouldMapLazily() throws Exception {
+        AtomicInteger invocations = new AtomicInteger();
+        List<String> mappedList = ImmutableList.mapLazy(abcImmutableList, item -> {
+            invocations.incrementAndGet();
+            return item.toLowerCase();
+        });
+
+        assertThat(invocations.get(), is(equalTo(0)));
+        assertThat(mappedList.size(), is(equalTo(3)));
+        assertThat(mappedList.get(1), is(equalTo("b")));
+        assertThat(invocations.get(), is(equalTo(1)));
+
+        assertThat(mappedList, is(equalTo(ImmutableList.of("a", "b", "c"))));
+        assertThat(mappedList, instanceOf(ImmutableList.class));
+        assertThat(mappedList.get(1), is(equalTo("b")));
+        assertThat(invocations.get(), is(equalTo(5)));
+    }
+
+    @Test
+    public void shouldMapLazilyWithMemoization() throws Exception {
+        AtomicInteger invocations = new AtomicInteger();
+        List<String> mappedList = ImmutableList.mapLazy(abcArrayList, item -> {
+            invocations.incrementAndGet();
+            return "B".equals(item) ? null : item.toLowerCase();
+        }, true);
+
+        abcArrayList.add("D");
+
+        assertThat(mappedList.get(0), is(equalTo("a")));
+        assertThat(mappedList.get(0), is(equalTo("a")));
+        assertThat(mappedList.get(1), is(nullValue()));
+        assertThat(mappedList.get(1), is(nullValue()));
+        assertThat(invocations.get(), is(equalTo(2)));
+
+        assertThat(mappedList, is(equalTo(Arrays.asList("a", null, "c"))));
+        assertThat(invocations.get(), is(equalTo(3)));
+    }
+
+    @Test
+    public void shouldFilterLazily() throws Exception {
+        AtomicInteger invocations = new AtomicInteger();
+        List<String> filteredList = ImmutableList.filterLazy(listWithThreeDuplicateElements, item -> {
+            invocations.incrementAndGet();
+            return !"B".equals(item);
+        });
+
+        assertThat(invocations.get(), is(equalTo(0)));
+
+        Iterator<String> iterator = filteredList.iterator();
+        assertThat(iterator.next(), is(equalTo("A")));
+        assertThat(iterator.next(), is(equalTo("C")));
+        assertThat(invocations.get(), is(equalTo(3)));
+
+        assertThat(filteredList.get(2), is(equalTo("A")));
+        assertThat(invocations.get(), is(equalTo(4)));
+
+        assertThat(filteredList.size(), is(equalTo(4)));
+        assertThat(filteredList, is(equalTo(ImmutableList.of("A", "C", "A", "C"))));
+        assertThat(invocations.get(), is(equalTo(6)));
+    }
+
+    @Test
+    public void shouldKeepNestedLazyViewsLazy() throws Exception {
+        List<Integer> items = ImmutableList.ofStream(IntStream.range(0, 100_000).boxed());
+        AtomicInteger invocations = new AtomicInteger();
+
+        List<Integer> even = ImmutableList.filterLazy(items, item -> {
+            invocations.incrementAndGet();
+            return item % 2 == 0;
+        });
+        List<Integer> divisibleBySix = ImmutableList.filterLazy(even, item -> item % 3 == 0);
+        List<String> mapped = ImmutableList.mapLazy(divisibleBySix, item -> "#" + item);
+
+        assertThat(invocations.get(), is(equalTo(0)));
+        assertThat(divisibleBySix.isEmpty(), is(false));
+        assertThat(divisibleBySix.get(1), is(equalTo(6)));
+        assertThat(mapped.iterator().next(), is(equalTo("#0")));
+        assertThat(mapped.isEmpty(), is(false));
+        assertThat(invocations.get(), is(equalTo(7)));
+    }
+
+    @Test
+    public void shouldKeepIndexFieldsOffSmallLists() throws Exception {
+        List<Integer> largeList = ImmutableList.ofStream(IntStream.range(0, 1_000).boxed());
+
+        assertThat(abcImmutableList.getClass(), is(equalTo(ImmutableList.class)));
+        assertThat(emptyList.getClass(), is(equalTo(ImmutableList.class)));
+        assertThat(largeList.getClass(), is(not(equalTo(ImmutableList.class))));
+
+        for (int lookup = 0; lookup < 100; lookup++) {
+            assertThat(largeList.indexOf(lookup), is(equalTo(lookup)));
+            assertThat(largeList.contains(-lookup - 1), is(false));
+        }
+    }
+
+    @Test
+    public void shouldNotIndexLazyViews() throws Exception {
+        List<Integer> items = ImmutableList.ofStream(IntStream.range(0, 1_000).boxed());
+        AtomicInteger invocations = new AtomicInteger();
+
+        List<String> mapped = ImmutableList.mapLazy(items, item -> {
+            invocations.incrementAndGet();
+            return "#" + item;
+        });
+
+        for (int lookup = 0; lookup < 100; lookup++) {
+            assertThat(mapped.contains("#0"), is(true));
+            assertThat(mapped.indexOf("#1"), is(equalTo(1)));
+        }
+
+        assertThat(invocations.get(), is(equalTo(300)));
+    }
+
+    @Test
+    public void shouldNotAllowToAddElementToLazyViews() throws Exception {
+        List<String> mappedList = ImmutableList.mapLazy(abcImmutableList, String::toLowerCase);
+        List<String> filteredList = ImmutableList.filterLazy(abcImmutableList, item -> true);
+
+        try {
+            mappedList.add("d");
+            fail("Should throw UnsupportedOperationException");
+        } catch (UnsupportedOperationException e) {
+            assertThat(e.getMessage(), is(equalTo("You must not add an element to this list")));
+        }
+
+        try {
+            filteredList.add("D");
+            fail("Should throw UnsupportedOperationException");
+        } catch (UnsupportedOperationException e) {
+            assertThat(e.getMessage(), is(equalTo("You must not add an element to this list")));
+        }
+    }
+
+    @Test
+    public void shouldNotProvideIndexBeyondFilteredItems() throws Exception {
+        List<String> filteredList = ImmutableList.filterLazy(abcImmutableList, "A"::equals);
+
+        try {
+            filteredList.get(1);
+            fail("Should throw IndexOutOfBoundsException");
+        } catch (IndexOutOfBoundsException e) {
+            assertThat(e.getMessage(), is(equalTo("Index: 1")));
+        }
+    }
+
+    @Test
+    public void shouldReadLinesOfFile(@TempDir Path directory) throws Exception {
+        Path file = directory.resolve("lines.txt");
+        Files.write(file, "A\nBä\r\n\rC\r\nD".getBytes(StandardCharsets.UTF_8));
+
+        List<String> lines = ImmutableList.ofLines(file);
+        List<String> cachedLines = ImmutableList.ofLines(file, StandardCharsets.UTF_8, true);
+
+        assertThat(lines, is(equalTo(Files.readAllLines(file))));
+        assertThat(lines, is(equalTo(Arrays.asList("A", "Bä", "", "C", "D"))));
+        assertThat(cachedLines, is(equalTo(lines)));
+        assertThat(cachedLines.get(1), is(sameInstance(cachedLines.get(1))));
+        assertThat(lines, is(instanceOf(ImmutableList.class)));
+    }
+
+    @Test
+    public void shouldReadLinesOfFileEndingWithLineSeparator(@TempDir Path directory) throws Exception {
+        Path file = directory.resolve("lines.txt");
+        Path emptyFile = directory.resolve("empty.txt");
+        Files.write(file, "A\n\nB\n".getBytes(StandardCharsets.ISO_8859_1));
+        Files.write(emptyFile, new byte[0]);
+
+        assertThat(ImmutableList.ofLines(file, StandardCharsets.ISO_8859_1), is(equalTo(Arrays.asList("A", "", "B"))));
+        assertThat(ImmutableList.ofLines(emptyFile), is(equalTo(Collections.emptyList())));
+    }
+
+    @Test
+    public void shouldNotReadLinesWithUnsupportedCharset(@TempDir Path directory) throws Exception {
+        Path file = directory.resolve("lines.txt");
+        Files.write(file, new byte[0]);
+
+        try {
+            ImmutableList.ofLines(file, StandardCharsets.UTF_16);
+            fail("Should throw IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            assertThat(e.getMessage(), is(equalTo("Charset UTF-16 is not supported, it must be ASCII compatible")));
+        }
+    }
+
+    @Test
+    public void shouldAnswerQueriesForNull() throws Exception {
+        assertThat(abcImmutableList.contains(null), is(false));
+        assertThat(abcImmutableList.indexOf(null), is(equalTo(-1)));
+        assertThat(abcImmutableList.lastIndexOf(null), is(equalTo(-1)));
+        assertThat(abcImmutableList.containsAll(Arrays.asList("A", null)), is(false));
+
+        List<String> listWithNull = ImmutableList.of(new String[]{"A", null});
+        assertThat(listWithNull.contains(null), is(true));
+        assertThat(listWithNull.indexOf(null), is(equalTo(1)));
+        assertThat(listWithNull.containsAll(Arrays.asList("A", null)), is(true));
+    }
+
+    @Test
+    public void shouldAnswerQueriesForNullOnSubLists() throws Exception {
+        List<String> subList = abcImmutableList.subList(0, 2);
+
+        assertThat(subList, is(equalTo(Arrays.asList("A", "B"))));
+        assertThat(subList.contains(null), is(false));
+        assertThat(subList.indexOf(null), is(equalTo(-1)));
+        assertThat(subList.lastIndexOf(null), is(equalTo(-1)));
+        assertThat(subList.containsAll(Arrays.asList("A", null)), is(false));
+
+        List<String> subListWithNull = ImmutableList.of(new String[]{"A", null, "C"}).subList(1, 3);
+        assertThat(subListWithNull.contains(null), is(true));
+        assertThat(subListWithNull.indexOf(null), is(equalTo(0)));
+
+        try {
+            subList.add("D");
+            fail("Should throw UnsupportedOperationException");
+        } catch (UnsupportedOperationException e) {
+            assertThat(e.getMessage(), is(equalTo("You must not add an element to this list")));
+        }
+    }
+
+    @Test
+    public void shouldCollectDeduplicated() throws Exception {
+        List<String> collected = IntStream.range(0, 10_000)
+                .mapToObj(index -> new String(new char[]{(char) ('A' + index % 10)}))
+                .parallel()
+                .collect(ImmutableList.collectDeduplicated());
+
+        assertThat(collected, hasSize(10_000));
+        assertThat(collected.get(0), is(equalTo("A")));
+        assertThat(collected.get(9_999), is(equalTo("J")));
+        assertThat(collected, is(instanceOf(ImmutableList.class)));
+
+        for (String item : collected) {
+            assertThat(item, is(sameInstance(collected.get(item.charAt(0) - 'A'))));
+        }
+
+        List<String> withNull = Stream.of("A", null, new String("A"))
+                .collect(ImmutableList.collectDeduplicated(1));
+
+        assertThat(withNull, is(equalTo(Arrays.asList("A", null, "A"))));
+        assertThat(withNull.get(2), is(sameInstance(withNull.get(0))));
+
+        try {
+            ImmutableList.collectDeduplicated(0);
+            fail("Should throw IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            assertThat(e.getMessage(), is(equalTo("Parameter 'capacity' must be between 1 and 1073741824")));
+        }
+    }
+
+    @Test
+    public void shouldCompareHugeListsInParallel() throws Exception {
+        List<String> arrayList = new ArrayList<>();
+
+        for (int index = 0; index < ParallelComparison.PARALLEL_THRESHOLD + 1001; index++) {
+            arrayList.add(index % 1000 == 0 ? null : "I" + index);
+        }
+
+        List<String> immutableList = ImmutableList.of(arrayList);
+        List<String> otherImmutableList = ImmutableList.of(arrayList);
+
+        arrayList.set(arrayList.size() - 1, "X");
+        List<String> differentList = ImmutableList.of(arrayList);
+
+        assertThat(immutableList, is(equalTo(otherImmutableList)));
+        assertThat(immutableList, is(not(equalTo(differentList))));
+        assertThat(immutableList.hashCode(), is(equalTo(otherImmutableList.hashCode())));
+        assertThat(differentList.hashCode(), is(equalTo(arrayList.hashCode())));
+
+        assertThat(ParallelComparison.listsEqual(immutableList, otherImmutableList), is(true));
+        assertThat(ParallelComparison.listsEqual(immutableList, differentList), is(false));
+
+        for (int size : new int[]{0, 1, 7, 1000, arrayList.size()}) {
+            List<String> subList = arrayList.subList(0, size);
+            assertThat(ParallelComparison.listHashCode(subList), is(equalTo(subList.hashCode())));
+        }
+    }
+
+    @Test
+    public void shouldMapFilterAndFlatMapEagerly() throws Exception {
+        List<String> mapped = ImmutableList.map(abcImmutableList, item -> item + item);
+        List<String> filtered = ImmutableList.filter(new LinkedList<>(Arrays.asList("A", "B", "C", "D")),
+                item -> !item.equals("B"));
+        List<String> flatMapped = ImmutableList.flatMap(abcImmutableList, item -> Arrays.asList(item, null));
+
+        assertThat(mapped, is(equalTo(Arrays.asList("AA", "BB", "CC"))));
+        assertThat(mapped, is(instanceOf(ImmutableList.class)));
+        assertThat(filtered, is(equalTo(Arrays.asList("A", "C", "D"))));
+        assertThat(filtered.toArray().length, is(equalTo(3)));
+        assertThat(ImmutableList.filter(abcImmutableList, "A"::equals).toArray(), is(equalTo(new Object[]{"A"})));
+        assertThat(flatMapped, is(equalTo(Arrays.asList("A", null, "B", null, "C", null))));
+        assertThat(flatMapped.indexOf(null), is(equalTo(1)));
+        assertThat(ImmutableList.mapToInt(abcImmutableList, item -> item.charAt(0)),
+                is(equalTo(new int[]{'A', 'B', 'C'})));
+
+        assertThat(ImmutableList.filter(abcImmutableList, item -> false), is(sameInstance(ImmutableList.empty())));
+        assertThat(ImmutableList.map(emptyList, item -> item), is(sameInstance(ImmutableList.empty())));
+        assertThat(ImmutableList.mapToInt(emptyList, String::length).length, is(equalTo(0)));
+
+        try {
+            mapped.set(0, "X");
+            fail("Should throw UnsupportedOperationException");
+        } catch (UnsupportedOperationException e) {
+            assertThat(e.getMessage(), is(equalTo("You must not set an element in this list")));
+        }
+
+        try {
+            mapped.get(3);
+            fail("Should throw IndexOutOfBoundsException");
+        } catch (IndexOutOfBoundsException e) {
+            assertThat(e.getMessage(), is(equalTo("Index: 3")));
+        }
+    }
+
+    @Test
+    public void shouldSearchSortedList() throws Exception {
+        List<String> sortedList = ImmutableList.sorted(Arrays.asList("D", "B", "A", "C", "B"), Comparator.naturalOrder());
+
+        assertThat(sortedList, is(equalTo(Arrays.asList("A", "B", "B", "C", "D"))));
+        assertThat(sortedList.contains("C"), is(true));
+        assertThat(sortedList.contains("E"), is(false));
+        assertThat(sortedList.contains(null), is(false));
+        assertThat(sortedList.contains(1), is(false));
+        assertThat(sortedList.indexOf("B"), is(equalTo(1)));
+        assertThat(sortedList.lastIndexOf("B"), is(equalTo(2)));
+        assertThat(sortedList.indexOf("AA"), is(equalTo(-1)));
+        assertThat(sortedList.lastIndexOf("E"), is(equalTo(-1)));
+
+        assertThat(ImmutableList.binarySearch(sortedList, "D"), is(equalTo(4)));
+        assertThat(ImmutableList.binarySearch(sortedList, "BB"), is(equalTo(-4)));
+        assertThat(ImmutableList.binarySearch(sortedList, "0"), is(equalTo(-1)));
+
+        List<String> range = ImmutableList.range(sortedList, "B", "D");
+        assertThat(range, is(equalTo(Arrays.asList("B", "B", "C"))));
+        assertThat(range.indexOf("C"), is(equalTo(2)));
+        assertThat(range.contains("D"), is(false));
+        assertThat(ImmutableList.binarySearch(range, "C"), is(equalTo(2)));
+        assertThat(ImmutableList.range(sortedList, "E", "F").isEmpty(), is(true));
+        assertThat(ImmutableList.range(sortedList, "C", "A").isEmpty(), is(true));
+
+        List<String> byLength = ImmutableList.ofSorted(Arrays.asList("b", "a", "cc"), Comparator.comparing(String::length));
+        assertThat(byLength.indexOf("a"), is(equalTo(1)));
+        assertThat(byLength.lastIndexOf("b"), is(equalTo(0)));
+        assertThat(byLength.contains("c"), is(false));
+
+        try {
+            ImmutableList.ofSorted(Arrays.asList("B", "A"), Comparator.naturalOrder());
+            fail("Should throw IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            assertThat(e.getMessage(), is(equalTo("Parameter 'items' must be sorted, B is ordered before A")));
+        }
+
+        try {
+            ImmutableList.binarySearch(abcImmutableList, "A");
+            fail("Should throw IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            assertThat(e.getMessage(), is(equalTo("Parameter 'sortedList' must be a sorted ImmutableList")));
+        }
+    }
+
+    @Test
+    public void shouldMergeSortedLists() throws Exception {
+        List<Integer> merged = ImmutableList.mergeSorted(Arrays.asList(
+                Arrays.asList(1, 4, 7),
+                ImmutableList.<Integer>empty(),
+                Arrays.asList(2, 5, 8, 9),
+                Arrays.asList(3, 4, 6)
+        ), Comparator.naturalOrder());
+
+        assertThat(merged, is(equalTo(Arrays.asList(1, 2, 3, 4, 4, 5, 6, 7, 8, 9))));
+        assertThat(ImmutableList.binarySearch(merged, 6), is(equalTo(6)));
+        assertThat(merged.indexOf(4), is(equalTo(3)));
+        assertThat(ImmutableList.mergeSorted(Collections.<List<Integer>>emptyList(), Comparator.naturalOrder()).isEmpty(),
+                is(true));
+
+        try {
+            ImmutableList.mergeSorted(Arrays.asList(Arrays.asList(1, 2), Arrays.asList(3, 1)), Comparator.naturalOrder());
+            fail("Should throw IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            assertThat(e.getMessage(), is(equalTo("List 1 is not sorted, 3 is ordered before 1")));
+        }
+    }
+
+    @Test
+    public void shouldLookupRepeatedlyInLargeList() throws Exception {
+        List<String> arrayList = new ArrayList<>();
+
+        for (int index = 0; index < 1000; index++) {
+            arrayList.add(index % 100 == 0 ? null : "I" + index % 300);
+        }
+
+        List<String> immutableList = ImmutableList.of(arrayList);
+
+        for (int round = 0; round < 3; round++) {
+            for (int item = -1; item < 310; item += 7) {
+                String key = item < 0 ? null : "I" + item;
+
+                assertThat(immutableList.contains(key), is(equalTo(arrayList.contains(key))));
+                assertThat(immutableList.indexOf(key), is(equalTo(arrayList.indexOf(key))));
+                assertThat(immutableList.lastIndexOf(key), is(equalTo(arrayList.lastIndexOf(key))));
+            }
+        }
+
+        assertThat(immutableList.containsAll(Arrays.asList("I1", "I299", null)), is(true));
+        assertThat(immutableList.containsAll(Arrays.asList("I1", "I300")), is(false));
+        assertThat(immutableList.contains(1), is(false));
+    }
+
+    @Test
+    public void shouldLookupConcurrentlyInLargeList() throws Exception {
+        List<Integer> immutableList = ImmutableList.of(IntStream.range(0, 10_000).boxed().collect(ImmutableList.collect()));
+
+        boolean allFound = IntStream.range(0, 10_000)
+                .parallel()
+                .allMatch(item -> immutableList.indexOf(item) == item && immutableList.contains(item));
+
+        assertThat(allFound, is(true));
+        assertThat(immutableList.indexOf(10_000), is(equalTo(-1)));
+    }
 }
@@ -0,0 +1,169 @@
+package com.github.borisskert;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.fail;
+
+class ImmutableMapReferenceTest {
+
+    private ImmutableMapReference<String, String> reference;
+
+    @BeforeEach
+    public void setup() throws Exception {
+        Map<String, String> initial = new HashMap<>();
+        initial.put("1", "A");
+        initial.put("2", "B");
+
+        reference = new ImmutableMapReference<>(initial);
+    }
+
+    @Test
+    public void shouldPublishUpdates() throws Exception {
+        Map<String, String> before = reference.snapshot();
+
+        reference.put("3", "C");
+        reference.remove("1");
+
+        Map<String, String> expected = new HashMap<>();
+        expected.put("2", "B");
+        expected.put("3", "C");
+
+        assertThat(reference.snapshot(), is(equalTo(expected)));
+        assertThat(before.size(), is(equalTo(2)));
+        assertThat(before.get("1"), is(equalTo("A")));
+    }
+
+    @Test
+    public void shouldProvideImmutableSnapshot() throws Exception {
+        Map<String, String> snapshot = reference.snapshot();
+
+        assertThat(snapshot, is(instanceOf(ImmutableMap.class)));
+
+        reference.put("3", "C");
+
+        assertThat(reference.snapshot(), is(instanceOf(ImmutableMap.class)));
+
+        try {
+            reference.snapshot().put("4", "D");
+            fail("Should throw UnsupportedOperationException");
+        } catch (UnsupportedOperationException e) {
+            assertThat(e.getMessage(), is(equalTo("You must not put an element to this map")));
+        }
+    }
+
+    @Test
+    public void shouldRethrowFailureOfUpdate() throws Exception {
+        try {
+            reference.update(map -> {
+                throw new IllegalStateException("failed");
+            });
+            fail("Should throw IllegalStateException");
+        } catch (IllegalStateException e) {
+            assertThat(e.getMessage(), is(equalTo("failed")));
+        }
+
+        reference.put("3", "C");
+
+        assertThat(reference.snapshot().size(), is(equalTo(3)));
+    }
+
+    @Test
+    public void shouldRollBackFailingUpdate() throws Exception {
+        try {
+            reference.update(map -> {
+                map.put("3", "C");
+                map.remove("1");
+                map.entrySet().iterator().next().setValue("X");
+                throw new IllegalStateException("failed");
+            });
+            fail("Should throw IllegalStateException");
+        } catch (IllegalStateException e) {
+            assertThat(e.getMessage(), is(equalTo("failed")));
+        }
+
+        Map<String, String> expected = new HashMap<>();
+        expected.put("1", "A");
+        expected.put("2", "B");
+
+        assertThat(reference.snapshot(), is(equalTo(expected)));
+    }
+
+    @Test
+    public void shouldRejectNullValuesOfUpdate() throws Exception {
+        try {
+            reference.update(map -> {
+                map.put("3", "C");
+                map.put("4", null);
+            });
+            fail("Should throw NullPointerException");
+        } catch (NullPointerException e) {
+            assertThat(e.getMessage(), is(equalTo("Values must not be null")));
+        }
+
+        try {
+            reference.update(map -> map.replaceAll((key, value) -> null));
+            fail("Should throw NullPointerException");
+        } catch (NullPointerException e) {
+            assertThat(e.getMessage(), is(equalTo("Values must not be null")));
+        }
+
+        assertThat(reference.snapshot().size(), is(equalTo(2)));
+        assertThat(reference.snapshot().containsKey("3"), is(false));
+        assertThat(reference.snapshot().get("1"), is(equalTo("A")));
+    }
+
+    @Test
+    public void shouldRethrowErrorOfUpdate() throws Exception {
+        try {
+            reference.update(map -> {
+                map.put("3", "C");
+                throw new AssertionError("failed");
+            });
+            fail("Should throw AssertionError");
+        } catch (AssertionError e) {
+            assertThat(e.getMessage(), is(equalTo("failed")));
+        }
+
+        reference.put("4", "D");
+
+        assertThat(reference.snapshot().size(), is(equalTo(3)));
+        assertThat(reference.snapshot().containsKey("3"), is(false));
+    }
+
+    @Test
+    public void shouldNotLoseConcurrentUpdates() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+
+            for (int thread = 0; thread < 8; thread++) {
+                String prefix = "T" + thread + "-";
+                futures.add(executor.submit(() -> {
+                    for (int index = 0; index < 500; index++) {
+                        reference.put(prefix + index, "X");
+                    }
+                }));
+            }
+
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertThat(reference.snapshot().size(), is(equalTo(2 + 8 * 500)));
+    }
+}
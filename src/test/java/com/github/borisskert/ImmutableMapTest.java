@@ -5,6 +5,9 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
@@ -331,6 +334,75 @@ class ImmutableMapTest {
         assertThat(collectedMap, is(equalTo(abcMap)));
     }
 
+    @Test
+    public void shouldCreateFromStream() throws Exception {
+        Map<String, String> sequentialMap = ImmutableMap.ofStream(
+                abcMap.entrySet().stream(), Map.Entry::getKey, Map.Entry::getValue
+        );
+        Map<String, String> filteredMap = ImmutableMap.ofStream(
+                abcMap.entrySet().stream().filter(entry -> true), Map.Entry::getKey, Map.Entry::getValue
+        );
+        Map<String, String> parallelMap = ImmutableMap.ofStream(
+                abcMap.entrySet().parallelStream(), Map.Entry::getKey, Map.Entry::getValue
+        );
+
+        assertThat(sequentialMap, is(instanceOf(ImmutableMap.class)));
+        assertThat(sequentialMap, is(equalTo(abcMap)));
+        assertThat(filteredMap, is(equalTo(abcMap)));
+        assertThat(parallelMap, is(equalTo(abcMap)));
+
+        Map<Integer, String> expected = new HashMap<>();
+
+        for (int key = 0; key < 10000; key++) {
+            expected.put(key, "value " + key);
+        }
+
+        Map<Integer, String> hugeMap = ImmutableMap.ofStream(
+                IntStream.range(0, 10000).boxed().parallel(), key -> key, key -> "value " + key
+        );
+
+        assertThat(hugeMap, is(equalTo(expected)));
+
+        try {
+            ImmutableMap.ofStream(Stream.of("A", "B", "A"), item -> item, String::toLowerCase);
+            fail("Should throw UnsupportedOperationException");
+        } catch (UnsupportedOperationException e) {
+            assertThat(e.getMessage(), is(equalTo("Duplicate key A (attempted merging values a and a)")));
+        }
+
+        try {
+            ImmutableMap.ofStream(Stream.of("A", "B", "A").parallel().filter(item -> true), item -> item, item -> item);
+            fail("Should throw UnsupportedOperationException");
+        } catch (UnsupportedOperationException e) {
+            assertThat(e.getMessage(), is(equalTo("Duplicate key A (attempted merging values A and A)")));
+        }
+
+        Object[] partitionedItems = IntStream.range(0, Partitions.PARALLEL_THRESHOLD + 1000).boxed().toArray();
+        AtomicInteger keyMapperInvocations = new AtomicInteger();
+        Map<Integer, Integer> partitionedMap = Partitions.mapOf(partitionedItems, (Integer key) -> {
+            keyMapperInvocations.incrementAndGet();
+            return key;
+        }, key -> key * 2);
+
+        assertThat(partitionedMap.size(), is(equalTo(Partitions.PARALLEL_THRESHOLD + 1000)));
+        assertThat(partitionedMap.get(999), is(equalTo(1998)));
+        assertThat(keyMapperInvocations.get(), is(equalTo(Partitions.PARALLEL_THRESHOLD + 1000)));
+
+        try {
+            Partitions.mapOf(partitionedItems, (Integer key) -> key % 1000, key -> key);
+            fail("Should throw UnsupportedOperationException");
+        } catch (UnsupportedOperationException e) {
+            assertThat(e.getMessage(), startsWith("Duplicate key "));
+        }
+
+        try {
+            ImmutableMap.ofStream(null, item -> item, item -> item);
+            fail("Should throw NullPointerException");
+        } catch (NullPointerException e) {
+            assertThat(e.getMessage(), is(equalTo("Parameter 'elements' must not be null")));
+        }
+    }
+
     @Test
     public void shouldNotAllowModificationViaOriginalMap() throws Exception {
         Map<String, String> immutableMap = ImmutableMap.of(abcHashMap);
@@ -340,6 +412,245 @@ class ImmutableMapTest {
         assertThat(immutableMap.size(), is(equalTo(3)));
     }
 
+    @Test
+    public void shouldMergeMaps() throws Exception {
+        Map<String, String> other = ImmutableMap.of(
+                ImmutableMap.entry("3", "X"),
+                ImmutableMap.entry("4", "D")
+        );
+
+        Map<String, String> merged = ImmutableMap.merge(abcMap, other, (value, otherValue) -> value + otherValue);
+
+        Map<String, String> expected = new HashMap<>(abcHashMap);
+        expected.put("3", "CX");
+        expected.put("4", "D");
+
+        assertThat(merged, is(instanceOf(ImmutableMap.class)));
+        assertThat(merged, is(equalTo(expected)));
+    }
+
+    @Test
+    public void shouldMergeSeveralMaps() throws Exception {
+        Map<String, String> tenant = new HashMap<>();
+        tenant.put("2", "T");
+
+        Map<String, String> merged = ImmutableMap.merge(
+                Arrays.asList(abcMap, emptyMap, ImmutableMap.of(ImmutableMap.entry("2", "E")), tenant),
+                (value, otherValue) -> otherValue
+        );
+
+        assertThat(merged.get("1"), is(equalTo("A")));
+        assertThat(merged.get("2"), is(equalTo("T")));
+        assertThat(merged.size(), is(equalTo(3)));
+        assertThat(ImmutableMap.merge(Collections.emptyList(), (value, otherValue) -> value), is(sameInstance(emptyMap)));
+    }
+
+    @Test
+    public void shouldReturnExistingInstanceWhenMerging() throws Exception {
+        assertThat(ImmutableMap.merge(abcMap, emptyMap, (value, otherValue) -> value), is(sameInstance(abcMap)));
+        assertThat(ImmutableMap.merge(emptyHashMap, abcMap, (value, otherValue) -> value), is(sameInstance(abcMap)));
+        assertThat(ImmutableMap.merge(abcMap, abcMap, (value, otherValue) -> value), is(sameInstance(abcMap)));
+
+        Map<String, String> copied = ImmutableMap.merge(abcHashMap, emptyMap, (value, otherValue) -> value);
+
+        assertThat(copied, is(instanceOf(ImmutableMap.class)));
+        assertThat(copied, is(equalTo(abcHashMap)));
+    }
+
+    @Test
+    public void shouldDiffMaps() throws Exception {
+        Map<String, String> newMap = ImmutableMap.of(
+                ImmutableMap.entry("1", "A"),
+                ImmutableMap.entry("3", "X"),
+                ImmutableMap.entry("4", "D")
+        );
+
+        ImmutableMap.Difference<String, String> difference = ImmutableMap.diff(abcMap, newMap);
+
+        assertThat(difference.isEmpty(), is(equalTo(false)));
+        assertThat(difference.added(), is(equalTo(Collections.singletonMap("4", "D"))));
+        assertThat(difference.removed(), is(equalTo(Collections.singletonMap("2", "B"))));
+        assertThat(difference.changed(), is(equalTo(
+                Collections.singletonMap("3", new AbstractMap.SimpleImmutableEntry<>("C", "X"))
+        )));
+        assertThat(difference.added(), is(instanceOf(ImmutableMap.class)));
+    }
+
+    @Test
+    public void shouldDiffEqualMaps() throws Exception {
+        ImmutableMap.Difference<String, String> sameInstance = ImmutableMap.diff(abcMap, abcMap);
+        ImmutableMap.Difference<String, String> equalMaps = ImmutableMap.diff(abcMap, abcHashMap);
+
+        assertThat(sameInstance.isEmpty(), is(equalTo(true)));
+        assertThat(equalMaps.isEmpty(), is(equalTo(true)));
+        assertThat(ImmutableMap.diff(emptyMap, abcMap).added(), is(equalTo(abcHashMap)));
+        assertThat(ImmutableMap.diff(abcMap, emptyHashMap).removed(), is(equalTo(abcHashMap)));
+    }
+
+    @Test
+    public void shouldBuildHardenedMap() throws Exception {
+        Map<String, String> hardenedMap = ImmutableMap.ofHardened(abcHashMap);
+
+        assertThat(hardenedMap, is(equalTo(abcHashMap)));
+        assertThat(abcHashMap, is(equalTo(hardenedMap)));
+        assertThat(hardenedMap, is(equalTo(abcMap)));
+        assertThat(hardenedMap.hashCode(), is(equalTo(abcHashMap.hashCode())));
+        assertThat(hardenedMap.get("2"), is(equalTo("B")));
+        assertThat(hardenedMap.get("4"), is(nullValue()));
+        assertThat(hardenedMap.get(null), is(nullValue()));
+        assertThat(hardenedMap.get(2), is(nullValue()));
+        assertThat(ImmutableMap.ofHardened(emptyHashMap), is(equalTo(emptyMap)));
+
+        try {
+            hardenedMap.put("4", "D");
+            fail("Should throw UnsupportedOperationException");
+        } catch (UnsupportedOperationException e) {
+            assertThat(e.getMessage(), is(equalTo("You must not put an element to this map")));
+        }
+    }
+
+    @Test
+    public void shouldLookupCollidingKeysInHardenedMap() throws Exception {
+        Map<String, Integer> collidingStrings = new HashMap<>();
+
+        for (int bits = 0; bits < 1 << 12; bits++) {
+            StringBuilder key = new StringBuilder();
+
+            for (int position = 0; position < 12; position++) {
+                key.append((bits & 1 << position) == 0 ? "Aa" : "BB");
+            }
+
+            collidingStrings.put(key.toString(), bits);
+        }
+
+        Map<Long, Integer> collidingLongs = new HashMap<>();
+
+        for (long value = 0; value < 1000; value++) {
+            collidingLongs.put(value << 32 | value, (int) value);
+        }
+
+        Map<Object, Integer> collidingObjects = new HashMap<>();
+
+        for (int value = 0; value < 100; value++) {
+            collidingObjects.put(new CollidingKey(value), value);
+        }
+
+        collidingObjects.put(null, -1);
+
+        Map<String, Integer> hardenedStrings = ImmutableMap.ofHardened(collidingStrings);
+        Map<Long, Integer> hardenedLongs = ImmutableMap.ofHardened(collidingLongs);
+        Map<Object, Integer> hardenedObjects = ImmutableMap.ofHardened(collidingObjects);
+
+        assertThat(hardenedStrings, is(equalTo(collidingStrings)));
+        assertThat(hardenedLongs, is(equalTo(collidingLongs)));
+        assertThat(hardenedObjects, is(equalTo(collidingObjects)));
+
+        for (Map.Entry<Long, Integer> entry : collidingLongs.entrySet()) {
+            assertThat(hardenedLongs.get(entry.getKey()), is(equalTo(entry.getValue())));
+        }
+
+        assertThat(hardenedStrings.get("AaAaAaAaAaAaAaAaAaAaAaBB"), is(equalTo(1 << 11)));
+        assertThat(hardenedStrings.get("AaAaAaAaAaAaAaAaAaAaAa"), is(nullValue()));
+        assertThat(hardenedLongs.get(1000L << 32 | 1000L), is(nullValue()));
+        assertThat(hardenedObjects.get(new CollidingKey(42)), is(equalTo(42)));
+        assertThat(hardenedObjects.get(new CollidingKey(100)), is(nullValue()));
+        assertThat(hardenedObjects.get(null), is(equalTo(-1)));
+        assertThat(hardenedObjects.containsKey(null), is(equalTo(true)));
+    }
+
+    @Test
+    public void shouldCollectDeduplicated() throws Exception {
+        Map<Integer, String> collected = IntStream.range(0, 10_000)
+                .boxed()
+                .parallel()
+                .collect(ImmutableMap.collectDeduplicated(
+                        index -> index,
+                        index -> new String(new char[]{(char) ('A' + index % 10)})
+                ));
+
+        assertThat(collected.size(), is(equalTo(10_000)));
+        assertThat(collected.get(1234), is(equalTo("E")));
+        assertThat(collected, is(instanceOf(ImmutableMap.class)));
+
+        for (Map.Entry<Integer, String> entry : collected.entrySet()) {
+            assertThat(entry.getValue(), is(sameInstance(collected.get(entry.getKey() % 10))));
+        }
+
+        try {
+            Stream.of("A", "B", "A")
+                    .collect(ImmutableMap.collectDeduplicated(key -> key, String::length));
+            fail("Should throw UnsupportedOperationException");
+        } catch (UnsupportedOperationException e) {
+            assertThat(e.getMessage(), is(equalTo("Duplicate key A (attempted merging values 1 and 1)")));
+        }
+    }
+
+    @Test
+    public void shouldBuildHugeMap() throws Exception {
+        Map<Integer, String> hashMap = new HashMap<>();
+
+        for (int key = 0; key < Partitions.PARALLEL_THRESHOLD + 1000; key++) {
+            hashMap.put(key, "V" + key);
+        }
+
+        hashMap.put(null, "null");
+
+        Map<Integer, String> immutableMap = ImmutableMap.of(hashMap);
+        Map<Integer, String> partitionedMap = Partitions.mapOf(hashMap);
+
+        for (Map<Integer, String> map : Arrays.asList(immutableMap, partitionedMap)) {
+            assertThat(map, is(equalTo(hashMap)));
+            assertThat(hashMap, is(equalTo(map)));
+            assertThat(map.hashCode(), is(equalTo(hashMap.hashCode())));
+            assertThat(map.size(), is(equalTo(hashMap.size())));
+            assertThat(map.get(12345), is(equalTo("V12345")));
+            assertThat(map.get(null), is(equalTo("null")));
+            assertThat(map.get(-1), is(nullValue()));
+            assertThat(map.containsKey(Partitions.PARALLEL_THRESHOLD + 999), is(equalTo(true)));
+        }
+
+        assertThat(ImmutableMap.of(immutableMap), is(equalTo(hashMap)));
+
+        hashMap.put(1, null);
+
+        try {
+            Partitions.mapOf(hashMap);
+            fail("Should throw NullPointerException");
+        } catch (NullPointerException e) {
+            assertThat(e, is(notNullValue()));
+        }
+    }
+
+    @Test
+    public void shouldCompareHugeMapsInParallel() throws Exception {
+        Map<Integer, String> hashMap = new HashMap<>();
+
+        for (int key = 0; key < ParallelComparison.PARALLEL_THRESHOLD + 1000; key++) {
+            hashMap.put(key, "V" + key);
+        }
+
+        Map<Integer, String> immutableMap = ImmutableMap.of(hashMap);
+        Map<Integer, String> otherImmutableMap = ImmutableMap.of(hashMap);
+
+        hashMap.put(42, "X");
+        Map<Integer, String> differentMap = ImmutableMap.of(hashMap);
+
+        assertThat(immutableMap, is(equalTo(otherImmutableMap)));
+        assertThat(immutableMap, is(not(equalTo(differentMap))));
+        assertThat(immutableMap.hashCode(), is(equalTo(otherImmutableMap.hashCode())));
+        assertThat(differentMap.hashCode(), is(equalTo(hashMap.hashCode())));
+
+        assertThat(ParallelComparison.mapsEqual(immutableMap, otherImmutableMap), is(true));
+        assertThat(ParallelComparison.mapsEqual(immutableMap, differentMap), is(false));
+        assertThat(ParallelComparison.mapHashCode(differentMap), is(equalTo(hashMap.hashCode())));
+
+        Map<Integer, String> withNullValue = new HashMap<>(hashMap);
+        withNullValue.put(42, null);
+
+        assertThat(ParallelComparison.mapsEqual(withNullValue, withNullValue), is(true));
+        assertThat(ParallelComparison.mapsEqual(withNullValue, hashMap), is(false));
+    }
+
     private <T extends Comparable<? super T>> Iterator<T> sortCollection(Collection<T> collection) {
         List<T> keysAsList = new ArrayList<>(collection);
         Collections.sort(keysAsList);
@@ -353,4 +664,165 @@ class ImmutableMapTest {
 
         return keysAsList.iterator();
     }
-}
\ No newline at end of file
+
+    @Test
+    public void shouldCreateOrderedMaps() throws Exception {
+        Map<String, String> linkedHashMap = new LinkedHashMap<>();
+        linkedHashMap.put("3", "C");
+        linkedHashMap.put("1", "A");
+        linkedHashMap.put("2", "B");
+
+        Map<String, String> orderedMap = ImmutableMap.ofOrdered(linkedHashMap);
+        Map<String, String> orderedEntries = ImmutableMap.ofOrdered(
+                ImmutableMap.entry("3", "X"),
+                ImmutableMap.entry("1", "A"),
+                ImmutableMap.entry("2", "B"),
+                ImmutableMap.entry("3", "C")
+        );
+
+        for (Map<String, String> map : Arrays.asList(orderedMap, orderedEntries)) {
+            assertThat(map, is(instanceOf(ImmutableMap.class)));
+            assertThat(map, is(equalTo(abcMap)));
+            assertThat(abcMap, is(equalTo(map)));
+            assertThat(map.hashCode(), is(equalTo(abcMap.hashCode())));
+            assertThat(map.toString(), is(equalTo("{3=C, 1=A, 2=B}")));
+            assertThat(new ArrayList<>(map.keySet()), is(equalTo(Arrays.asList("3", "1", "2"))));
+            assertThat(new ArrayList<>(map.values()), is(equalTo(Arrays.asList("C", "A", "B"))));
+            assertThat(
+                    map.entrySet().stream().map(Map.Entry::getKey).collect(ImmutableList.collect()),
+                    is(equalTo(Arrays.asList("3", "1", "2")))
+            );
+            assertThat(map.get("1"), is(equalTo("A")));
+            assertThat(map.get("4"), is(nullValue()));
+            assertThat(map.containsKey("2"), is(equalTo(true)));
+            assertThat(map.containsValue("C"), is(equalTo(true)));
+            assertThat(map.containsValue("X"), is(equalTo(false)));
+            assertThat(map.entrySet().contains(ImmutableMap.entry("1", "A")), is(equalTo(true)));
+            assertThat(map.entrySet().contains(ImmutableMap.entry("1", "B")), is(equalTo(false)));
+            assertThat(map.entrySet().contains(ImmutableMap.entry("4", "A")), is(equalTo(false)));
+            assertThat(map.entrySet().contains("1"), is(equalTo(false)));
+        }
+
+        try {
+            Iterator<String> iterator = orderedMap.keySet().iterator();
+            iterator.next();
+            iterator.remove();
+            fail("Should throw UnsupportedOperationException");
+        } catch (UnsupportedOperationException e) {
+            assertThat(orderedMap.size(), is(equalTo(3)));
+        }
+
+        try {
+            orderedMap.put("4", "D");
+            fail("Should throw UnsupportedOperationException");
+        } catch (UnsupportedOperationException e) {
+            assertThat(e.getMessage(), is(equalTo("You must not put an element to this map")));
+        }
+
+        try {
+            ImmutableMap.ofOrdered((Map<String, String>) null);
+            fail("Should throw NullPointerException");
+        } catch (NullPointerException e) {
+            assertThat(e.getMessage(), is(equalTo("Parameter 'map' must not be null")));
+        }
+
+        try {
+            ImmutableMap.ofOrdered(ImmutableMap.entry("1", "A"), new AbstractMap.SimpleEntry<>("2", null));
+            fail("Should throw NullPointerException");
+        } catch (NullPointerException e) {
+            assertThat(e.getMessage(), is(equalTo("Values must not be null")));
+        }
+    }
+
+    @Test
+    public void shouldProvideUnmodifiableEntrySetView() throws Exception {
+        Set<Map.Entry<String, String>> entries = abcMap.entrySet();
+
+        assertThat(entries.contains(ImmutableMap.entry("1", "A")), is(true));
+        assertThat(entries.contains(ImmutableMap.entry("1", "B")), is(false));
+
+        try {
+            Iterator<Map.Entry<String, String>> iterator = entries.iterator();
+            iterator.next();
+            iterator.remove();
+            fail("Should throw UnsupportedOperationException");
+        } catch (UnsupportedOperationException e) {
+            assertThat(abcMap.size(), is(equalTo(3)));
+        }
+
+        try {
+            entries.add(ImmutableMap.entry("4", "D"));
+            fail("Should throw UnsupportedOperationException");
+        } catch (UnsupportedOperationException e) {
+            assertThat(abcMap.size(), is(equalTo(3)));
+        }
+    }
+
+    @Test
+    public void shouldCollectOrdered() throws Exception {
+        List<Integer> keys = new ArrayList<>();
+
+        for (int key = 0; key < 70000; key++) {
+            keys.add((key * 7919) % 70000);
+        }
+
+        Map<Integer, String> sequentialMap = keys.stream()
+                .collect(ImmutableMap.collectOrdered(key -> key, key -> "value " + key));
+        Map<Integer, String> parallelMap = keys.parallelStream()
+                .collect(ImmutableMap.collectOrdered(key -> key, key -> "value " + key));
+
+        assertThat(new ArrayList<>(sequentialMap.keySet()), is(equalTo(keys)));
+        assertThat(new ArrayList<>(parallelMap.keySet()), is(equalTo(keys)));
+        assertThat(parallelMap.get(69999), is(equalTo("value 69999")));
+        assertThat(parallelMap.get(70000), is(nullValue()));
+
+        try {
+            Stream.of("A", "B", "A").collect(ImmutableMap.collectOrdered(item -> item, String::toLowerCase));
+            fail("Should throw UnsupportedOperationException");
+        } catch (UnsupportedOperationException e) {
+            assertThat(e.getMessage(), is(equalTo("Duplicate key A (attempted merging values a and a)")));
+        }
+    }
+
+    @Test
+    public void shouldLookUpOrderedMapsOfAnyIndexWidth() throws Exception {
+        for (int size : new int[]{1, 255, 256, 65535, 65536}) {
+            Map<Object, String> linkedHashMap = new LinkedHashMap<>();
+            linkedHashMap.put(null, "null");
+
+            for (int key = 0; key < size; key++) {
+                linkedHashMap.put(key < 10 ? new CollidingKey(key) : key, "value " + key);
+            }
+
+            Map<Object, String> orderedMap = ImmutableMap.ofOrdered(linkedHashMap);
+
+            assertThat(orderedMap, is(equalTo(linkedHashMap)));
+            assertThat(new ArrayList<>(orderedMap.keySet()), is(equalTo(new ArrayList<>(linkedHashMap.keySet()))));
+            assertThat(orderedMap.get(null), is(equalTo("null")));
+            assertThat(orderedMap.get(new CollidingKey(0)), is(equalTo("value 0")));
+            assertThat(orderedMap.get(size - 1), is(equalTo(size > 10 ? "value " + (size - 1) : null)));
+            assertThat(orderedMap.containsKey(size), is(equalTo(false)));
+        }
+    }
+
+    private static class CollidingKey {
+        private final int value;
+
+        private CollidingKey(int value) {
+            this.value = value;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+
+            return value == ((CollidingKey) o).value;
+        }
+
+        @Override
+        public int hashCode() {
+            return 42;
+        }
+    }
+}
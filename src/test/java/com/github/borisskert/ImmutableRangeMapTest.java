@@ -0,0 +1,96 @@
+package com.github.borisskert;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.AbstractMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.fail;
+
+class ImmutableRangeMapTest {
+
+    private ImmutableRangeMap<Integer, String> emptyRangeMap;
+    private ImmutableRangeMap<Integer, String> tariffs;
+
+    @BeforeEach
+    public void setup() throws Exception {
+        emptyRangeMap = ImmutableRangeMap.empty();
+
+        Map<Range<Integer>, String> map = new LinkedHashMap<>();
+        map.put(Range.of(100, 200), "B");
+        map.put(Range.of(0, 50), "A");
+        map.put(Range.of(50, 100), "A");
+        map.put(Range.of(300, 400), "C");
+
+        tariffs = ImmutableRangeMap.of(map);
+    }
+
+    @Test
+    public void shouldMergeConnectedRangesWithEqualValues() throws Exception {
+        assertThat(tariffs.size(), is(equalTo(3)));
+        assertThat(tariffs.asMapOfRanges().keySet(), contains(Range.of(0, 100), Range.of(100, 200), Range.of(300, 400)));
+        assertThat(tariffs.toString(), is(equalTo("{[0..100)=A, [100..200)=B, [300..400)=C}")));
+
+        assertThat(emptyRangeMap.isEmpty(), is(true));
+    }
+
+    @Test
+    public void shouldProvideValues() throws Exception {
+        assertThat(tariffs.get(0), is(equalTo("A")));
+        assertThat(tariffs.get(99), is(equalTo("A")));
+        assertThat(tariffs.get(100), is(equalTo("B")));
+        assertThat(tariffs.get(250), is(nullValue()));
+        assertThat(tariffs.get(400), is(nullValue()));
+        assertThat(tariffs.get(null), is(nullValue()));
+
+        assertThat(tariffs.getEntry(150), is(equalTo(new AbstractMap.SimpleImmutableEntry<>(Range.of(100, 200), "B"))));
+        assertThat(tariffs.getEntry(-1), is(nullValue()));
+
+        assertThat(tariffs.asMapOfRanges().get(Range.of(100, 200)), is(equalTo("B")));
+        assertThat(tariffs.asMapOfRanges().get(Range.of(100, 150)), is(nullValue()));
+
+        assertThat(emptyRangeMap.get(0), is(nullValue()));
+    }
+
+    @Test
+    public void shouldProvideSubRangeMap() throws Exception {
+        ImmutableRangeMap<Integer, String> subRangeMap = tariffs.subRangeMap(Range.of(150, 350));
+
+        assertThat(subRangeMap.toString(), is(equalTo("{[150..200)=B, [300..350)=C}")));
+        assertThat(subRangeMap.get(120), is(nullValue()));
+        assertThat(subRangeMap.get(150), is(equalTo("B")));
+        assertThat(subRangeMap.get(350), is(nullValue()));
+    }
+
+    @Test
+    public void shouldNotAllowOverlappingRangesWithDifferentValues() throws Exception {
+        try {
+            Stream.of("A", "BB")
+                    .collect(ImmutableRangeMap.collect(value -> Range.of(value.length(), 5), value -> value));
+            fail("Should throw UnsupportedOperationException");
+        } catch (UnsupportedOperationException e) {
+            assertThat(e.getMessage(), is(equalTo(
+                    "Overlapping ranges [1..5) and [2..5) (attempted merging values A and BB)"
+            )));
+        }
+    }
+
+    @Test
+    public void shouldBeEqual() throws Exception {
+        ImmutableRangeMap<Integer, String> collected = Stream.of("A", "B", "C")
+                .collect(ImmutableRangeMap.collect(
+                        value -> value.equals("A") ? Range.of(0, 100) : value.equals("B") ? Range.of(100, 200) : Range.of(300, 400),
+                        value -> value
+                ));
+
+        assertThat(collected, is(equalTo(tariffs)));
+        assertThat(collected.hashCode(), is(equalTo(tariffs.hashCode())));
+        assertThat(tariffs, is(not(equalTo(emptyRangeMap))));
+        assertThat(tariffs.asMapOfRanges(), is(instanceOf(ImmutableMap.class)));
+    }
+}
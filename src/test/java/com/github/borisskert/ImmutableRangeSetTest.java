@@ -0,0 +1,92 @@
+package com.github.borisskert;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.fail;
+
+class ImmutableRangeSetTest {
+
+    private ImmutableRangeSet<Integer> emptyRangeSet;
+    private ImmutableRangeSet<Integer> rangeSet;
+
+    @BeforeEach
+    public void setup() throws Exception {
+        emptyRangeSet = ImmutableRangeSet.empty();
+
+        rangeSet = ImmutableRangeSet.of(Arrays.asList(
+                Range.of(20, 30),
+                Range.of(0, 5),
+                Range.of(3, 8),
+                Range.of(8, 10),
+                Range.of(40, 50),
+                Range.of(42, 45)
+        ));
+    }
+
+    @Test
+    public void shouldMergeConnectedRanges() throws Exception {
+        assertThat(rangeSet.size(), is(equalTo(3)));
+        assertThat(rangeSet.asRanges(), contains(Range.of(0, 10), Range.of(20, 30), Range.of(40, 50)));
+        assertThat(rangeSet.toString(), is(equalTo("[[0..10), [20..30), [40..50)]")));
+
+        assertThat(emptyRangeSet.isEmpty(), is(true));
+        assertThat(emptyRangeSet.asRanges(), is(empty()));
+    }
+
+    @Test
+    public void shouldContainValues() throws Exception {
+        assertThat(rangeSet.contains(0), is(true));
+        assertThat(rangeSet.contains(9), is(true));
+        assertThat(rangeSet.contains(10), is(false));
+        assertThat(rangeSet.contains(-1), is(false));
+        assertThat(rangeSet.contains(49), is(true));
+        assertThat(rangeSet.contains(50), is(false));
+        assertThat(rangeSet.contains(null), is(false));
+
+        assertThat(rangeSet.rangeContaining(25), is(equalTo(Range.of(20, 30))));
+        assertThat(rangeSet.rangeContaining(35), is(nullValue()));
+
+        assertThat(emptyRangeSet.contains(0), is(false));
+    }
+
+    @Test
+    public void shouldProvideSubRangeSet() throws Exception {
+        ImmutableRangeSet<Integer> subRangeSet = rangeSet.subRangeSet(Range.of(5, 45));
+
+        assertThat(subRangeSet.asRanges(), contains(Range.of(5, 10), Range.of(20, 30), Range.of(40, 45)));
+        assertThat(subRangeSet.contains(4), is(false));
+        assertThat(subRangeSet.contains(5), is(true));
+        assertThat(subRangeSet.contains(45), is(false));
+
+        assertThat(subRangeSet.subRangeSet(Range.of(0, 25)).asRanges(), contains(Range.of(5, 10), Range.of(20, 25)));
+        assertThat(rangeSet.subRangeSet(Range.of(10, 20)).isEmpty(), is(true));
+        assertThat(subRangeSet.subRangeSet(Range.of(50, 60)).isEmpty(), is(true));
+    }
+
+    @Test
+    public void shouldBeEqual() throws Exception {
+        ImmutableRangeSet<Integer> collected = Stream.of(Range.of(0, 10), Range.of(20, 30), Range.of(40, 50))
+                .collect(ImmutableRangeSet.collect());
+
+        assertThat(collected, is(equalTo(rangeSet)));
+        assertThat(collected.hashCode(), is(equalTo(rangeSet.hashCode())));
+        assertThat(rangeSet.subRangeSet(Range.of(0, 10)), is(equalTo(ImmutableRangeSet.of(Arrays.asList(Range.of(0, 10))))));
+        assertThat(rangeSet, is(not(equalTo(emptyRangeSet))));
+    }
+
+    @Test
+    public void shouldNotAllowEmptyRange() throws Exception {
+        try {
+            Range.of(5, 5);
+            fail("Should throw IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            assertThat(e.getMessage(), is(equalTo("Parameter 'lower' (5) must be less than 'upper' (5)")));
+        }
+    }
+}
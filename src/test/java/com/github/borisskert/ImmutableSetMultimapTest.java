@@ -0,0 +1,95 @@
+package com.github.borisskert;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.fail;
+
+class ImmutableSetMultimapTest {
+
+    private ImmutableSetMultimap<String, String> multimap;
+
+    @BeforeEach
+    public void setup() throws Exception {
+        multimap = Stream.of("A1", "B1", "A2", "C1", "A1", "B1")
+                .collect(ImmutableSetMultimap.collect(item -> item.substring(0, 1), Function.identity()));
+    }
+
+    @Test
+    public void shouldDropDuplicateValuesOfKey() throws Exception {
+        assertThat(multimap.size(), is(equalTo(4)));
+        assertThat(multimap.get("A"), contains("A1", "A2"));
+        assertThat(multimap.get("B"), contains("B1"));
+        assertThat(multimap.values(), contains("A1", "A2", "B1", "C1"));
+    }
+
+    @Test
+    public void shouldProvideValuesOfKeyAsSet() throws Exception {
+        Set<String> values = multimap.get("A");
+
+        assertThat(values, is(instanceOf(ImmutableSet.class)));
+        assertThat(values, is(equalTo(new HashSet<>(Arrays.asList("A2", "A1")))));
+        assertThat(values.contains("A2"), is(true));
+        assertThat(values.contains("B1"), is(false));
+        assertThat(multimap.get("D"), is(empty()));
+
+        try {
+            values.add("A3");
+            fail("Should throw UnsupportedOperationException");
+        } catch (UnsupportedOperationException e) {
+            assertThat(e.getMessage(), is(equalTo("You must not add an element to this Set")));
+        }
+    }
+
+    @Test
+    public void shouldCreateFromMap() throws Exception {
+        Map<String, Set<String>> map = new LinkedHashMap<>();
+        map.put("A", new LinkedHashSet<>(Arrays.asList("A1", "A2")));
+        map.put("B", Collections.singleton("B1"));
+        map.put("C", Collections.singleton("C1"));
+
+        ImmutableSetMultimap<String, String> fromMap = ImmutableSetMultimap.of(map);
+
+        assertThat(fromMap, is(equalTo(multimap)));
+        assertThat(fromMap.hashCode(), is(equalTo(map.hashCode())));
+        assertThat(fromMap.toString(), is(equalTo(map.toString())));
+    }
+
+    @Test
+    public void shouldIgnoreOrderOfValuesForEquality() throws Exception {
+        Map<String, List<String>> map = new LinkedHashMap<>();
+        map.put("A", Arrays.asList("A2", "A1"));
+        map.put("B", Collections.singletonList("B1"));
+        map.put("C", Collections.singletonList("C1"));
+
+        assertThat(ImmutableSetMultimap.of(map), is(equalTo(multimap)));
+        assertThat(ImmutableSetMultimap.empty(), is(not(equalTo(multimap))));
+    }
+
+    @Test
+    public void shouldLookUpValuesOfLargeRows() throws Exception {
+        ImmutableSetMultimap<Integer, Integer> evenAndOdd = IntStream.range(0, 10_000)
+                .boxed()
+                .collect(ImmutableSetMultimap.collect(item -> item % 2, item -> item / 2));
+        ImmutableSetMultimap<Integer, Integer> reversed = IntStream.range(0, 10_000)
+                .map(item -> 9_999 - item)
+                .boxed()
+                .collect(ImmutableSetMultimap.collect(item -> item % 2, item -> item / 2));
+
+        assertThat(evenAndOdd.size(), is(equalTo(10_000)));
+        assertThat(evenAndOdd.containsEntry(0, 4_999), is(true));
+        assertThat(evenAndOdd.containsEntry(1, 0), is(true));
+        assertThat(evenAndOdd.containsEntry(1, 5_000), is(false));
+        assertThat(evenAndOdd.get(0).contains(-1), is(false));
+        assertThat(evenAndOdd.get(0).contains(null), is(false));
+        assertThat(evenAndOdd, is(equalTo(reversed)));
+        assertThat(evenAndOdd.hashCode(), is(equalTo(reversed.hashCode())));
+    }
+}
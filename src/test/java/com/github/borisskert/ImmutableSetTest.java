@@ -5,10 +5,8 @@ import org.hamcrest.core.IsEqual;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
-import java.util.Collection;
-import java.util.HashSet;
-import java.util.Iterator;
-import java.util.Set;
+import java.util.*;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -231,6 +229,52 @@ class ImmutableSetTest {
         assertThat(producedSet, is(instanceOf(ImmutableSet.class)));
     }
 
+    @Test
+    public void shouldProduceFromStream() throws Exception {
+        Set<String> producedSet = ImmutableSet.ofStream(Stream.of("A", "B", "C", "A"));
+
+        assertThat(producedSet, is(equalTo(abcSet)));
+        assertThat(producedSet, is(instanceOf(ImmutableSet.class)));
+        assertThat(ImmutableSet.ofStream(Stream.empty()), is(sameInstance(ImmutableSet.empty())));
+
+        Set<Integer> expected = new HashSet<>();
+
+        for (int item = 0; item < 10000; item++) {
+            expected.add(item % 5000);
+        }
+
+        expected.add(null);
+
+        List<Integer> items = new ArrayList<>();
+
+        for (int item = 0; item < 10000; item++) {
+            items.add(item % 5000);
+        }
+
+        items.add(null);
+
+        assertThat(ImmutableSet.ofStream(items.stream()), is(equalTo(expected)));
+        assertThat(ImmutableSet.ofStream(items.parallelStream()), is(equalTo(expected)));
+        assertThat(ImmutableSet.ofStream(items.stream().filter(item -> true)), is(equalTo(expected)));
+        assertThat(ImmutableSet.ofStream(items.parallelStream().filter(item -> true)), is(equalTo(expected)));
+
+        Object[] partitionedItems = IntStream.range(0, Partitions.PARALLEL_THRESHOLD + 1000)
+                .mapToObj(item -> item % 1000)
+                .toArray();
+        Set<Object> partitionedSet = Partitions.setOf(partitionedItems);
+
+        assertThat(partitionedSet, hasSize(1000));
+        assertThat(partitionedSet.contains(999), is(equalTo(true)));
+        assertThat(partitionedSet.contains(1000), is(equalTo(false)));
+
+        try {
+            ImmutableSet.ofStream(null);
+            fail("Should throw NullPointerException");
+        } catch (NullPointerException e) {
+            assertThat(e.getMessage(), is(equalTo("Parameter 'items' must not be null")));
+        }
+    }
+
     @Test
     public void shouldEqualImmutableSetWithSameElements() throws Exception {
         Set<String> another = ImmutableSet.of("A", "B", "C");
@@ -267,4 +311,143 @@ class ImmutableSetTest {
         assertThat(abcSet.toString(), is(equalTo(abcHashSet.toString())));
         assertThat(emptySet.toString(), is(equalTo(emptyHashSet.toString())));
     }
+
+    @Test
+    public void shouldBuildHardenedSet() throws Exception {
+        Set<String> hardenedSet = ImmutableSet.ofHardened(Arrays.asList("A", "B", "C", "A"));
+
+        assertThat(hardenedSet, is(equalTo(abcHashSet)));
+        assertThat(abcHashSet, is(equalTo(hardenedSet)));
+        assertThat(hardenedSet.hashCode(), is(equalTo(abcHashSet.hashCode())));
+        assertThat(hardenedSet.size(), is(equalTo(3)));
+        assertThat(hardenedSet.contains("B"), is(equalTo(true)));
+        assertThat(hardenedSet.contains("D"), is(equalTo(false)));
+        assertThat(hardenedSet.contains(null), is(equalTo(false)));
+        assertThat(ImmutableSet.ofHardened(emptyHashSet), is(equalTo(emptySet)));
+
+        Set<String> collidingStrings = new HashSet<>();
+
+        for (int bits = 0; bits < 1 << 10; bits++) {
+            StringBuilder item = new StringBuilder();
+
+            for (int position = 0; position < 10; position++) {
+                item.append((bits & 1 << position) == 0 ? "Aa" : "BB");
+            }
+
+            collidingStrings.add(item.toString());
+        }
+
+        Set<String> hardenedStrings = ImmutableSet.ofHardened(collidingStrings);
+
+        assertThat(hardenedStrings, is(equalTo(collidingStrings)));
+        assertThat(hardenedStrings.containsAll(collidingStrings), is(equalTo(true)));
+        assertThat(hardenedStrings.contains("AaAaAaAaAaAaAaAaAa"), is(equalTo(false)));
+
+        try {
+            hardenedSet.add("D");
+            fail("Should throw UnsupportedOperationException");
+        } catch (UnsupportedOperationException e) {
+            assertThat(e.getMessage(), is(equalTo("You must not add an element to this Set")));
+        }
+    }
+
+    @Test
+    public void shouldBuildHugeSet() throws Exception {
+        List<String> items = new ArrayList<>();
+
+        for (int item = 0; item < Partitions.PARALLEL_THRESHOLD + 1000; item++) {
+            items.add("I" + item);
+            items.add("I" + item % 100);
+        }
+
+        items.add(null);
+
+        Set<String> hashSet = new HashSet<>(items);
+        Set<String> immutableSet = ImmutableSet.of(items);
+        Set<String> partitionedSet = Partitions.setOf(items);
+
+        for (Set<String> set : Arrays.asList(immutableSet, partitionedSet)) {
+            assertThat(set, is(equalTo(hashSet)));
+            assertThat(hashSet, is(equalTo(set)));
+            assertThat(set.hashCode(), is(equalTo(hashSet.hashCode())));
+            assertThat(set.size(), is(equalTo(Partitions.PARALLEL_THRESHOLD + 1001)));
+            assertThat(set.contains("I12345"), is(equalTo(true)));
+            assertThat(set.contains(null), is(equalTo(true)));
+            assertThat(set.contains("X"), is(equalTo(false)));
+        }
+
+        assertThat(ImmutableSet.of(immutableSet), is(equalTo(hashSet)));
+    }
+
+    @Test
+    public void shouldCompareHugeSetsInParallel() throws Exception {
+        Set<String> hashSet = new HashSet<>();
+
+        for (int item = 0; item < ParallelComparison.PARALLEL_THRESHOLD + 1000; item++) {
+            hashSet.add("I" + item);
+        }
+
+        Set<String> immutableSet = ImmutableSet.of(hashSet);
+        Set<String> otherImmutableSet = ImmutableSet.of(hashSet);
+
+        hashSet.remove("I0");
+        hashSet.add("X");
+        Set<String> differentSet = ImmutableSet.of(hashSet);
+
+        assertThat(immutableSet, is(equalTo(otherImmutableSet)));
+        assertThat(immutableSet, is(not(equalTo(differentSet))));
+        assertThat(immutableSet.hashCode(), is(equalTo(otherImmutableSet.hashCode())));
+        assertThat(differentSet.hashCode(), is(equalTo(hashSet.hashCode())));
+
+        assertThat(ParallelComparison.setsEqual(immutableSet, otherImmutableSet), is(true));
+        assertThat(ParallelComparison.setsEqual(immutableSet, differentSet), is(false));
+        assertThat(ParallelComparison.setHashCode(differentSet), is(equalTo(hashSet.hashCode())));
+    }
+
+    @Test
+    public void shouldMapFilterAndFlatMapEagerly() throws Exception {
+        Set<String> mapped = ImmutableSet.map(abcSet, String::toLowerCase);
+        Set<Integer> lengths = ImmutableSet.map(abcHashSet, String::length);
+        Set<String> filtered = ImmutableSet.filter(abcSet, item -> !item.equals("B"));
+        Set<String> flatMapped = ImmutableSet.flatMap(abcSet, item -> Arrays.asList(item, item.toLowerCase(), "X"));
+
+        assertThat(mapped, is(equalTo(new HashSet<>(Arrays.asList("a", "b", "c")))));
+        assertThat(mapped, is(instanceOf(ImmutableSet.class)));
+        assertThat(lengths, is(equalTo(Collections.singleton(1))));
+        assertThat(filtered, is(equalTo(new HashSet<>(Arrays.asList("A", "C")))));
+        assertThat(flatMapped, is(equalTo(new HashSet<>(Arrays.asList("A", "a", "B", "b", "C", "c", "X")))));
+
+        int[] codes = ImmutableSet.mapToInt(abcSet, item -> item.charAt(0));
+        Arrays.sort(codes);
+        assertThat(codes, is(equalTo(new int[]{'A', 'B', 'C'})));
+
+        assertThat(ImmutableSet.filter(abcSet, item -> false), is(sameInstance(ImmutableSet.empty())));
+        assertThat(ImmutableSet.flatMap(emptySet, Collections::singleton), is(sameInstance(ImmutableSet.empty())));
+
+        try {
+            mapped.add("d");
+            fail("Should throw UnsupportedOperationException");
+        } catch (UnsupportedOperationException e) {
+            assertThat(e.getMessage(), is(equalTo("You must not add an element to this Set")));
+        }
+    }
+
+    @Test
+    public void shouldTrimFilteredAndMappedSets() throws Exception {
+        Set<Integer> items = ImmutableSet.ofStream(IntStream.range(0, 1_000).boxed());
+        Set<Integer> expected = ImmutableSet.ofStream(IntStream.range(0, 10).boxed());
+        ImmutableCollectionMetrics.Counters counters = new ImmutableCollectionMetrics.Counters();
+        ImmutableCollectionMetrics.register(counters);
+
+        try {
+            Set<Integer> filtered = ImmutableSet.filter(items, item -> item < 10);
+            Set<Integer> mapped = ImmutableSet.map(items, item -> item % 10);
+
+            assertThat(filtered, is(equalTo(expected)));
+            assertThat(mapped, is(equalTo(filtered)));
+            assertThat(counters.copiedElements(ImmutableSet.class), is(equalTo(10L + 10L + 1_000L + 10L)));
+        } finally {
+            ImmutableCollectionMetrics.unregister(counters);
+        }
+    }
 }
@@ -0,0 +1,179 @@
+package com.github.borisskert;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.fail;
+
+class ImmutableTableTest {
+
+    private ImmutableTable<String, String, String> emptyTable;
+    private ImmutableTable<String, String, String> table;
+    private ImmutableTable<Integer, Integer, Integer> sparseTable;
+
+    @BeforeEach
+    public void setup() throws Exception {
+        emptyTable = ImmutableTable.empty();
+
+        table = Stream.of("A1", "A2", "B1", "C2", "C3")
+                .collect(ImmutableTable.collect(
+                        item -> item.substring(0, 1), item -> item.substring(1), Function.identity()
+                ));
+
+        sparseTable = IntStream.range(0, 100)
+                .boxed()
+                .collect(ImmutableTable.collect(Function.identity(), item -> item * 7 % 100, item -> item * 100));
+    }
+
+    @Test
+    public void shouldHaveSpecificSize() throws Exception {
+        assertThat(table.size(), is(equalTo(5)));
+        assertThat(table.isEmpty(), is(false));
+
+        assertThat(sparseTable.size(), is(equalTo(100)));
+
+        assertThat(emptyTable.size(), is(equalTo(0)));
+        assertThat(emptyTable.isEmpty(), is(true));
+    }
+
+    @Test
+    public void shouldProvideValueOfCell() throws Exception {
+        assertThat(table.get("A", "1"), is(equalTo("A1")));
+        assertThat(table.get("C", "3"), is(equalTo("C3")));
+        assertThat(table.get("B", "2"), is(nullValue()));
+        assertThat(table.get("D", "1"), is(nullValue()));
+        assertThat(table.get(null, "1"), is(nullValue()));
+
+        assertThat(table.contains("A", "2"), is(true));
+        assertThat(table.contains("A", "3"), is(false));
+
+        assertThat(emptyTable.get("A", "1"), is(nullValue()));
+    }
+
+    @Test
+    public void shouldProvideValueOfSparseCell() throws Exception {
+        assertThat(sparseTable.get(3, 21), is(equalTo(300)));
+        assertThat(sparseTable.get(99, 93), is(equalTo(9900)));
+        assertThat(sparseTable.get(3, 22), is(nullValue()));
+        assertThat(sparseTable.get(100, 0), is(nullValue()));
+    }
+
+    @Test
+    public void shouldContainRowsAndColumns() throws Exception {
+        assertThat(table.containsRow("B"), is(true));
+        assertThat(table.containsRow("D"), is(false));
+        assertThat(table.containsColumn("3"), is(true));
+        assertThat(table.containsColumn("4"), is(false));
+
+        assertThat(table.rowKeySet(), contains("A", "B", "C"));
+        assertThat(table.columnKeySet(), contains("1", "2", "3"));
+    }
+
+    @Test
+    public void shouldProvideRow() throws Exception {
+        Map<String, String> expected = new HashMap<>();
+        expected.put("2", "C2");
+        expected.put("3", "C3");
+
+        assertThat(table.row("C"), is(equalTo(expected)));
+        assertThat(table.row("C").hashCode(), is(equalTo(expected.hashCode())));
+        assertThat(table.row("D"), is(equalTo(Collections.emptyMap())));
+
+        assertThat(sparseTable.row(3), is(equalTo(Collections.singletonMap(21, 300))));
+    }
+
+    @Test
+    public void shouldProvideColumn() throws Exception {
+        Map<String, String> expected = new HashMap<>();
+        expected.put("A", "A1");
+        expected.put("B", "B1");
+
+        assertThat(table.column("1"), is(equalTo(expected)));
+        assertThat(table.column("4"), is(equalTo(Collections.emptyMap())));
+
+        assertThat(sparseTable.column(21), is(equalTo(Collections.singletonMap(3, 300))));
+    }
+
+    @Test
+    public void shouldProvideImmutableRow() throws Exception {
+        Map<String, String> row = table.row("A");
+
+        assertThat(row, is(instanceOf(ImmutableMap.class)));
+
+        try {
+            row.put("3", "A3");
+            fail("Should throw UnsupportedOperationException");
+        } catch (UnsupportedOperationException e) {
+            assertThat(e.getMessage(), is(equalTo("You must not put an element to this map")));
+        }
+    }
+
+    @Test
+    public void shouldCreateFromMap() throws Exception {
+        Map<String, Map<String, String>> map = new LinkedHashMap<>();
+        map.put("A", new LinkedHashMap<>());
+        map.put("B", new LinkedHashMap<>());
+        map.put("C", new LinkedHashMap<>());
+        map.get("A").put("1", "A1");
+        map.get("A").put("2", "A2");
+        map.get("B").put("1", "B1");
+        map.get("C").put("2", "C2");
+        map.get("C").put("3", "C3");
+
+        ImmutableTable<String, String, String> fromMap = ImmutableTable.of(map);
+
+        assertThat(fromMap, is(equalTo(table)));
+        assertThat(fromMap.hashCode(), is(equalTo(map.hashCode())));
+        assertThat(fromMap.toString(), is(equalTo(map.toString())));
+    }
+
+    @Test
+    public void shouldNotBeEqualToOtherTable() throws Exception {
+        ImmutableTable<String, String, String> other = Stream.of("A1", "A2", "B1", "C2", "C4")
+                .collect(ImmutableTable.collect(
+                        item -> item.substring(0, 1), item -> item.substring(1), Function.identity()
+                ));
+
+        assertThat(table, is(not(equalTo(other))));
+        assertThat(table, is(not(equalTo(emptyTable))));
+    }
+
+    @Test
+    public void shouldNotAllowDuplicateCells() throws Exception {
+        try {
+            Stream.of("A1", "B1", "A1")
+                    .collect(ImmutableTable.collect(
+                            item -> item.substring(0, 1), item -> item.substring(1), Function.identity()
+                    ));
+            fail("Should throw UnsupportedOperationException");
+        } catch (UnsupportedOperationException e) {
+            assertThat(e.getMessage(), is(equalTo("Duplicate cell (A, 1) (attempted merging values A1 and A1)")));
+        }
+
+        try {
+            IntStream.concat(IntStream.range(0, 100), IntStream.of(5))
+                    .boxed()
+                    .collect(ImmutableTable.collect(Function.identity(), Function.identity(), item -> item * 100));
+            fail("Should throw UnsupportedOperationException");
+        } catch (UnsupportedOperationException e) {
+            assertThat(e.getMessage(), is(equalTo("Duplicate cell (5, 5) (attempted merging values 500 and 500)")));
+        }
+    }
+
+    @Test
+    public void shouldCollectInParallel() throws Exception {
+        ImmutableTable<Integer, Integer, Integer> parallelTable = IntStream.range(0, 100)
+                .boxed()
+                .parallel()
+                .collect(ImmutableTable.collect(Function.identity(), item -> item * 7 % 100, item -> item * 100));
+
+        assertThat(parallelTable, is(equalTo(sparseTable)));
+    }
+}
@@ -0,0 +1,144 @@
+package com.github.borisskert;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.fail;
+
+class ImmutableTrieMapTest {
+
+    private ImmutableTrieMap<Integer> emptyTrieMap;
+    private ImmutableTrieMap<Integer> routes;
+    private Map<String, Integer> hashMap;
+
+    @BeforeEach
+    public void setup() throws Exception {
+        emptyTrieMap = ImmutableTrieMap.empty();
+
+        hashMap = new HashMap<>();
+        hashMap.put("/", 1);
+        hashMap.put("/orders", 2);
+        hashMap.put("/orders/items", 3);
+        hashMap.put("/order", 4);
+        hashMap.put("/customers", 5);
+        hashMap.put("/customers/search", 6);
+
+        routes = ImmutableTrieMap.of(hashMap);
+    }
+
+    @Test
+    public void shouldHaveSpecificSize() throws Exception {
+        assertThat(routes.size(), is(equalTo(6)));
+        assertThat(routes.isEmpty(), is(false));
+
+        assertThat(emptyTrieMap.size(), is(equalTo(0)));
+        assertThat(emptyTrieMap.isEmpty(), is(true));
+    }
+
+    @Test
+    public void shouldProvideValues() throws Exception {
+        assertThat(routes.get("/"), is(equalTo(1)));
+        assertThat(routes.get("/order"), is(equalTo(4)));
+        assertThat(routes.get("/orders/items"), is(equalTo(3)));
+        assertThat(routes.get("/orders/"), is(nullValue()));
+        assertThat(routes.get("/ord"), is(nullValue()));
+        assertThat(routes.get(""), is(nullValue()));
+        assertThat(routes.get("/orders/items/1"), is(nullValue()));
+        assertThat(routes.get(null), is(nullValue()));
+        assertThat(routes.get(1), is(nullValue()));
+
+        assertThat(routes.containsKey("/customers"), is(true));
+        assertThat(routes.containsKey("/customer"), is(false));
+        assertThat(routes.containsValue(6), is(true));
+        assertThat(routes.containsValue(7), is(false));
+
+        assertThat(emptyTrieMap.get("/"), is(nullValue()));
+    }
+
+    @Test
+    public void shouldIterateOrderedByKey() throws Exception {
+        assertThat(routes.keySet(), contains(
+                "/", "/customers", "/customers/search", "/order", "/orders", "/orders/items"
+        ));
+        assertThat(routes.values(), contains(1, 5, 6, 4, 2, 3));
+        assertThat(routes.toString(), is(equalTo(new TreeMap<>(hashMap).toString())));
+    }
+
+    @Test
+    public void shouldProvidePrefixMap() throws Exception {
+        assertThat(routes.prefixMap("/order").keySet(), contains("/order", "/orders", "/orders/items"));
+        assertThat(routes.prefixMap("/orders/").keySet(), contains("/orders/items"));
+        assertThat(routes.prefixMap("/cu").keySet(), contains("/customers", "/customers/search"));
+        assertThat(routes.prefixMap("").size(), is(equalTo(6)));
+        assertThat(routes.prefixMap("/x").isEmpty(), is(true));
+        assertThat(routes.prefixMap("/orders/items/1").isEmpty(), is(true));
+
+        Map<String, Integer> prefixMap = routes.prefixMap("/orders");
+
+        assertThat(prefixMap.get("/orders/items"), is(equalTo(3)));
+        assertThat(prefixMap.get("/order"), is(nullValue()));
+        assertThat(prefixMap, is(instanceOf(ImmutableMap.class)));
+    }
+
+    @Test
+    public void shouldProvideLongestPrefix() throws Exception {
+        assertThat(routes.longestPrefixOf("/orders/items/1"), is(equalTo("/orders/items")));
+        assertThat(routes.longestPrefixOf("/orders/1"), is(equalTo("/orders")));
+        assertThat(routes.longestPrefixOf("/orde"), is(equalTo("/")));
+        assertThat(routes.longestPrefixOf("/order"), is(equalTo("/order")));
+        assertThat(routes.longestPrefixOf("orders"), is(nullValue()));
+        assertThat(routes.longestPrefixOf(""), is(nullValue()));
+        assertThat(emptyTrieMap.longestPrefixOf("/"), is(nullValue()));
+    }
+
+    @Test
+    public void shouldBeEqualToMap() throws Exception {
+        assertThat(routes, is(equalTo(hashMap)));
+        assertThat(hashMap, is(equalTo(routes)));
+        assertThat(routes.hashCode(), is(equalTo(hashMap.hashCode())));
+        assertThat(routes.entrySet(), is(equalTo(hashMap.entrySet())));
+        assertThat(routes, is(not(equalTo(emptyTrieMap))));
+    }
+
+    @Test
+    public void shouldNotAllowToPutElement() throws Exception {
+        try {
+            routes.put("/new", 7);
+            fail("Should throw UnsupportedOperationException");
+        } catch (UnsupportedOperationException e) {
+            assertThat(e.getMessage(), is(equalTo("You must not put an element to this map")));
+        }
+    }
+
+    @Test
+    public void shouldCollect() throws Exception {
+        ImmutableTrieMap<Integer> collected = IntStream.range(0, 10_000)
+                .boxed()
+                .parallel()
+                .collect(ImmutableTrieMap.collect(String::valueOf, Function.identity()));
+
+        assertThat(collected.size(), is(equalTo(10_000)));
+        assertThat(collected.get("1234"), is(equalTo(1234)));
+        assertThat(collected.longestPrefixOf("12345"), is(equalTo("1234")));
+        assertThat(collected.prefixMap("999").keySet(), contains("999", "9990", "9991", "9992", "9993", "9994",
+                "9995", "9996", "9997", "9998", "9999"));
+        assertThat(collected.keySet().stream().collect(Collectors.toList()),
+                is(equalTo(IntStream.range(0, 10_000).mapToObj(String::valueOf).sorted().collect(Collectors.toList()))));
+
+        try {
+            Stream.of("A", "B", "A")
+                    .collect(ImmutableTrieMap.collect(Function.identity(), String::length));
+            fail("Should throw UnsupportedOperationException");
+        } catch (UnsupportedOperationException e) {
+            assertThat(e.getMessage(), is(equalTo("Duplicate key A (attempted merging values 1 and 1)")));
+        }
+    }
+}
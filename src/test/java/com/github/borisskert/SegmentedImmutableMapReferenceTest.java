@@ -0,0 +1,155 @@
+package com.github.borisskert;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.fail;
+
+class SegmentedImmutableMapReferenceTest {
+
+    private SegmentedImmutableMapReference<String, String> reference;
+
+    @BeforeEach
+    public void setup() throws Exception {
+        reference = new SegmentedImmutableMapReference<>(4);
+
+        reference.put("1", "A");
+        reference.put("2", "B");
+    }
+
+    @Test
+    public void shouldProvideValues() throws Exception {
+        assertThat(reference.get("1"), is(equalTo("A")));
+        assertThat(reference.get("3"), is(nullValue()));
+        assertThat(reference.get(null), is(nullValue()));
+        assertThat(reference.containsKey("2"), is(true));
+        assertThat(reference.containsKey("3"), is(false));
+    }
+
+    @Test
+    public void shouldProvideSnapshot() throws Exception {
+        Map<String, String> before = reference.snapshot();
+
+        Map<String, String> entries = new HashMap<>();
+        entries.put("3", "C");
+        entries.put("4", "D");
+        reference.putAll(entries);
+        reference.remove("1");
+
+        Map<String, String> expected = new HashMap<>();
+        expected.put("2", "B");
+        expected.put("3", "C");
+        expected.put("4", "D");
+
+        assertThat(reference.snapshot(), is(equalTo(expected)));
+        assertThat(reference.snapshot().hashCode(), is(equalTo(expected.hashCode())));
+        assertThat(before.size(), is(equalTo(2)));
+        assertThat(before.get("1"), is(equalTo("A")));
+        assertThat(before.get("3"), is(nullValue()));
+    }
+
+    @Test
+    public void shouldProvideImmutableSnapshot() throws Exception {
+        Map<String, String> snapshot = reference.snapshot();
+
+        assertThat(snapshot, is(instanceOf(ImmutableMap.class)));
+
+        try {
+            snapshot.put("3", "C");
+            fail("Should throw UnsupportedOperationException");
+        } catch (UnsupportedOperationException e) {
+            assertThat(e.getMessage(), is(equalTo("You must not put an element to this map")));
+        }
+
+        try {
+            snapshot.entrySet().iterator().next().setValue("X");
+            fail("Should throw UnsupportedOperationException");
+        } catch (UnsupportedOperationException e) {
+            assertThat(e.getMessage(), is(equalTo("You must not change the value of this entry")));
+        }
+    }
+
+    @Test
+    public void shouldNotAllowInvalidSegmentCount() throws Exception {
+        try {
+            new SegmentedImmutableMapReference<>(0);
+            fail("Should throw IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            assertThat(e.getMessage(), is(equalTo("Parameter 'segmentCount' must be between 1 and 65536")));
+        }
+    }
+
+    @Test
+    public void shouldSnapshotPutAllAtomically() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        try {
+            Future<?> writer = executor.submit(() -> {
+                for (int index = 0; index < 2000; index++) {
+                    Map<String, String> entries = new HashMap<>();
+
+                    for (int key = 0; key < 8; key++) {
+                        entries.put("K" + key, "V" + index);
+                    }
+
+                    reference.putAll(entries);
+                }
+            });
+
+            while (!writer.isDone()) {
+                Map<String, String> snapshot = reference.snapshot();
+                String value = snapshot.get("K0");
+
+                for (int key = 1; key < 8; key++) {
+                    assertThat(snapshot.get("K" + key), is(equalTo(value)));
+                }
+            }
+
+            writer.get();
+        } finally {
+            executor.shutdown();
+        }
+
+        assertThat(reference.snapshot().get("K7"), is(equalTo("V1999")));
+    }
+
+    @Test
+    public void shouldNotLoseConcurrentUpdates() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+
+            for (int thread = 0; thread < 8; thread++) {
+                String prefix = "T" + thread + "-";
+                futures.add(executor.submit(() -> {
+                    for (int index = 0; index < 500; index++) {
+                        reference.put(prefix + index, "X");
+
+                        if (index % 100 == 0) {
+                            reference.snapshot();
+                        }
+                    }
+                }));
+            }
+
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertThat(reference.snapshot().size(), is(equalTo(2 + 8 * 500)));
+    }
+}